@@ -0,0 +1,131 @@
+/**
+ * Copyright (c) 2011, 2014 SAP AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    SAP AG - initial API and implementation
+ */
+package org.eclipse.tycho.targeteditor;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.tycho.targeteditor.model.BenchmarkNexusRepositoryService;
+import org.eclipse.tycho.targeteditor.model.INexusRepository;
+import org.eclipse.tycho.targeteditor.model.LDIModelFactory;
+import org.eclipse.tycho.targeteditor.model.NexusVersionCalculationResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of reading cached versions while another thread adds new entries, which causes
+ * evictions, or replaces the results of all entries.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RepositoryVersionCacheBenchmark {
+
+    private static final int MAX_ENTRIES = 1024;
+    private static final int HOT_REPOSITORIES = 256;
+    private static final int COLD_REPOSITORIES = 8 * MAX_ENTRIES;
+
+    @State(Scope.Group)
+    public static class CacheState {
+        BenchmarkNexusRepositoryService service;
+        RepositoryVersionCache cache;
+        INexusRepository[] hotRepositories;
+        INexusRepository[] coldRepositories;
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            service = BenchmarkNexusRepositoryService.install();
+            cache = new RepositoryVersionCache(null, new VersionCachePolicy(3600000, 3600000, MAX_ENTRIES));
+            hotRepositories = createRepositories("hot", HOT_REPOSITORIES);
+            coldRepositories = createRepositories("cold", COLD_REPOSITORIES);
+            for (final INexusRepository repository : hotRepositories) {
+                cache.getAllAvailableVersions(repository);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            service.uninstall();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    static INexusRepository[] createRepositories(final String prefix, final int count) throws Exception {
+        final INexusRepository[] result = new INexusRepository[count];
+        for (int i = 0; i < count; i++) {
+            final String artifactId = prefix + i;
+            result[i] = LDIModelFactory.createNexusRepository(new URI(
+                    "http://nexus:8081/nexus/content/repositories/build.snapshots.unzip/org/example/" + artifactId
+                            + "/1.0.0/" + artifactId + "-1.0.0-assembly.zip-unzip/"));
+        }
+        return result;
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(3)
+    public NexusVersionCalculationResult read(final CacheState state, final Cursor cursor) {
+        final INexusRepository[] repositories = state.hotRepositories;
+        return state.cache.getAllAvailableVersions(repositories[cursor.next++ % repositories.length]);
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(1)
+    public NexusVersionCalculationResult write(final CacheState state, final Cursor cursor) {
+        final INexusRepository[] repositories = state.coldRepositories;
+        return state.cache.getAllAvailableVersions(repositories[cursor.next++ % repositories.length]);
+    }
+
+    @Benchmark
+    @Group("reloading")
+    @GroupThreads(3)
+    public NexusVersionCalculationResult readWhileReloading(final CacheState state, final Cursor cursor) {
+        final INexusRepository[] repositories = state.hotRepositories;
+        return state.cache.getAllAvailableVersions(repositories[cursor.next++ % repositories.length]);
+    }
+
+    /**
+     * Replaces the results of all entries.
+     */
+    @Benchmark
+    @Group("reloading")
+    @GroupThreads(1)
+    public void reload(final CacheState state) {
+        state.cache.reload();
+    }
+
+    @Benchmark
+    @Group("uncontended")
+    @GroupThreads(4)
+    public NexusVersionCalculationResult readOnly(final CacheState state, final Cursor cursor) {
+        final INexusRepository[] repositories = state.hotRepositories;
+        return state.cache.getAllAvailableVersions(repositories[cursor.next++ % repositories.length]);
+    }
+}
@@ -0,0 +1,86 @@
+/**
+ * Copyright (c) 2011, 2014 SAP AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    SAP AG - initial API and implementation
+ */
+package org.eclipse.tycho.targeteditor;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.MultiStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.tycho.targeteditor.ShowResolutionProblemAction.ResolutionStatusFormatter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Formatting of resolution problems of failed resolutions: deep trees with many duplicate
+ * subtrees, as reported for missing units required by many others.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResolutionStatusFormatterBenchmark {
+
+    @Param({ "4", "16", "64" })
+    private int depth;
+
+    @Param({ "10", "100" })
+    private int width;
+
+    /** a new status per invocation, as the formatter keeps the trees of the statuses it formatted */
+    private IStatus status;
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+        status = createStatus(depth, width);
+    }
+
+    /**
+     * Creates a chain of the given depth; each level has the given number of leaves, half of
+     * which are duplicates.
+     */
+    private static IStatus createStatus(final int depth, final int width) {
+        IStatus status = new Status(IStatus.ERROR, Activator.PLUGIN_ID, "Missing requirement: unit 0.0.0");
+        for (int level = depth; level > 0; level--) {
+            final MultiStatus parent = new MultiStatus(Activator.PLUGIN_ID, 0, "Cannot satisfy dependency of level "
+                    + level, null);
+            for (int i = 0; i < width; i++) {
+                parent.add(new Status(IStatus.ERROR, Activator.PLUGIN_ID, "Missing requirement: unit" + (i / 2)
+                        + " 1.0.0 requires 'bundle org.example" + level + "'"));
+            }
+            parent.add(status);
+            status = parent;
+        }
+        return status;
+    }
+
+    @Benchmark
+    public String format() {
+        return ResolutionStatusFormatter.format(status);
+    }
+
+    @Benchmark
+    public String getShortMsgText() {
+        return ResolutionStatusFormatter.getShortMsgText(status);
+    }
+}
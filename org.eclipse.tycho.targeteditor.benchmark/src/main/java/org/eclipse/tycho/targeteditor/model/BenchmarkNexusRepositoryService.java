@@ -0,0 +1,64 @@
+/**
+ * Copyright (c) 2011, 2014 SAP AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    SAP AG - initial API and implementation
+ */
+package org.eclipse.tycho.targeteditor.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.core.runtime.Status;
+
+/**
+ * Answers version requests immediately in the calling thread, so that benchmarks measure the
+ * callers rather than the network.
+ */
+public final class BenchmarkNexusRepositoryService implements INexusRepositoryService {
+
+    private static final INexusVersionInfo VERSION_INFO = new NexusVersionInfo("2.0.1-SNAPSHOT", "2.0.0",
+            Arrays.asList("0.1.0", "0.2.0", "1.0.0", "1.1.1-SNAPSHOT", "1.1.1", "2.0.0", "2.0.1-SNAPSHOT"));
+
+    private INexusRepositoryService replacedService;
+
+    /**
+     * Replaces the service used by the plug-in until {@link #uninstall()} is called.
+     */
+    public static BenchmarkNexusRepositoryService install() {
+        final BenchmarkNexusRepositoryService service = new BenchmarkNexusRepositoryService();
+        service.replacedService = LDIModelFactory.setNexusRepositoryService(service);
+        return service;
+    }
+
+    public void uninstall() {
+        LDIModelFactory.setNexusRepositoryService(replacedService);
+    }
+
+    @Override
+    public INexusVersionInfo getVersionInfo(final INexusRepository repository) {
+        return VERSION_INFO;
+    }
+
+    @Override
+    public void getVersionInfoAsync(final INexusRepository repository, final INexusVersionInfoCallback callback) {
+        callback.notifyVersionCalculated(new NexusVersionCalculationResult(repository, VERSION_INFO,
+                Status.OK_STATUS));
+    }
+
+    @Override
+    public void getVersionInfoAsync(final List<INexusRepository> repositories,
+            final INexusVersionInfoBatchCallback callback) {
+        final List<NexusVersionCalculationResult> results = new ArrayList<NexusVersionCalculationResult>(
+                repositories.size());
+        for (final INexusRepository repository : repositories) {
+            results.add(new NexusVersionCalculationResult(repository, VERSION_INFO, Status.OK_STATUS));
+        }
+        callback.notifyVersionsCalculated(results, true);
+    }
+}
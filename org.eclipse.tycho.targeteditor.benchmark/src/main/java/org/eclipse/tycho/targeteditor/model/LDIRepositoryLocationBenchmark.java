@@ -0,0 +1,79 @@
+/**
+ * Copyright (c) 2011, 2014 SAP AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    SAP AG - initial API and implementation
+ */
+package org.eclipse.tycho.targeteditor.model;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.pde.core.target.ITargetPlatformService;
+import org.eclipse.pde.internal.core.target.IUBundleContainer;
+import org.eclipse.pde.internal.core.target.TargetPlatformService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Rebuilding the repositories and units of a repository location from its bundle container, as
+ * done whenever the container of the location was replaced.
+ * <p>
+ * The target platform service is created directly, as {@link LDIModelFactory} acquires it from
+ * the running platform.
+ */
+@SuppressWarnings("restriction")
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LDIRepositoryLocationBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    private int size;
+
+    private LDITargetDefinition targetDefinition;
+    private IUBundleContainer container;
+
+    @Setup
+    public void setUp() throws URISyntaxException {
+        final ITargetPlatformService service = TargetPlatformService.getDefault();
+        targetDefinition = new LDITargetDefinition(service.newTarget());
+        final String[] unitIds = new String[size];
+        final String[] unitVersions = new String[size];
+        final URI[] repositories = new URI[size];
+        for (int i = 0; i < size; i++) {
+            final String artifactId = "artifact" + i;
+            unitIds[i] = "org.example." + artifactId + ".feature.group";
+            unitVersions[i] = "1.0." + i + ".v20140101";
+            repositories[i] = new URI(NexusInstances.DEFAULT_INSTANCE_URL + "build.milestones.unzip/org/example/"
+                    + artifactId + "/1.0." + i + "/" + artifactId + "-1.0." + i + "-assembly.zip-unzip/");
+        }
+        container = (IUBundleContainer) service.newIULocation(unitIds, unitVersions, repositories,
+                IUBundleContainer.INCLUDE_REQUIRED | IUBundleContainer.INCLUDE_SOURCE);
+    }
+
+    @Benchmark
+    public void rebuild(final Blackhole blackhole) {
+        final LDIRepositoryLocation location = new LDIRepositoryLocation(targetDefinition, container);
+        blackhole.consume(location.getRepositories());
+        blackhole.consume(location.getUnits());
+    }
+}
@@ -0,0 +1,74 @@
+/**
+ * Copyright (c) 2011, 2014 SAP AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    SAP AG - initial API and implementation
+ */
+package org.eclipse.tycho.targeteditor.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.UnsupportedEncodingException;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.ui.WorkbenchException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parsing of maven-metadata.xml files into {@link NexusVersionInfo}, including the sorting of the
+ * versions.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MavenMetadataParserBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    private int versionCount;
+
+    private final MavenMetadataParser parser = new MavenMetadataParser();
+    private byte[] metadata;
+
+    @Setup
+    public void setUp() throws UnsupportedEncodingException {
+        final StringBuilder xml = new StringBuilder();
+        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<metadata>\n");
+        xml.append("  <groupId>org.example</groupId>\n  <artifactId>artifact</artifactId>\n");
+        xml.append("  <versioning>\n");
+        xml.append("    <latest>").append(version(versionCount - 1)).append("</latest>\n");
+        xml.append("    <release>").append(version(versionCount - 1)).append("</release>\n");
+        xml.append("    <versions>\n");
+        for (int i = 0; i < versionCount; i++) {
+            xml.append("      <version>").append(version(i)).append("</version>\n");
+            xml.append("      <version>").append(version(i)).append("-SNAPSHOT</version>\n");
+        }
+        xml.append("    </versions>\n    <lastUpdated>20140101000000</lastUpdated>\n");
+        xml.append("  </versioning>\n</metadata>\n");
+        metadata = xml.toString().getBytes("UTF-8");
+    }
+
+    private static String version(final int i) {
+        return (i / 100) + "." + (i / 10 % 10) + "." + (i % 10);
+    }
+
+    @Benchmark
+    public NexusVersionInfo parse() throws WorkbenchException {
+        return parser.parse(new ByteArrayInputStream(metadata));
+    }
+}
@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) 2011, 2014 SAP AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    SAP AG - initial API and implementation
+ */
+package org.eclipse.tycho.targeteditor.model;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Parsing of repository URIs as done for every repository when a target definition is read, and
+ * the URIs and metadata URLs of the parsed repositories as requested by labels, filters and model
+ * changes. A quarter of the URIs does not reference a Nexus instance.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NexusRepositoryBenchmark {
+
+    private static final int URI_COUNT = 10000;
+
+    private URI[] uris;
+    private NexusRepository[] repositories;
+
+    @Setup
+    public void setUp() throws URISyntaxException {
+        uris = new URI[URI_COUNT];
+        for (int i = 0; i < URI_COUNT; i++) {
+            if (i % 4 == 3) {
+                uris[i] = new URI("http://download.eclipse.org/releases/kepler/" + i + "/");
+            } else {
+                final String artifactId = "artifact" + i;
+                uris[i] = new URI(NexusInstances.DEFAULT_INSTANCE_URL + "build.milestones.unzip/org/example/group"
+                        + (i % 16) + "/" + artifactId + "/1.0." + i + "/" + artifactId + "-1.0." + i
+                        + "-assembly.zip-unzip/");
+            }
+        }
+        final List<NexusRepository> nexusRepositories = new ArrayList<NexusRepository>();
+        for (final URI uri : uris) {
+            final IRepository repository = NexusRepository.createRepository(uri);
+            if (repository instanceof NexusRepository) {
+                nexusRepositories.add((NexusRepository) repository);
+            }
+        }
+        repositories = nexusRepositories.toArray(new NexusRepository[nexusRepositories.size()]);
+    }
+
+    @Benchmark
+    public void createRepositories(final Blackhole blackhole) {
+        for (final URI uri : uris) {
+            blackhole.consume(NexusRepository.createRepository(uri));
+        }
+    }
+
+    @Benchmark
+    public void getURIs(final Blackhole blackhole) {
+        for (final NexusRepository repository : repositories) {
+            blackhole.consume(repository.getURI());
+        }
+    }
+
+    @Benchmark
+    public void getMetadataUrls(final Blackhole blackhole) {
+        for (final NexusRepository repository : repositories) {
+            blackhole.consume(repository.getMavenVersionMetaUrl());
+        }
+    }
+}
@@ -17,6 +17,7 @@ import static org.eclipse.swtbot.swt.finder.waits.Conditions.tableHasRows;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Control;
@@ -218,6 +219,13 @@ public class RepositoriesEditorPagePO {
         getShowProblemDetailsAction().click();
     }
 
+    /**
+     * Waits until the problem details are written to the console in the background.
+     */
+    public void waitForProblemDetails() throws InterruptedException {
+        Job.getJobManager().join(ShowResolutionProblemAction.CONSOLE_JOB_FAMILY, null);
+    }
+
     private SWTBotToolbarButton getShowProblemDetailsAction() {
         try {
             return bot().toolbarButtonWithTooltip(ShowResolutionProblemAction.TOOL_TIP_TEXT);
@@ -53,6 +53,16 @@ public class NexusRepositoryServiceMock extends NexusRepositoryService {
             return result;
         }
 
+        @Override
+        public List<String> getVersionsDescending() {
+            return Arrays.asList(versions);
+        }
+
+        @Override
+        public boolean containsVersion(final String version) {
+            return Arrays.asList(versions).contains(version);
+        }
+
     }
 
     public static final String LATEST_VERSION = "2.0.0";
@@ -47,6 +47,7 @@ import org.eclipse.tycho.targeteditor.LDITargetEditor;
 import org.eclipse.tycho.targeteditor.LDITargetEditorPO;
 import org.eclipse.tycho.targeteditor.RepositoriesEditorPagePO;
 import org.eclipse.tycho.targeteditor.WorkbenchPO;
+import org.eclipse.tycho.targeteditor.jobs.FilterJob;
 import org.eclipse.tycho.targeteditor.model.EDynamicVersions;
 import org.eclipse.tycho.targeteditor.model.INexusRepository;
 import org.eclipse.tycho.targeteditor.model.IRepository;
@@ -257,7 +258,8 @@ public class TargetEditorTest {
 
     @Test
     public void testShowProblemDetailsAction() throws Exception {
-        final int UI_STATUS_POLL_DELAY = 600;// ShowResolutionProblemAction.ResolutionProblemActionLifecyclePart.RESOLUTION_STATUS_POLL_TIMER_PERIOD +100
+        // the form part refreshes after RefreshScheduler.DEFAULT_INTERVAL (100 ms), plus a margin
+        final int UI_STATUS_POLL_DELAY = 300;
         // open and wait for resolution
         final LDITargetEditorPO ldiEditor = LDITargetEditorPO.open(targetFile);
         final RepositoriesEditorPagePO reposPage = ldiEditor.switchToRepositoriesPage();
@@ -268,6 +270,7 @@ public class TargetEditorTest {
         // perform show details action
         assertTrue(reposPage.hasShowProblemDetailsAction());
         reposPage.performShowProblemDetailsAction();
+        reposPage.waitForProblemDetails();
 
         // check that output console was created and contains problem
         checkConsoleOutput();
@@ -323,6 +326,7 @@ public class TargetEditorTest {
         final SWTBotText filterText = reposPage.getFilterText();
         filterText.setFocus();
         filterText.setText("1.1.1");
+        waitForFilter();
 
         // expect 2 repositories with version starting with 1.1.1
         assertEquals(2, filterTable.rowCount());
@@ -331,6 +335,19 @@ public class TargetEditorTest {
 
     }
 
+    /**
+     * Waits until the filter jobs are done and their results are applied in the UI thread.
+     */
+    private static void waitForFilter() throws InterruptedException {
+        Job.getJobManager().join(FilterJob.FAMILY, null);
+        Display.getDefault().syncExec(new Runnable() {
+            @Override
+            public void run() {
+                // results are applied by asyncExec, which runs before this runnable
+            }
+        });
+    }
+
     private void checkConsoleOutput() throws BadLocationException {
         final MessageConsole targetDefinitionProblemConsole = WorkbenchPO.getWorkbench()
                 .getTargetDefinitionProblemConsole();
@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) 2011, 2014 SAP AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    SAP AG - initial API and implementation
+ */
+package org.eclipse.tycho.targeteditor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.jface.viewers.ArrayContentProvider;
+import org.eclipse.jface.viewers.LabelProvider;
+import org.eclipse.jface.viewers.ViewerComparator;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FilteredLazyContentProviderTest {
+
+    private FilteredLazyContentProvider provider;
+    private List<String> input;
+
+    @Before
+    public void setUp() {
+        provider = new FilteredLazyContentProvider(new ArrayContentProvider(), new LabelProvider(),
+                new ViewerComparator() {
+                    @Override
+                    public int category(final Object element) {
+                        return ((String) element).startsWith("z") ? 0 : 1;
+                    }
+                });
+        input = new ArrayList<String>(Arrays.asList("org.eclipse.b", "org.Eclipse.a", "com.sap.c", "zzz.first"));
+        provider.inputChanged(null, null, input);
+    }
+
+    @Test
+    public void testSortedByCategoryAndLabel() {
+        assertElements("zzz.first", "com.sap.c", "org.Eclipse.a", "org.eclipse.b");
+        assertNull(provider.getElementAt(4));
+    }
+
+    @Test
+    public void testFilterIgnoresCase() {
+        provider.setFilter("ECLIPSE");
+        assertElements("org.Eclipse.a", "org.eclipse.b");
+        provider.setFilter("eclipse.b");
+        assertElements("org.eclipse.b");
+        provider.setFilter("c");
+        assertElements("com.sap.c", "org.Eclipse.a", "org.eclipse.b");
+        provider.setFilter("");
+        assertEquals(4, provider.getElementCount());
+    }
+
+    @Test
+    public void testRefreshKeepsFilter() {
+        provider.setFilter("sap");
+        input.add("com.sap.a");
+        assertElements("com.sap.c");
+        provider.refresh();
+        assertElements("com.sap.a", "com.sap.c");
+    }
+
+    @Test
+    public void testApplyFilterResult() {
+        final FilteredLazyContentProvider.FilterResult result = provider.filter("sap", null);
+        assertEquals(4, provider.getElementCount());
+        assertTrue(provider.applyFilter(result));
+        assertElements("com.sap.c");
+    }
+
+    @Test
+    public void testOutdatedFilterResultIsRejected() {
+        final FilteredLazyContentProvider.FilterResult result = provider.filter("sap", null);
+        input.add("com.sap.a");
+        provider.refresh();
+        assertFalse(provider.applyFilter(result));
+        assertEquals(5, provider.getElementCount());
+    }
+
+    @Test
+    public void testCancelledFilter() {
+        final NullProgressMonitor monitor = new NullProgressMonitor();
+        monitor.setCanceled(true);
+        assertNull(provider.filter("sap", monitor));
+    }
+
+    @Test
+    public void testFilterLargeInput() {
+        input.clear();
+        for (int i = 0; i < 10000; i++) {
+            input.add("org.example.group" + i + "  /  artifact" + i + "  /  1.0." + i);
+        }
+        provider.refresh();
+        final String[] keystrokes = { "a", "ar", "art", "arti", "artif", "artifact", "artifact9", "artifact99" };
+        for (final String filter : keystrokes) {
+            provider.setFilter(filter);
+        }
+        assertEquals(111, provider.getElementCount());
+        assertTrue(provider.getElementAt(0).toString().contains("artifact99"));
+    }
+
+    private void assertElements(final String... expected) {
+        assertEquals(expected.length, provider.getElementCount());
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], provider.getElementAt(i));
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) 2011, 2014 SAP AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    SAP AG - initial API and implementation
+ */
+package org.eclipse.tycho.targeteditor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.net.URI;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.equinox.p2.repository.metadata.IMetadataRepository;
+import org.eclipse.pde.internal.core.target.P2TargetUtils;
+import org.eclipse.tycho.targeteditor.model.Util;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+@SuppressWarnings("restriction")
+public class P2MetadataPrefetcherTest {
+
+    private File repositoryFolder;
+    private URI repositoryUri;
+
+    @Before
+    public void setup() throws Exception {
+        repositoryFolder = Util.createTempFolder();
+        Util.extractZip(Util.getResourceFile("resources/repos/completeRepo.zip"), repositoryFolder);
+        repositoryUri = repositoryFolder.toURI();
+    }
+
+    @After
+    public void cleanup() throws Exception {
+        P2TargetUtils.getRepoManager().removeRepository(repositoryUri);
+        Util.deleteRecursive(repositoryFolder);
+    }
+
+    @Test
+    public void testPrefetchedRepositoryIsKept() throws Exception {
+        P2MetadataPrefetcher.getInstance().prefetch(repositoryUri);
+        Job.getJobManager().join(P2MetadataPrefetcher.PREFETCH_JOB_FAMILY, null);
+
+        assertTrue(P2TargetUtils.getRepoManager().contains(repositoryUri));
+        assertNotNull(P2MetadataPrefetcher.getInstance().load(repositoryUri, null));
+    }
+
+    @Test(timeout = 10000)
+    public void testConcurrentLoadsAreMerged() throws Exception {
+        final AtomicInteger loadCount = new AtomicInteger();
+        final CountDownLatch firstLoadStarted = new CountDownLatch(1);
+        final CountDownLatch secondLoadWaiting = new CountDownLatch(1);
+        final P2MetadataPrefetcher prefetcher = new P2MetadataPrefetcher(new P2MetadataPrefetcher.RepositoryLoader() {
+            @Override
+            public IMetadataRepository load(final URI uri, final IProgressMonitor monitor) throws CoreException {
+                loadCount.incrementAndGet();
+                firstLoadStarted.countDown();
+                try {
+                    secondLoadWaiting.await();
+                } catch (final InterruptedException e) {
+                    throw new OperationCanceledException();
+                }
+                return P2TargetUtils.getRepoManager().loadRepository(uri, monitor);
+            }
+        });
+        final AtomicReference<IMetadataRepository> loadedInThread = new AtomicReference<IMetadataRepository>();
+        final AtomicReference<Exception> problem = new AtomicReference<Exception>();
+        final Thread thread = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    loadedInThread.set(prefetcher.load(repositoryUri, null));
+                } catch (final Exception e) {
+                    problem.set(e);
+                }
+            }
+        };
+        thread.start();
+        firstLoadStarted.await();
+        // the monitor is only polled while waiting for the load in progress
+        final IMetadataRepository loaded = prefetcher.load(repositoryUri, new NullProgressMonitor() {
+            @Override
+            public boolean isCanceled() {
+                secondLoadWaiting.countDown();
+                return false;
+            }
+        });
+        thread.join();
+
+        assertNull(problem.get());
+        assertEquals(1, loadCount.get());
+        assertNotNull(loaded);
+        assertSame(loaded, loadedInThread.get());
+    }
+}
@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2011, 2014 SAP AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    SAP AG - initial API and implementation
+ */
+package org.eclipse.tycho.targeteditor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.runtime.Status;
+import org.eclipse.tycho.targeteditor.RepositoryVersionCacheStore.StoredEntry;
+import org.eclipse.tycho.targeteditor.model.INexusRepository;
+import org.eclipse.tycho.targeteditor.model.INexusVersionInfo;
+import org.eclipse.tycho.targeteditor.model.NexusRepositoryNames;
+import org.eclipse.tycho.targeteditor.model.NexusRepositoryServiceMock1;
+import org.eclipse.tycho.targeteditor.model.NexusRepositoryTest;
+import org.eclipse.tycho.targeteditor.model.NexusVersionCalculationResult;
+import org.eclipse.tycho.targeteditor.model.Util;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RepositoryVersionCacheStoreTest {
+
+    private File file;
+    private RepositoryVersionCacheStore store;
+
+    @Before
+    public void setup() throws IOException {
+        file = File.createTempFile("nexusVersionCache", ".xml");
+        store = new RepositoryVersionCacheStore(file);
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Test
+    public void testSaveAndLoad() throws Exception {
+        final INexusRepository repo = NexusRepositoryTest.createNexusRepo(NexusRepositoryNames.SNAPSHOT.nexusName(),
+                "1.0.0");
+        final INexusVersionInfo versionInfo = new NexusRepositoryServiceMock1().getVersionInfo(repo);
+        final List<StoredEntry> entries = new ArrayList<StoredEntry>();
+        entries.add(new StoredEntry("key", new NexusVersionCalculationResult(repo, versionInfo, Status.OK_STATUS),
+                4711L));
+        store.save(entries);
+
+        final List<StoredEntry> loaded = store.load();
+        assertEquals(1, loaded.size());
+        final StoredEntry entry = loaded.get(0);
+        assertEquals("key", entry.key);
+        assertEquals(4711L, entry.fetchTime);
+        assertEquals(repo.getURI(), entry.result.getRepository().getURI());
+        assertTrue(entry.result.getStatus().isOK());
+        assertEquals(versionInfo.getLatestVersion(), entry.result.getVersionInfo().getLatestVersion());
+        assertEquals(versionInfo.getLatestReleaseVersion(), entry.result.getVersionInfo().getLatestReleaseVersion());
+        assertEquals(versionInfo.getVersions(), entry.result.getVersionInfo().getVersions());
+    }
+
+    @Test
+    public void testSaveReplacesFile() throws Exception {
+        final File folder = Util.createTempFolder();
+        try {
+            final RepositoryVersionCacheStore folderStore = new RepositoryVersionCacheStore(new File(folder,
+                    "nexusVersionCache.xml"));
+            final INexusRepository repo = NexusRepositoryTest.createNexusRepo(
+                    NexusRepositoryNames.SNAPSHOT.nexusName(), "1.0.0");
+            final INexusVersionInfo versionInfo = new NexusRepositoryServiceMock1().getVersionInfo(repo);
+            final List<StoredEntry> entries = new ArrayList<StoredEntry>();
+            entries.add(new StoredEntry("key", new NexusVersionCalculationResult(repo, versionInfo,
+                    Status.OK_STATUS), 4711L));
+            folderStore.save(entries);
+            folderStore.save(new ArrayList<StoredEntry>());
+
+            assertTrue(folderStore.load().isEmpty());
+            // no temporary file is left behind
+            assertEquals(1, folder.list().length);
+        } finally {
+            Util.deleteRecursive(folder);
+        }
+    }
+
+    @Test
+    public void testDelete() {
+        store.save(new ArrayList<StoredEntry>());
+        store.delete();
+        assertFalse(file.exists());
+        assertTrue(store.load().isEmpty());
+    }
+}
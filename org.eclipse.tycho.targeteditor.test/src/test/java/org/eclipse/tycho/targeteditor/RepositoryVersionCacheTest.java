@@ -11,10 +11,15 @@
 package org.eclipse.tycho.targeteditor;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeoutException;
 
 import org.eclipse.pde.core.IModelChangedEvent;
@@ -53,21 +58,29 @@ public class RepositoryVersionCacheTest {
             final long entranceTime = System.currentTimeMillis();
             do {
                 synchronized (this) {
-                    if (latestEvent != null) {
-                        final Object latestNewValue = latestEvent.getNewValue();
-                        if (latestNewValue instanceof NexusVersionCalculationResult) {
-                            final NexusVersionCalculationResult calcResult = (NexusVersionCalculationResult) latestNewValue;
-                            if (calcResult.getRepository().getURI().equals(repo.getURI())) {
-                                this.latestEvent = null;
-                                return;
-                            }
-                        }
+                    if (latestEvent != null && containsResultFor(latestEvent.getNewValue(), repo)) {
+                        this.latestEvent = null;
+                        return;
                     }
                     this.wait(timeout);
                 }
             } while ((System.currentTimeMillis() - entranceTime) < timeout);
             throw new TimeoutException();
         }
+
+        private boolean containsResultFor(final Object newValue, final INexusRepository repo) {
+            if (newValue instanceof NexusVersionCalculationResult) {
+                return ((NexusVersionCalculationResult) newValue).getRepository().getURI().equals(repo.getURI());
+            }
+            if (newValue instanceof List<?>) {
+                for (final Object result : (List<?>) newValue) {
+                    if (containsResultFor(result, repo)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
     }
 
     private NexusRepositoryServiceMock1 repositoryServiceMock;
@@ -136,4 +149,118 @@ public class RepositoryVersionCacheTest {
         assertNotNull(RepositoryVersionCache.getInstance().getAllAvailableVersions(sampleRepo));
     }
 
+    @Test
+    public void testLeastRecentlyUsedEviction() throws Exception {
+        final RepositoryVersionCache cache = new RepositoryVersionCache(null, new VersionCachePolicy(60000, 60000, 2));
+        final INexusRepository firstRepo = NexusRepositoryTest.createNexusRepo(
+                NexusRepositoryNames.SNAPSHOT.nexusName(), "1.0.0", "first");
+        final INexusRepository secondRepo = NexusRepositoryTest.createNexusRepo(
+                NexusRepositoryNames.SNAPSHOT.nexusName(), "1.0.0", "second");
+        final INexusRepository thirdRepo = NexusRepositoryTest.createNexusRepo(
+                NexusRepositoryNames.SNAPSHOT.nexusName(), "1.0.0", "third");
+        final RepositoryVersionChangeListener listener = new RepositoryVersionChangeListener();
+        cache.addModelChangedListener(listener);
+        cache.getAllAvailableVersions(firstRepo);
+        listener.waitFor(firstRepo, 3000);
+        cache.getAllAvailableVersions(secondRepo);
+        listener.waitFor(secondRepo, 3000);
+        // use the first entry so that the second one is the least recently used
+        assertNotNull(cache.getAllAvailableVersions(firstRepo));
+        cache.getAllAvailableVersions(thirdRepo);
+        listener.waitFor(thirdRepo, 3000);
+        cache.removeModelChangedListener(listener);
+
+        assertEquals(2, cache.size());
+        assertNotNull(cache.getAllAvailableVersions(firstRepo));
+        assertNull(cache.getAllAvailableVersions(secondRepo));
+    }
+
+    @Test
+    public void testExpiredEntryIsRevalidated() throws Exception {
+        final RepositoryVersionCache cache = new RepositoryVersionCache(null, new VersionCachePolicy(1, 1, 10));
+        final RepositoryVersionChangeListener listener = new RepositoryVersionChangeListener();
+        cache.addModelChangedListener(listener);
+        cache.getAllAvailableVersions(sampleRepo);
+        listener.waitFor(sampleRepo, 3000);
+        Thread.sleep(10);
+
+        assertNotNull(cache.getAllAvailableVersions(sampleRepo));
+        assertTrue(cache.isRefreshing(sampleRepo));
+        listener.waitFor(sampleRepo, 3000);
+        cache.removeModelChangedListener(listener);
+        assertFalse(cache.isRefreshing(sampleRepo));
+    }
+
+    @Test
+    public void testConcurrentFirstAccessRequestsOnce() throws Exception {
+        final RepositoryVersionCache cache = new RepositoryVersionCache(null, new VersionCachePolicy(60000, 60000, 10));
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Thread> readers = new ArrayList<Thread>();
+        for (int i = 0; i < 8; i++) {
+            final Thread reader = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (final InterruptedException e) {
+                        return;
+                    }
+                    for (int j = 0; j < 1000; j++) {
+                        cache.getAllAvailableVersions(sampleRepo);
+                    }
+                }
+            };
+            reader.start();
+            readers.add(reader);
+        }
+        start.countDown();
+        for (final Thread reader : readers) {
+            reader.join(10000);
+        }
+
+        assertEquals(1, repositoryServiceMock.getAsyncRequestCount());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testPrefetch() throws Exception {
+        final List<INexusRepository> repos = new ArrayList<INexusRepository>();
+        for (int i = 0; i < 20; i++) {
+            repos.add(NexusRepositoryTest.createNexusRepo(NexusRepositoryNames.SNAPSHOT.nexusName(), "1.0.0", "a" + i));
+        }
+        final RepositoryVersionCache cache = new RepositoryVersionCache(null, new VersionCachePolicy(60000, 60000, 100));
+        final List<IModelChangedEvent> events = new ArrayList<IModelChangedEvent>();
+        final IModelChangedListener listener = new IModelChangedListener() {
+            @Override
+            public void modelChanged(final IModelChangedEvent event) {
+                synchronized (events) {
+                    events.add(event);
+                }
+            }
+        };
+        cache.addModelChangedListener(listener);
+        cache.prefetch(repos);
+        final long start = System.currentTimeMillis();
+        for (final INexusRepository repo : repos) {
+            while (cache.getAllAvailableVersions(repo) == null) {
+                if (System.currentTimeMillis() - start > 10000) {
+                    throw new TimeoutException();
+                }
+                Thread.sleep(10);
+            }
+        }
+        cache.removeModelChangedListener(listener);
+
+        for (final INexusRepository repo : repos) {
+            assertNotNull(cache.getAllAvailableVersions(repo));
+        }
+        synchronized (events) {
+            // one event per batch notification instead of one per repository
+            assertTrue(events.size() < repos.size() / 2);
+            for (final IModelChangedEvent event : events) {
+                assertEquals(RepositoryVersionCache.EVENT_PROPERTY_RESULTS, event.getChangedProperty());
+            }
+        }
+    }
+
 }
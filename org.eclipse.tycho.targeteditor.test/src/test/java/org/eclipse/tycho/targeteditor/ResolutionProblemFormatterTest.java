@@ -14,6 +14,8 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.io.IOException;
+import java.io.StringWriter;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -72,6 +74,38 @@ public class ResolutionProblemFormatterTest {
         assertFalse(m.find());
     }
 
+    @Test
+    public void testFormatter_nestedDuplicates() {
+        final MultiStatus multiStatus = new MultiStatus(Activator.PLUGIN_ID, 0, STATUS_MSG_MULTI, null);
+        multiStatus.add(createNestedStatus(STATUS_MSG_1, STATUS_MSG_1));
+        multiStatus.add(createNestedStatus(STATUS_MSG_1));
+        multiStatus.add(createNestedStatus(STATUS_MSG_2));
+
+        final String formatted = ShowResolutionProblemAction.ResolutionStatusFormatter.format(multiStatus);
+        assertEquals(STATUS_MSG_MULTI + "\n  nested\n    " + STATUS_MSG_1 + "\n  nested\n    " + STATUS_MSG_2 + "\n",
+                formatted);
+        assertEquals("[2 problems] nested",
+                ShowResolutionProblemAction.ResolutionStatusFormatter.getShortMsgText(multiStatus));
+    }
+
+    @Test
+    public void testFormatter_largeStatus() {
+        final MultiStatus multiStatus = new MultiStatus(Activator.PLUGIN_ID, 0, STATUS_MSG_MULTI, null);
+        for (int i = 0; i < 20000; i++) {
+            multiStatus.add(createNestedStatus("problem " + (i % 1000), STATUS_MSG_1, STATUS_MSG_2));
+        }
+        final String shortMsg = ShowResolutionProblemAction.ResolutionStatusFormatter.getShortMsgText(multiStatus);
+        assertEquals("[1000 problems] nested", shortMsg);
+    }
+
+    private static IStatus createNestedStatus(final String... messages) {
+        final MultiStatus nested = new MultiStatus(Activator.PLUGIN_ID, 0, "nested", null);
+        for (final String message : messages) {
+            nested.add(new Status(IStatus.ERROR, Activator.PLUGIN_ID, message));
+        }
+        return nested;
+    }
+
     @Test
     public void testFormatter_containedExceptions() {
         // one more stack element for testing
@@ -98,6 +132,24 @@ public class ResolutionProblemFormatterTest {
         }
     }
 
+    @Test
+    public void testFormatter_limitedStackFrames() throws IOException {
+        final RuntimeException exception = new RuntimeException("ex1Msg", createRootException());
+        final IStatus status = new Status(IStatus.ERROR, Activator.PLUGIN_ID, STATUS_MSG_1, exception);
+
+        final StringWriter limited = new StringWriter();
+        assertTrue(ShowResolutionProblemAction.ResolutionStatusFormatter.format(status, limited, 1));
+        assertTrue(limited.toString().contains(exception.getStackTrace()[0].toString()));
+        assertFalse(limited.toString().contains(exception.getStackTrace()[1].toString()));
+        assertTrue(limited.toString().contains(" ... " + (exception.getStackTrace().length - 1) + " more"));
+        assertTrue(limited.toString().contains("rootMsg"));
+
+        final StringWriter complete = new StringWriter();
+        assertFalse(ShowResolutionProblemAction.ResolutionStatusFormatter.format(status, complete,
+                ResolutionStatusFormatter.ALL_STACK_FRAMES));
+        assertEquals(ShowResolutionProblemAction.ResolutionStatusFormatter.format(status), complete.toString());
+    }
+
     private RuntimeException createRootException() {
         return new RuntimeException("rootMsg");
     }
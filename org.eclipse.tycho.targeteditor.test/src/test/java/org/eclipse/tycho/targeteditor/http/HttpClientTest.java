@@ -0,0 +1,184 @@
+/**
+ * Copyright (c) 2011, 2014 SAP AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    SAP AG - initial API and implementation
+ */
+package org.eclipse.tycho.targeteditor.http;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.SocketTimeoutException;
+import java.util.zip.GZIPOutputStream;
+
+import org.eclipse.tycho.targeteditor.model.TestHttpServer;
+import org.eclipse.tycho.targeteditor.model.TestHttpServer.Request;
+import org.eclipse.tycho.targeteditor.model.TestHttpServer.Response;
+import org.junit.After;
+import org.junit.Test;
+
+public class HttpClientTest {
+
+    private static final String CONTENT = "<metadata>content</metadata>";
+
+    private TestHttpServer server;
+
+    @After
+    public void tearDown() throws IOException {
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void testConnectionIsKeptAlive() throws IOException {
+        server = new TestHttpServer(new ContentHandler(false));
+        final HttpClient client = new HttpClient(5000, 5000, 2);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(CONTENT, read(client.openStream(server.getURL("/content"))));
+        }
+        // closing without reading the content must not prevent reuse either
+        client.get(server.getURL("/content"), null, 0).close();
+        assertEquals(CONTENT, read(client.openStream(server.getURL("/content"))));
+
+        assertEquals(5, server.getRequestCount());
+        assertEquals(1, server.getConnectionCount());
+        assertEquals(2, client.getAvailableConnections());
+    }
+
+    @Test
+    public void testGzipContent() throws IOException {
+        server = new TestHttpServer(new ContentHandler(true));
+        final HttpClient client = new HttpClient(5000, 5000, 2);
+        assertEquals(CONTENT, read(client.openStream(server.getURL("/content"))));
+    }
+
+    @Test
+    public void testConditionalRequest() throws IOException {
+        server = new TestHttpServer(new TestHttpServer.Handler() {
+            @Override
+            public Response handle(final Request request) throws IOException {
+                if ("\"v1\"".equals(request.headers.get("if-none-match"))) {
+                    return new Response(304, null);
+                }
+                final Response response = new Response(200, CONTENT.getBytes("UTF-8"));
+                response.headers.put("ETag", "\"v1\"");
+                return response;
+            }
+        });
+        final HttpClient client = new HttpClient(5000, 5000, 2);
+        final HttpResponse first = client.get(server.getURL("/content"), null, 0);
+        assertEquals("\"v1\"", first.getETag());
+        assertEquals(CONTENT, read(first.getContent()));
+
+        final HttpResponse second = client.get(server.getURL("/content"), first.getETag(), 0);
+        assertTrue(second.isNotModified());
+        second.close();
+        assertEquals(2, client.getAvailableConnections());
+    }
+
+    @Test
+    public void testNotFound() throws IOException {
+        server = new TestHttpServer(new TestHttpServer.Handler() {
+            @Override
+            public Response handle(final Request request) throws IOException {
+                return new Response(404, "not found".getBytes("UTF-8"));
+            }
+        });
+        final HttpClient client = new HttpClient(5000, 5000, 1);
+        try {
+            client.openStream(server.getURL("/missing"));
+            fail();
+        } catch (final FileNotFoundException e) {
+            // expected
+        }
+        assertEquals(1, client.getAvailableConnections());
+    }
+
+    @Test
+    public void testReadTimeout() throws IOException {
+        server = new TestHttpServer(new TestHttpServer.Handler() {
+            @Override
+            public Response handle(final Request request) throws IOException {
+                try {
+                    Thread.sleep(2000);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return new Response(200, CONTENT.getBytes("UTF-8"));
+            }
+        });
+        final HttpClient client = new HttpClient(5000, 200, 1);
+        try {
+            client.openStream(server.getURL("/slow"));
+            fail();
+        } catch (final SocketTimeoutException e) {
+            // expected
+        }
+        assertEquals(1, client.getAvailableConnections());
+    }
+
+    @Test
+    public void testPoolTimeout() throws IOException {
+        server = new TestHttpServer(new ContentHandler(false));
+        final HttpClient client = new HttpClient(200, 5000, 1);
+        final HttpResponse first = client.get(server.getURL("/content"), null, 0);
+        try {
+            client.get(server.getURL("/content"), null, 0);
+            fail();
+        } catch (final ConnectionUnavailableException e) {
+            // expected
+        } finally {
+            first.close();
+        }
+        assertEquals(1, server.getRequestCount());
+        assertEquals(1, client.getAvailableConnections());
+    }
+
+    private static class ContentHandler implements TestHttpServer.Handler {
+        private final boolean compress;
+
+        ContentHandler(final boolean compress) {
+            this.compress = compress;
+        }
+
+        @Override
+        public Response handle(final Request request) throws IOException {
+            final String acceptEncoding = request.headers.get("accept-encoding");
+            if (compress && acceptEncoding != null && acceptEncoding.contains("gzip")) {
+                final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+                final GZIPOutputStream gzip = new GZIPOutputStream(compressed);
+                gzip.write(CONTENT.getBytes("UTF-8"));
+                gzip.close();
+                final Response response = new Response(200, compressed.toByteArray());
+                response.headers.put("Content-Encoding", "gzip");
+                return response;
+            }
+            return new Response(200, CONTENT.getBytes("UTF-8"));
+        }
+    }
+
+    private static String read(final InputStream stream) throws IOException {
+        try {
+            final ByteArrayOutputStream content = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[1024];
+            int read;
+            while ((read = stream.read(buffer)) != -1) {
+                content.write(buffer, 0, read);
+            }
+            return content.toString("UTF-8");
+        } finally {
+            stream.close();
+        }
+    }
+}
@@ -11,7 +11,9 @@
 package org.eclipse.tycho.targeteditor.model;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
@@ -29,6 +31,7 @@ import org.eclipse.equinox.p2.metadata.Version;
 import org.eclipse.equinox.p2.metadata.VersionedId;
 import org.eclipse.pde.core.IModelChangedEvent;
 import org.eclipse.pde.core.target.ITargetDefinition;
+import org.eclipse.pde.core.target.ITargetLocation;
 import org.eclipse.pde.internal.core.target.IUBundleContainer;
 import org.junit.Assert;
 import org.junit.Before;
@@ -214,6 +217,35 @@ public class LDITargetDefinitionTest {
         assertNull(event.getChangedProperty());
     }
 
+    @Test
+    public void testFindNexusRepositories() {
+        final List<INexusRepository> found = repoRefTargetDefinition.findNexusRepositories("org.eclipse.tycho.test",
+                "testartifactId");
+        assertEquals(1, found.size());
+        final ILDIRepositoryLocation location = repoRefTargetDefinition.findLocationOf(found.get(0));
+        assertTrue(location.getRepositories().contains(found.get(0)));
+        assertTrue(repoRefTargetDefinition.findNexusRepositories("org.eclipse.tycho.test", "other").isEmpty());
+
+        // version changes keep the index valid
+        found.get(0).setVersion("1.1.2");
+        assertSame(location, repoRefTargetDefinition.findLocationOf(found.get(0)));
+
+        repoRefTargetDefinition.removeLocation(location);
+        assertTrue(repoRefTargetDefinition.findNexusRepositories("org.eclipse.tycho.test", "testartifactId")
+                .isEmpty());
+        assertNull(repoRefTargetDefinition.findLocationOf(found.get(0)));
+    }
+
+    @Test
+    public void testFindAddedRepository() {
+        assertTrue(emptyTargetDefinition.findNexusRepositories("org.eclipse.tycho.test", "testartifactId").isEmpty());
+        final ILDIRepositoryLocation addedLocation = emptyTargetDefinition.addRepository(repoURI_test_1_1_1);
+        final List<INexusRepository> found = emptyTargetDefinition.findNexusRepositories("org.eclipse.tycho.test",
+                "testartifactId");
+        assertEquals(1, found.size());
+        assertSame(addedLocation, emptyTargetDefinition.findLocationOf(found.get(0)));
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testRepositoryFromWrongTargetDefinition() {
         final CollectingModelChangeListener listener = new CollectingModelChangeListener();
@@ -278,6 +310,73 @@ public class LDITargetDefinitionTest {
         assertEquals(0, collectedEvents.size());
     }
 
+    @Test
+    public void testTransactionalChange() throws Exception {
+        final ITargetDefinition target = Util.loadTargetDefinition(Util.REPOREF_TARGET_DEFINITION_PATH);
+        final ILDITargetDefintion ldiTargetDefinition = LDIModelFactory.createLDITargetDefinition(target);
+        final ILDIRepositoryLocation location = ldiTargetDefinition.getRepositoryLocations().get(0);
+        final INexusRepository repository = (INexusRepository) location.getRepositories().get(0);
+        final List<IMutableVersionedId> units = location.getUnits();
+        final CollectingModelChangeListener listener = new CollectingModelChangeListener();
+        ldiTargetDefinition.addModelChangedListener(listener);
+        final IUBundleContainer originalContainer = (IUBundleContainer) target.getTargetLocations()[0];
+
+        ldiTargetDefinition.beginChange();
+        repository.setVersion("2.2.2");
+        units.get(0).setVersion(Version.create("0.0.0"));
+        units.get(1).setVersion(Version.create("0.0.0"));
+        // nothing is written or fired before the commit
+        assertSame(originalContainer, target.getTargetLocations()[0]);
+        assertEquals(0, listener.getCollectedEvents().size());
+        ldiTargetDefinition.commitChange();
+
+        final IUBundleContainer newContainer = (IUBundleContainer) target.getTargetLocations()[0];
+        assertNotSame(originalContainer, newContainer);
+        assertEquals(repository.getURI(), newContainer.getRepositories()[0]);
+        assertEquals(Version.create("0.0.0"), LDIModelFactory.getVersions(newContainer)[1]);
+        assertSame(location, ldiTargetDefinition.findLocationOf(repository));
+        assertTrue(location.isLdiLocationFor(newContainer));
+
+        final List<IModelChangedEvent> collectedEvents = listener.getCollectedEvents();
+        assertEquals(1, collectedEvents.size());
+        final IModelChangedEvent event = collectedEvents.get(0);
+        assertEquals(ILDITargetDefintion.EVENT_COMMITTED_CHANGES, event.getChangedProperty());
+        assertEquals(3, ((List<?>) event.getNewValue()).size());
+    }
+
+    @Test
+    public void testNestedTransactionalChange() {
+        final ILDIRepositoryLocation location = repoRefTargetDefinition.getRepositoryLocations().get(0);
+        final CollectingModelChangeListener listener = new CollectingModelChangeListener();
+        repoRefTargetDefinition.addModelChangedListener(listener);
+
+        repoRefTargetDefinition.beginChange();
+        repoRefTargetDefinition.beginChange();
+        location.getUnits().get(0).setVersion(Version.create("0.0.0"));
+        repoRefTargetDefinition.commitChange();
+        assertEquals(0, listener.getCollectedEvents().size());
+        repoRefTargetDefinition.commitChange();
+
+        // a single change is fired unchanged
+        final List<IModelChangedEvent> collectedEvents = listener.getCollectedEvents();
+        assertEquals(1, collectedEvents.size());
+        assertSame(location.getUnits().get(0), collectedEvents.get(0).getChangeProvider());
+    }
+
+    @Test
+    public void testEmptyTransactionalChange() {
+        final CollectingModelChangeListener listener = new CollectingModelChangeListener();
+        repoRefTargetDefinition.addModelChangedListener(listener);
+        repoRefTargetDefinition.beginChange();
+        repoRefTargetDefinition.commitChange();
+        assertEquals(0, listener.getCollectedEvents().size());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testCommitWithoutBegin() {
+        repoRefTargetDefinition.commitChange();
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testAddUnitsWithNullArray() {
         final ILDIRepositoryLocation location = emptyTargetDefinition.addRepository(repoURI_test_1_1_1);
@@ -304,6 +403,48 @@ public class LDITargetDefinitionTest {
         }
     }
 
+    @Test
+    public void testResolveChangedLocationsOnly() throws IOException, CoreException {
+        final ITargetDefinition targetDefinition = Util.loadTargetDefinition(Util.REPOREF_SIMPLE_RESOLVE_TEST_PATH);
+        final ILDITargetDefintion ldiTargetDefinition = LDIModelFactory.createLDITargetDefinition(targetDefinition);
+        assertEquals(2, ldiTargetDefinition.resolveChangedLocations(new NullProgressMonitor()));
+        assertTrue(targetDefinition.isResolved());
+
+        final ITargetLocation[] containers = targetDefinition.getTargetLocations();
+        final IStatus untouchedStatus = containers[1].getStatus();
+        LDIModelFactory.clearResolutionStatus(containers[0]);
+        assertFalse(targetDefinition.isResolved());
+
+        assertEquals(1, ldiTargetDefinition.resolveChangedLocations(new NullProgressMonitor()));
+        assertTrue(targetDefinition.isResolved());
+        // the untouched location kept its resolution
+        assertSame(untouchedStatus, containers[1].getStatus());
+        assertEquals(0, ldiTargetDefinition.resolveChangedLocations(new NullProgressMonitor()));
+    }
+
+    @Test
+    public void testChangeDoesNotModifyResolvedSnapshot() throws Exception {
+        final ITargetDefinition target = Util.loadTargetDefinition(Util.REPOREF_TARGET_DEFINITION_PATH);
+        final ILDITargetDefintion ldiTargetDefinition = LDIModelFactory.createLDITargetDefinition(target);
+        final INexusRepository repository = (INexusRepository) ldiTargetDefinition.getRepositoryLocations().get(0)
+                .getRepositories().get(0);
+        // the array as seen by a resolution running in the background
+        final ITargetLocation[] snapshot = target.getTargetLocations();
+        final ITargetLocation originalContainer = snapshot[0];
+
+        repository.setVersion("2.2.2");
+
+        assertSame(originalContainer, snapshot[0]);
+        assertNotSame(originalContainer, target.getTargetLocations()[0]);
+    }
+
+    @Test
+    public void testUnresolvedLocations() {
+        final List<ILDIRepositoryLocation> locations = repoRefTargetDefinition.getRepositoryLocations();
+        assertEquals(locations, repoRefTargetDefinition.getUnresolvedLocations());
+        assertEquals(0, emptyTargetDefinition.getUnresolvedLocations().size());
+    }
+
     private void changeUnitVersion(final ITargetDefinition target, final List<IMutableVersionedId> units) {
         final IMutableVersionedId unit1 = units.get(0);
         Assert.assertEquals(new MutableVersionedId("dummy1.feature.id.feature.group", Version.create("1.1.1")), unit1);
@@ -0,0 +1,143 @@
+/**
+ * Copyright (c) 2011, 2014 SAP AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    SAP AG - initial API and implementation
+ */
+package org.eclipse.tycho.targeteditor.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.jface.preference.IPreferenceStore;
+import org.eclipse.tycho.targeteditor.Activator;
+import org.eclipse.tycho.targeteditor.http.HttpClient;
+import org.eclipse.tycho.targeteditor.preferences.PreferenceConstants;
+import org.junit.Test;
+
+public class NexusInstancesTest {
+
+    private static final String INSTANCE_A = "http://nexus-a:8081/nexus/content/repositories/";
+    private static final String INSTANCE_B = "http://nexus-b/content/repositories/";
+    private static final String MIRROR_B1 = "http://mirror-b1/content/repositories/";
+    private static final String MIRROR_B2 = "http://mirror-b2/content/repositories/";
+    private static final String METADATA_PATH = "build.snapshots.unzip/org/example/artifact/maven-metadata.xml";
+
+    @Test
+    public void testParse() {
+        final NexusInstances instances = NexusInstances.parse(INSTANCE_A + ", http://nexus-b/content/repositories",
+                MIRROR_B1 + "=" + INSTANCE_B + " " + MIRROR_B2 + "=" + INSTANCE_B + ",not a url");
+        assertEquals(INSTANCE_A, instances.getDefaultInstanceUrl());
+        assertEquals(INSTANCE_B, instances.findInstanceUrl(INSTANCE_B + METADATA_PATH));
+        assertNull(instances.findInstanceUrl("http://download.eclipse.org/"));
+        assertEquals(Arrays.asList(MIRROR_B1, MIRROR_B2, INSTANCE_B), instances.getProbedUrls());
+    }
+
+    @Test
+    public void testParseDefaults() {
+        final NexusInstances instances = NexusInstances.parse("", MIRROR_B1);
+        assertEquals(NexusInstances.DEFAULT_INSTANCE_URL, instances.getDefaultInstanceUrl());
+        assertEquals(Arrays.asList(MIRROR_B1, NexusInstances.DEFAULT_INSTANCE_URL), instances.getProbedUrls());
+    }
+
+    @Test
+    public void testMirrorRanking() throws IOException {
+        final NexusInstances instances = NexusInstances.parse(INSTANCE_B, MIRROR_B1 + "," + MIRROR_B2);
+        final URL url = new URL(INSTANCE_B + METADATA_PATH);
+        // configured order as long as no latency is known
+        assertEquals(urls(MIRROR_B1, MIRROR_B2, INSTANCE_B), instances.getMetadataUrls(url));
+
+        instances.recordLatency(MIRROR_B1, 200);
+        instances.recordLatency(MIRROR_B2, 20);
+        instances.recordLatency(INSTANCE_B, 100);
+        assertEquals(urls(MIRROR_B2, INSTANCE_B, MIRROR_B1), instances.getMetadataUrls(url));
+
+        instances.recordFailure(new URL(MIRROR_B2 + METADATA_PATH));
+        assertEquals(urls(INSTANCE_B, MIRROR_B1, MIRROR_B2), instances.getMetadataUrls(url));
+
+        // a successful probe makes the mirror healthy again
+        instances.recordLatency(MIRROR_B2, 30);
+        assertEquals(urls(MIRROR_B2, INSTANCE_B, MIRROR_B1), instances.getMetadataUrls(url));
+    }
+
+    @Test
+    public void testUrlsOfUnknownHostsAreUnchanged() throws IOException {
+        final NexusInstances instances = NexusInstances.parse(INSTANCE_B, MIRROR_B1);
+        final URL url = new URL("http://download.eclipse.org/" + METADATA_PATH);
+        assertEquals(Arrays.asList(url), instances.getMetadataUrls(url));
+    }
+
+    @Test
+    public void testCreateRepositoryOnConfiguredInstance() throws Exception {
+        final IPreferenceStore store = Activator.getDefault().getPreferenceStore();
+        store.setValue(PreferenceConstants.P_NEXUS_INSTANCES, INSTANCE_A + "," + INSTANCE_B);
+        try {
+            final URI uri = new URI(INSTANCE_B
+                    + "build.milestones.unzip/org/example/artifact/1.0.0/artifact-1.0.0-assembly.zip-unzip/");
+            final IRepository repository = NexusRepository.createRepository(uri);
+            assertTrue(repository instanceof NexusRepository);
+            final NexusRepository nexusRepository = (NexusRepository) repository;
+            assertEquals(INSTANCE_B, nexusRepository.getNexusUrl());
+            assertEquals("org.example", nexusRepository.getGroupId());
+            assertEquals(uri, nexusRepository.getURI());
+            assertEquals(INSTANCE_B + "build.milestones.unzip/org/example/artifact/maven-metadata.xml",
+                    nexusRepository.getMavenVersionMetaUrl().toString());
+
+            final INexusRepository created = LDIModelFactory.createNexusRepository(NexusRepositoryNames.RELEASE,
+                    "org.example", "artifact", "1.0.0", null, "zip");
+            assertTrue(created.getURI().toString().startsWith(INSTANCE_A));
+        } finally {
+            store.setToDefault(PreferenceConstants.P_NEXUS_INSTANCES);
+        }
+        assertTrue(NexusRepository.createRepository(new URI(INSTANCE_B
+                + "build.milestones.unzip/org/example/artifact/1.0.0/artifact-1.0.0-assembly.zip-unzip/")) instanceof Repository);
+    }
+
+    @Test
+    public void testFetchFallsBackToNextMirror() throws Exception {
+        final TestHttpServer brokenMirror = new TestHttpServer(new TestHttpServer.Handler() {
+            @Override
+            public TestHttpServer.Response handle(final TestHttpServer.Request request) {
+                return new TestHttpServer.Response(503, null);
+            }
+        });
+        final TestHttpServer origin = new TestHttpServer(new NexusRepositoryServiceTest.MetadataHandler());
+        try {
+            final String originUrl = origin.getURL("/repositories/").toString();
+            final NexusInstances instances = NexusInstances.parse(originUrl, brokenMirror.getURL("/repositories/")
+                    .toString());
+            final NexusRepositoryService service = new NexusRepositoryService(2, 10, new HttpClient(5000, 5000, 2),
+                    instances);
+            final URL url = new URL(originUrl + METADATA_PATH);
+
+            assertEquals("0.7.1", service.getVersionInfo(url).getLatestReleaseVersion());
+            assertEquals(1, brokenMirror.getRequestCount());
+            // the failed mirror is skipped until it is probed successfully again
+            assertEquals("0.7.1", service.getVersionInfo(url).getLatestReleaseVersion());
+            assertEquals(1, brokenMirror.getRequestCount());
+            assertEquals(2, origin.getRequestCount());
+        } finally {
+            brokenMirror.stop();
+            origin.stop();
+        }
+    }
+
+    private static List<URL> urls(final String... baseUrls) throws IOException {
+        final URL[] result = new URL[baseUrls.length];
+        for (int i = 0; i < baseUrls.length; i++) {
+            result[i] = new URL(baseUrls[i] + METADATA_PATH);
+        }
+        return Arrays.asList(result);
+    }
+}
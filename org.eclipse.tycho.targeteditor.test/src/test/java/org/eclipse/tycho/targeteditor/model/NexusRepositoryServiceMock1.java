@@ -15,6 +15,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.tycho.targeteditor.model.INexusRepository;
 import org.eclipse.tycho.targeteditor.model.INexusRepositoryService;
@@ -55,11 +56,32 @@ public class NexusRepositoryServiceMock1 extends NexusRepositoryService {
             return result;
         }
 
+        @Override
+        public List<String> getVersionsDescending() {
+            return Arrays.asList(versions);
+        }
+
+        @Override
+        public boolean containsVersion(final String version) {
+            return Arrays.asList(versions).contains(version);
+        }
+
     }
 
     public static final String LATEST_VERSION = "2.0.0";
     public static final String LATEST_SNAPSHOT_VERSION = "2.0.1-SNAPSHOT";
     private INexusRepositoryService originalNexusRepositoryService;
+    private final AtomicInteger asyncRequestCount = new AtomicInteger();
+
+    @Override
+    public void getVersionInfoAsync(final INexusRepository repository, final INexusVersionInfoCallback callback) {
+        asyncRequestCount.incrementAndGet();
+        super.getVersionInfoAsync(repository, callback);
+    }
+
+    public int getAsyncRequestCount() {
+        return asyncRequestCount.get();
+    }
 
     @Override
     public INexusVersionInfo getVersionInfo(final INexusRepository repository) throws WorkbenchException, IOException {
@@ -10,14 +10,20 @@
  */
 package org.eclipse.tycho.targeteditor.model;
 
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.pde.core.IModelChangedEvent;
 import org.eclipse.pde.core.IModelChangedListener;
@@ -57,6 +63,44 @@ public class NexusRepositoryServiceTest {
 
     }
 
+    /**
+     * Serves the test maven-metadata.xml with an ETag and answers matching conditional requests
+     * with 304.
+     */
+    static class MetadataHandler implements TestHttpServer.Handler {
+        static final String ETAG = "\"4711\"";
+        final AtomicInteger fullResponses = new AtomicInteger();
+        final AtomicInteger notModifiedResponses = new AtomicInteger();
+
+        @Override
+        public TestHttpServer.Response handle(final TestHttpServer.Request request) throws IOException {
+            if (ETAG.equals(request.headers.get("if-none-match"))) {
+                notModifiedResponses.incrementAndGet();
+                return new TestHttpServer.Response(304, null);
+            }
+            fullResponses.incrementAndGet();
+            final TestHttpServer.Response response = new TestHttpServer.Response(200, readMetadata());
+            response.headers.put("ETag", ETAG);
+            return response;
+        }
+
+        static byte[] readMetadata() throws IOException {
+            final File metadata = Util.getResourceFile(NexusVersionInfoTest.TEST_MAVENMETADATA_LOCATION);
+            final byte[] content = new byte[(int) metadata.length()];
+            final InputStream in = new FileInputStream(metadata);
+            try {
+                int offset = 0;
+                int read;
+                while (offset < content.length && (read = in.read(content, offset, content.length - offset)) != -1) {
+                    offset += read;
+                }
+            } finally {
+                in.close();
+            }
+            return content;
+        }
+    }
+
     public class AsynTestCallback implements INexusVersionInfoCallback {
 
         private NexusVersionCalculationResult calculationResult = null;
@@ -114,14 +158,131 @@ public class NexusRepositoryServiceTest {
             Assert.assertEquals("0.7.1", result.getVersionInfo().getLatestReleaseVersion());
         }
 
-        Assert.assertTrue(NexusRepositoryService.VersionCalculationJob.requests.isEmpty());
+        Assert.assertEquals(0, ((NexusRepositoryService) nexusRepositoryService).getDispatcher().getPendingCount());
+    }
+
+    @Test
+    public void testDuplicateRequestsAreFetchedOnce() throws TimeoutException, InterruptedException {
+        final CountDownLatch fetchStarted = new CountDownLatch(1);
+        final CountDownLatch releaseFetch = new CountDownLatch(1);
+        final AtomicInteger fetchCount = new AtomicInteger();
+        final NexusRepositoryService service = new NexusRepositoryService(2, 10) {
+            @Override
+            public INexusVersionInfo getVersionInfo(final INexusRepository repository) throws WorkbenchException,
+                    IOException {
+                fetchCount.incrementAndGet();
+                fetchStarted.countDown();
+                try {
+                    releaseFetch.await();
+                } catch (final InterruptedException e) {
+                    throw new IOException(e);
+                }
+                return super.getVersionInfo(repository);
+            }
+        };
+        final List<AsynTestCallback> callbacks = new ArrayList<NexusRepositoryServiceTest.AsynTestCallback>();
+        final List<TestRepository> repositories = new ArrayList<NexusRepositoryServiceTest.TestRepository>();
+        for (int i = 0; i < 20; i++) {
+            final AsynTestCallback callback = new AsynTestCallback();
+            final TestRepository repository = new TestRepository();
+            callbacks.add(callback);
+            repositories.add(repository);
+            service.getVersionInfoAsync(repository, callback);
+            if (i == 0) {
+                Assert.assertTrue(fetchStarted.await(10, TimeUnit.SECONDS));
+            }
+        }
+        releaseFetch.countDown();
+
+        for (int i = 0; i < callbacks.size(); i++) {
+            final NexusVersionCalculationResult result = callbacks.get(i).getResult(10000);
+            Assert.assertTrue(result.getStatus().isOK());
+            Assert.assertSame(repositories.get(i), result.getRepository());
+        }
+        Assert.assertEquals(1, fetchCount.get());
+        Assert.assertEquals(0, service.getDispatcher().getPendingCount());
+    }
+
+    @Test
+    public void testBatchVersionCalculation() throws TimeoutException, InterruptedException {
+        final INexusRepositoryService nexusRepositoryService = LDIModelFactory.getNexusRepositoryService();
+        final List<INexusRepository> repositories = new ArrayList<INexusRepository>();
+        for (int i = 0; i < 100; i++) {
+            repositories.add(new TestRepository("b" + Integer.toString(i)));
+        }
+        final List<NexusVersionCalculationResult> results = new ArrayList<NexusVersionCalculationResult>();
+        final AtomicInteger notificationCount = new AtomicInteger();
+        final CountDownLatch completed = new CountDownLatch(1);
+        nexusRepositoryService.getVersionInfoAsync(repositories, new INexusVersionInfoBatchCallback() {
+            @Override
+            public void notifyVersionsCalculated(final List<NexusVersionCalculationResult> calculationResults,
+                    final boolean done) {
+                notificationCount.incrementAndGet();
+                synchronized (results) {
+                    results.addAll(calculationResults);
+                }
+                if (done) {
+                    completed.countDown();
+                }
+            }
+        });
+        Assert.assertTrue(completed.await(60, TimeUnit.SECONDS));
+
+        Assert.assertEquals(repositories.size(), results.size());
+        for (final NexusVersionCalculationResult result : results) {
+            Assert.assertTrue(result.getStatus().isOK());
+        }
+        Assert.assertTrue(notificationCount.get() < repositories.size() / 2);
+    }
+
+    @Test
+    public void testEmptyBatch() {
+        final AtomicInteger completedCount = new AtomicInteger();
+        new NexusRepositoryService().getVersionInfoAsync(new ArrayList<INexusRepository>(),
+                new INexusVersionInfoBatchCallback() {
+                    @Override
+                    public void notifyVersionsCalculated(final List<NexusVersionCalculationResult> calculationResults,
+                            final boolean done) {
+                        if (done && calculationResults.isEmpty()) {
+                            completedCount.incrementAndGet();
+                        }
+                    }
+                });
+        Assert.assertEquals(1, completedCount.get());
+    }
+
+    @Test
+    public void testConditionalRevalidation() throws Exception {
+        final MetadataHandler handler = new MetadataHandler();
+        final TestHttpServer server = new TestHttpServer(handler);
+        try {
+            final URL url = server.getURL("/maven-metadata.xml");
+            final TestRepository repository = new TestRepository() {
+                @Override
+                public URL getMavenVersionMetaUrl() {
+                    return url;
+                }
+            };
+            final NexusRepositoryService service = new NexusRepositoryService();
+            final INexusVersionInfo first = service.getVersionInfo(repository);
+            final INexusVersionInfo second = service.getVersionInfo(repository);
+            Assert.assertEquals("0.7.1", second.getLatestReleaseVersion());
+            Assert.assertSame(first, second);
+            Assert.assertEquals(1, handler.fullResponses.get());
+            Assert.assertEquals(1, handler.notModifiedResponses.get());
+            Assert.assertEquals(1, service.getCachedMetadataCount());
+            // the revalidation reuses the connection of the first request
+            Assert.assertEquals(1, server.getConnectionCount());
+        } finally {
+            server.stop();
+        }
     }
 
     @Test(expected = IOException.class)
     public void testFailingGetVersionMetadata() throws URISyntaxException, WorkbenchException, IOException {
         final NexusRepositoryService service = new NexusRepositoryService();
         final URI invalidURI = new URI("http://nexus:8081/nexus/thereisNoSuchFileSoThereShouldBeAnException");
-        service.getMemento(invalidURI.toURL());
+        service.getVersionInfo(invalidURI.toURL());
     }
 
     @Test(expected = IllegalArgumentException.class)
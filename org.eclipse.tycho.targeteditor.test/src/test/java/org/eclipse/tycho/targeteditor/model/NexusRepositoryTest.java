@@ -19,6 +19,7 @@ import static org.junit.Assert.assertTrue;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.net.URL;
 
 import org.eclipse.pde.core.IModelChangedEvent;
 import org.eclipse.tycho.targeteditor.model.INexusRepository;
@@ -173,9 +174,49 @@ public class NexusRepositoryTest {
         assertEquals(nexusURLWithOutTrailingSlash, repo.getURI().toString());
     }
 
+    @Test
+    public void testURICachedUntilChanged() throws URISyntaxException {
+        final NexusRepository repo = (NexusRepository) createRepository(nexusURLWithTrailingSlash);
+        final URI uri = repo.getURI();
+        assertSame(uri, repo.getURI());
+        final URL metaUrl = repo.getMavenVersionMetaUrl();
+        assertSame(metaUrl, repo.getMavenVersionMetaUrl());
+
+        repo.setVersion("v2");
+        assertTrue(repo.getURI().toString().endsWith("/a/v2/a-v2-c.zip-unzip/"));
+        assertSame(metaUrl, repo.getMavenVersionMetaUrl());
+
+        repo.setRepositoryName(NexusRepositoryNames.MILESTONE.nexusName());
+        assertTrue(repo.getURI().toString().contains("/" + NexusRepositoryNames.MILESTONE.nexusName() + "/"));
+        assertTrue(repo.getMavenVersionMetaUrl().toString()
+                .contains("/" + NexusRepositoryNames.MILESTONE.nexusName() + "/"));
+    }
+
+    @Test
+    public void testCreateNonNexusRepositoryReasonArtifactPrefix() throws URISyntaxException {
+        final String repoUrl = "http://nexus:8081/nexus/content/repositories/build.snapshots.unzip/g1/g2/a/v/b-v-c.zip-unzip/";
+        assertFalse(createRepository(repoUrl) instanceof INexusRepository);
+    }
+
+    @Test
+    public void testCreateRepositoryWithMultipleTrailingSlashes() throws URISyntaxException {
+        final INexusRepository repo = (INexusRepository) createRepository(nexusURLWithTrailingSlash + "/");
+        assertEquals(groupId, repo.getGroupId());
+        assertEquals(artifactId, repo.getArtifactId());
+        assertEquals(version, repo.getVersion());
+        assertEquals(classifier, repo.getClassifier());
+        assertEquals(nexusURLWithTrailingSlash, repo.getURI().toString());
+    }
+
     public static INexusRepository createNexusRepo(final String repoName, final String version)
             throws URISyntaxException {
-        final String repoUrl = "http://nexus:8081/nexus/content/repositories/repoName/gId/aId/version/aId-version.zip-unzip/";
+        return createNexusRepo(repoName, version, "aId");
+    }
+
+    public static INexusRepository createNexusRepo(final String repoName, final String version,
+            final String artifactId) throws URISyntaxException {
+        final String repoUrl = "http://nexus:8081/nexus/content/repositories/repoName/gId/" + artifactId + "/version/"
+                + artifactId + "-version.zip-unzip/";
         final INexusRepository repo = (INexusRepository) createRepository(repoUrl);
         repo.setVersion(version);
         repo.setRepositoryName(repoName);
@@ -18,7 +18,6 @@ import junit.framework.Assert;
 
 import org.eclipse.tycho.targeteditor.model.INexusVersionInfo;
 import org.eclipse.tycho.targeteditor.model.NexusRepositoryService;
-import org.eclipse.tycho.targeteditor.model.NexusVersionInfo;
 import org.eclipse.ui.WorkbenchException;
 import org.junit.Test;
 
@@ -26,38 +25,37 @@ public class NexusVersionInfoTest {
 
     final static String TEST_MAVENMETADATA_LOCATION = "resources/maven-metadata.xml";
 
+    private static INexusVersionInfo readVersionInfo(final String path) throws IOException, WorkbenchException {
+        return new NexusRepositoryService().getVersionInfo(Util.getResourceURI(path).toURL());
+    }
+
     @Test
     public void testGetVersions() throws URISyntaxException, MalformedURLException, IOException, WorkbenchException {
-        final NexusRepositoryService service = new NexusRepositoryService();
-        final INexusVersionInfo nexusVersionInfo = new NexusVersionInfo(service.getMemento(Util.getResourceURI(
-                TEST_MAVENMETADATA_LOCATION).toURL()));
+        final INexusVersionInfo nexusVersionInfo = readVersionInfo(TEST_MAVENMETADATA_LOCATION);
         Assert.assertEquals("0.8.0-SNAPSHOT", nexusVersionInfo.getLatestVersion());
         Assert.assertEquals("0.7.1", nexusVersionInfo.getLatestReleaseVersion());
         Assert.assertEquals(9, nexusVersionInfo.getVersions().size());
+        Assert.assertEquals("0.1.0", nexusVersionInfo.getVersions().get(0));
+        Assert.assertEquals("0.8.0-SNAPSHOT", nexusVersionInfo.getVersions().get(8));
     }
 
     @Test
     public void testGetMissionLastRelease() throws URISyntaxException, MalformedURLException, IOException,
             WorkbenchException {
-        final NexusRepositoryService service = new NexusRepositoryService();
-        final INexusVersionInfo nexusVersionInfo = new NexusVersionInfo(service.getMemento(Util.getResourceURI(
-                "resources/maven-metadata_1.xml").toURL()));
+        final INexusVersionInfo nexusVersionInfo = readVersionInfo("resources/maven-metadata_1.xml");
         Assert.assertEquals("0.8.0-SNAPSHOT", nexusVersionInfo.getLatestVersion());
         Assert.assertNull(nexusVersionInfo.getLatestReleaseVersion());
     }
 
     @Test(expected = WorkbenchException.class)
     public void testNotParsable() throws Exception {
-        final NexusRepositoryService service = new NexusRepositoryService();
-        new NexusVersionInfo(service.getMemento(Util.getResourceURI("resources/maven-metadata_invalid.xml").toURL()));
+        readVersionInfo("resources/maven-metadata_invalid.xml");
     }
 
     @Test
     public void testMissingTagVersions() throws Exception {
-        final NexusRepositoryService service = new NexusRepositoryService();
         try {
-            new NexusVersionInfo(service.getMemento(Util.getResourceURI("resources/maven-metadata_invalid1.xml")
-                    .toURL()));
+            readVersionInfo("resources/maven-metadata_invalid1.xml");
             Assert.fail();
         } catch (final WorkbenchException e) {
             Assert.assertTrue(e.getMessage().contains("versions"));
@@ -66,10 +64,8 @@ public class NexusVersionInfoTest {
 
     @Test
     public void testMissingTagVersioning() throws Exception {
-        final NexusRepositoryService service = new NexusRepositoryService();
         try {
-            new NexusVersionInfo(service.getMemento(Util.getResourceURI("resources/maven-metadata_invalid2.xml")
-                    .toURL()));
+            readVersionInfo("resources/maven-metadata_invalid2.xml");
             Assert.fail();
         } catch (final WorkbenchException e) {
             Assert.assertTrue(e.getMessage().contains("versioning"));
@@ -78,10 +74,8 @@ public class NexusVersionInfoTest {
 
     @Test
     public void testMissingTagLatest() throws URISyntaxException, MalformedURLException, IOException {
-        final NexusRepositoryService service = new NexusRepositoryService();
         try {
-            new NexusVersionInfo(service.getMemento(Util.getResourceURI("resources/maven-metadata_invalid3.xml")
-                    .toURL()));
+            readVersionInfo("resources/maven-metadata_invalid3.xml");
             Assert.fail();
         } catch (final WorkbenchException e) {
             Assert.assertTrue(e.getMessage().contains("latest"));
@@ -0,0 +1,190 @@
+/**
+ * Copyright (c) 2011, 2014 SAP AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    SAP AG - initial API and implementation
+ */
+package org.eclipse.tycho.targeteditor.model;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.URL;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal HTTP/1.1 server on the loopback interface used to test the HTTP behavior of the Nexus
+ * access without a real server. Connections are kept alive until the client closes them.
+ */
+public class TestHttpServer {
+
+    public static class Request {
+        public final String method;
+        public final String path;
+        /** header names in lower case */
+        public final Map<String, String> headers;
+
+        Request(final String method, final String path, final Map<String, String> headers) {
+            this.method = method;
+            this.path = path;
+            this.headers = headers;
+        }
+    }
+
+    public static class Response {
+        public final int status;
+        public final Map<String, String> headers = new LinkedHashMap<String, String>();
+        public final byte[] body;
+
+        public Response(final int status, final byte[] body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+
+    public interface Handler {
+        Response handle(Request request) throws IOException;
+    }
+
+    private final ServerSocket serverSocket;
+    private final Handler handler;
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private volatile boolean stopped;
+
+    public TestHttpServer(final Handler handler) throws IOException {
+        this.handler = handler;
+        this.serverSocket = new ServerSocket(0, 50, InetAddress.getByName("localhost"));
+        final Thread acceptor = new Thread("TestHttpServer") {
+            @Override
+            public void run() {
+                acceptConnections();
+            }
+        };
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    public URL getURL(final String path) throws IOException {
+        return new URL("http://localhost:" + serverSocket.getLocalPort() + path);
+    }
+
+    /**
+     * @return the number of accepted TCP connections
+     */
+    public int getConnectionCount() {
+        return connectionCount.get();
+    }
+
+    public int getRequestCount() {
+        return requestCount.get();
+    }
+
+    public void stop() throws IOException {
+        stopped = true;
+        serverSocket.close();
+    }
+
+    private void acceptConnections() {
+        while (!stopped) {
+            try {
+                final Socket socket = serverSocket.accept();
+                connectionCount.incrementAndGet();
+                final Thread connectionThread = new Thread("TestHttpServer connection") {
+                    @Override
+                    public void run() {
+                        serve(socket);
+                    }
+                };
+                connectionThread.setDaemon(true);
+                connectionThread.start();
+            } catch (final IOException e) {
+                // server socket closed
+            }
+        }
+    }
+
+    private void serve(final Socket socket) {
+        try {
+            final InputStream in = socket.getInputStream();
+            final OutputStream out = socket.getOutputStream();
+            String requestLine;
+            while (!stopped && (requestLine = readLine(in)) != null) {
+                final String[] parts = requestLine.split(" ");
+                final Map<String, String> headers = new LinkedHashMap<String, String>();
+                String line;
+                while ((line = readLine(in)) != null && line.length() > 0) {
+                    final int colon = line.indexOf(':');
+                    if (colon > 0) {
+                        headers.put(line.substring(0, colon).trim().toLowerCase(), line.substring(colon + 1).trim());
+                    }
+                }
+                requestCount.incrementAndGet();
+                final Response response = handler.handle(new Request(parts[0], parts.length > 1 ? parts[1] : "/",
+                        headers));
+                writeResponse(out, parts[0], response);
+                if ("close".equalsIgnoreCase(headers.get("connection"))) {
+                    break;
+                }
+            }
+        } catch (final SocketException e) {
+            // client closed the connection
+        } catch (final IOException e) {
+            // ignore, the client will see a failing request
+        } finally {
+            try {
+                socket.close();
+            } catch (final IOException e) {
+                // ignore
+            }
+        }
+    }
+
+    private static void writeResponse(final OutputStream out, final String method, final Response response)
+            throws IOException {
+        final byte[] body = response.body == null ? new byte[0] : response.body;
+        final StringBuilder head = new StringBuilder();
+        head.append("HTTP/1.1 ").append(response.status).append(" X\r\n");
+        for (final Map.Entry<String, String> header : response.headers.entrySet()) {
+            head.append(header.getKey()).append(": ").append(header.getValue()).append("\r\n");
+        }
+        final boolean hasBody = response.status != 304 && response.status != 204 && !"HEAD".equals(method);
+        if (hasBody) {
+            head.append("Content-Length: ").append(body.length).append("\r\n");
+        }
+        head.append("\r\n");
+        out.write(head.toString().getBytes("ISO-8859-1"));
+        if (hasBody) {
+            out.write(body);
+        }
+        out.flush();
+    }
+
+    private static String readLine(final InputStream in) throws IOException {
+        final ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int c;
+        while ((c = in.read()) != -1) {
+            if (c == '\n') {
+                break;
+            }
+            if (c != '\r') {
+                line.write(c);
+            }
+        }
+        if (c == -1 && line.size() == 0) {
+            return null;
+        }
+        return line.toString("ISO-8859-1");
+    }
+}
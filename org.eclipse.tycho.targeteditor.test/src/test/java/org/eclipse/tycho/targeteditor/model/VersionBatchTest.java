@@ -0,0 +1,51 @@
+/**
+ * Copyright (c) 2011, 2014 SAP AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    SAP AG - initial API and implementation
+ */
+package org.eclipse.tycho.targeteditor.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.Status;
+import org.junit.Test;
+
+public class VersionBatchTest {
+
+    private final BlockingQueue<List<NexusVersionCalculationResult>> notifications = new LinkedBlockingQueue<List<NexusVersionCalculationResult>>();
+    private volatile boolean completedNotified;
+
+    private final INexusVersionInfoBatchCallback callback = new INexusVersionInfoBatchCallback() {
+        @Override
+        public void notifyVersionsCalculated(final List<NexusVersionCalculationResult> calculationResults,
+                final boolean completed) {
+            completedNotified |= completed;
+            notifications.add(calculationResults);
+        }
+    };
+
+    @Test
+    public void testPendingResultIsFlushedWithoutFurtherResults() throws Exception {
+        // threshold of the batch is 3 results
+        final VersionBatch batch = new VersionBatch(10, callback);
+        batch.notifyVersionCalculated(new NexusVersionCalculationResult(null, null, Status.OK_STATUS));
+
+        final List<NexusVersionCalculationResult> results = notifications.poll(VersionBatch.MAX_DELAY * 10,
+                TimeUnit.MILLISECONDS);
+        assertNotNull(results);
+        assertEquals(1, results.size());
+        assertFalse(completedNotified);
+    }
+}
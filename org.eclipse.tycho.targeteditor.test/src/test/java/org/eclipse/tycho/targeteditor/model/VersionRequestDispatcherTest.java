@@ -0,0 +1,80 @@
+/**
+ * Copyright (c) 2011, 2014 SAP AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    SAP AG - initial API and implementation
+ */
+package org.eclipse.tycho.targeteditor.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.ui.WorkbenchException;
+import org.junit.Test;
+
+public class VersionRequestDispatcherTest {
+
+    private static final int REQUEST_COUNT = 5;
+
+    private final CountDownLatch fetchesReleased = new CountDownLatch(1);
+
+    private final INexusRepositoryService blockingService = new INexusRepositoryService() {
+        @Override
+        public INexusVersionInfo getVersionInfo(final INexusRepository repository) throws WorkbenchException,
+                IOException {
+            try {
+                fetchesReleased.await();
+            } catch (final InterruptedException e) {
+                throw new IOException(e.getMessage());
+            }
+            return LDIModelFactory.createNexusVersionInfo("1.0.0", "1.0.0", Collections.singletonList("1.0.0"));
+        }
+
+        @Override
+        public void getVersionInfoAsync(final INexusRepository repository, final INexusVersionInfoCallback callback) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void getVersionInfoAsync(final List<INexusRepository> repositories,
+                final INexusVersionInfoBatchCallback callback) {
+            throw new UnsupportedOperationException();
+        }
+    };
+
+    @Test(timeout = 10000)
+    public void testSubmitDoesNotBlockOnFullQueue() throws Exception {
+        final VersionRequestDispatcher dispatcher = new VersionRequestDispatcher(blockingService, 1, 1);
+        final INexusRepository repository = LDIModelFactory.createNexusRepository(new URI(
+                "http://nexus:8081/nexus/content/repositories/build.milestones.unzip/g/a/1.0.0/a-1.0.0.zip-unzip/"));
+        final CountDownLatch notified = new CountDownLatch(REQUEST_COUNT);
+        final INexusVersionInfoCallback callback = new INexusVersionInfoCallback() {
+            @Override
+            public void notifyVersionCalculated(final NexusVersionCalculationResult calculationResult) {
+                if (calculationResult.getStatus().isOK()) {
+                    notified.countDown();
+                }
+            }
+        };
+
+        // one request is fetched, one fills the queue, the others overflow
+        for (int i = 0; i < REQUEST_COUNT; i++) {
+            dispatcher.submit("key" + i, repository, callback);
+        }
+        assertEquals(REQUEST_COUNT, dispatcher.getPendingCount());
+
+        fetchesReleased.countDown();
+        assertTrue(notified.await(5, TimeUnit.SECONDS));
+    }
+}
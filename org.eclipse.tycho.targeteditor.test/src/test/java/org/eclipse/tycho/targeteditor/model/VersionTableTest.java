@@ -0,0 +1,71 @@
+/**
+ * Copyright (c) 2011, 2014 SAP AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    SAP AG - initial API and implementation
+ */
+package org.eclipse.tycho.targeteditor.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class VersionTableTest {
+
+    @Test
+    public void testMavenOrdering() {
+        final VersionTable table = new VersionTable(Arrays.asList("1.10.0", "1.2.0", "1.0.0", "1.0.0-SNAPSHOT",
+                "1.0.0-RC1", "1.0.0-alpha", "1.0.1", "1.0.0-beta-2", "1.0.0-beta-10"));
+        assertEquals(Arrays.asList("1.0.0-alpha", "1.0.0-beta-2", "1.0.0-beta-10", "1.0.0-RC1", "1.0.0-SNAPSHOT",
+                "1.0.0", "1.0.1", "1.2.0", "1.10.0"), table.ascending());
+    }
+
+    @Test
+    public void testDescendingView() {
+        final VersionTable table = new VersionTable(Arrays.asList("0.1.0", "0.3.0", "0.2.0"));
+        final List<String> descending = table.descending();
+        assertEquals(Arrays.asList("0.3.0", "0.2.0", "0.1.0"), descending);
+        assertEquals(0, descending.indexOf("0.3.0"));
+        assertEquals(2, table.ascending().indexOf("0.3.0"));
+        assertSame(descending, table.descending());
+    }
+
+    @Test
+    public void testContainsAndDuplicates() {
+        final VersionTable table = new VersionTable(Arrays.asList("1.0.0", "1.0.0", "2.0.0"));
+        assertEquals(2, table.ascending().size());
+        assertTrue(table.contains("1.0.0"));
+        assertTrue(table.ascending().contains("2.0.0"));
+        assertFalse(table.contains("3.0.0"));
+    }
+
+    @Test
+    public void testInterned() {
+        final VersionTable table = new VersionTable(Arrays.asList(new String("1.0.0")));
+        assertSame("1.0.0", table.ascending().get(0));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testUnmodifiable() {
+        new VersionTable(Arrays.asList("1.0.0")).ascending().add("2.0.0");
+    }
+
+    @Test
+    public void testEqualVersionsAreDistinct() {
+        final MavenVersionComparator comparator = MavenVersionComparator.INSTANCE;
+        assertTrue(comparator.compare("1.0", "1.0.0") != 0);
+        assertTrue(comparator.compare("1.0-SNAPSHOT", "1.0") < 0);
+        assertTrue(comparator.compare("1.0.0-SNAPSHOT", "1.0") < 0);
+        assertTrue(comparator.compare("1.0-sp1", "1.0") > 0);
+    }
+}
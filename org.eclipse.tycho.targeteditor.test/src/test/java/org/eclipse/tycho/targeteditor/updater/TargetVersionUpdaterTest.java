@@ -0,0 +1,175 @@
+/**
+ * Copyright (c) 2011, 2014 SAP AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    SAP AG - initial API and implementation
+ */
+package org.eclipse.tycho.targeteditor.updater;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.tycho.targeteditor.model.NexusRepositoryServiceMock1;
+import org.eclipse.tycho.targeteditor.model.Util;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TargetVersionUpdaterTest {
+
+    private static final String UPDATED_URI_PART = "build.milestones.unzip/org/eclipse/tycho/test/testartifactId/"
+            + NexusRepositoryServiceMock1.LATEST_VERSION + "/";
+
+    private NexusRepositoryServiceMock1 repositoryServiceMock;
+    private File folder;
+    private List<File> targetFiles;
+
+    @Before
+    public void setup() throws IOException {
+        repositoryServiceMock = NexusRepositoryServiceMock1.createAndRegister();
+        folder = Util.createTempFolder();
+        targetFiles = new ArrayList<File>();
+        for (int i = 0; i < 5; i++) {
+            final File targetFile = new File(folder, "reporef" + i + ".target");
+            copy(Util.getResourceFile(Util.REPOREF_TARGET_DEFINITION_PATH), targetFile);
+            targetFiles.add(targetFile);
+        }
+    }
+
+    @After
+    public void cleanup() {
+        repositoryServiceMock.restoreOriginalService();
+        Util.deleteRecursive(folder);
+    }
+
+    @Test
+    public void testUpdateToLatestRelease() throws IOException {
+        final List<TargetUpdateResult> results = new TargetVersionUpdater(2, false).update(targetFiles,
+                new NullProgressMonitor());
+
+        assertEquals(targetFiles.size(), results.size());
+        for (int i = 0; i < results.size(); i++) {
+            final TargetUpdateResult result = results.get(i);
+            assertEquals(targetFiles.get(i), result.getFile());
+            assertTrue(result.getStatus().isOK());
+            assertEquals(Arrays.asList("org.eclipse.tycho.test:testartifactId 1.1.1 -> "
+                    + NexusRepositoryServiceMock1.LATEST_VERSION), result.getChanges());
+            assertTrue(read(result.getFile()).contains(UPDATED_URI_PART));
+        }
+        // all files reference the same artifact
+        assertEquals(1, repositoryServiceMock.getAsyncRequestCount());
+    }
+
+    @Test
+    public void testDryRunKeepsFiles() throws IOException {
+        final List<TargetUpdateResult> results = new TargetVersionUpdater(2, true).update(targetFiles, null);
+
+        for (final TargetUpdateResult result : results) {
+            assertTrue(result.isChanged());
+            assertFalse(read(result.getFile()).contains(UPDATED_URI_PART));
+        }
+    }
+
+    @Test
+    public void testSecondRunFindsNoChanges() {
+        new TargetVersionUpdater(2, false).update(targetFiles, null);
+        for (final TargetUpdateResult result : new TargetVersionUpdater(2, false).update(targetFiles, null)) {
+            assertFalse(result.isChanged());
+        }
+    }
+
+    @Test
+    public void testCollectTargetFiles() {
+        final List<File> collected = new ArrayList<File>();
+        TargetVersionUpdaterApplication.collectTargetFiles(folder, collected);
+        assertEquals(targetFiles.size(), collected.size());
+        assertTrue(collected.containsAll(targetFiles));
+    }
+
+    @Test
+    public void testParseArguments() {
+        final TargetVersionUpdaterApplication.Arguments arguments = TargetVersionUpdaterApplication
+                .parseArguments(new String[] { "-threads", "3", "-dryRun", folder.getPath() });
+        assertEquals(3, arguments.threadCount);
+        assertTrue(arguments.dryRun);
+        assertEquals(targetFiles.size(), arguments.targetFiles.size());
+    }
+
+    @Test
+    public void testParseInvalidArguments() {
+        assertInvalidArguments("-threads", "0", folder.getPath());
+        assertInvalidArguments("-threads", "many", folder.getPath());
+        assertInvalidArguments(folder.getPath(), "-threads");
+        assertInvalidArguments("-dryrun", folder.getPath());
+        assertInvalidArguments("-dryRun");
+    }
+
+    private static void assertInvalidArguments(final String... args) {
+        try {
+            TargetVersionUpdaterApplication.parseArguments(args);
+            fail(Arrays.toString(args));
+        } catch (final IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testReport() {
+        final List<TargetUpdateResult> results = new TargetVersionUpdater(1, true).update(targetFiles, null);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertTrue(TargetVersionUpdaterApplication.report(results, new PrintStream(out)));
+        assertTrue(out.toString().trim().endsWith("5 target definitions, 5 changed, 0 with problems"));
+    }
+
+    private static String read(final File file) throws IOException {
+        final ByteArrayOutputStream content = new ByteArrayOutputStream();
+        final InputStream in = new FileInputStream(file);
+        try {
+            final byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                content.write(buffer, 0, read);
+            }
+        } finally {
+            in.close();
+        }
+        return content.toString("UTF-8");
+    }
+
+    private static void copy(final File source, final File destination) throws IOException {
+        final InputStream in = new FileInputStream(source);
+        try {
+            final OutputStream out = new FileOutputStream(destination);
+            try {
+                final byte[] buffer = new byte[4096];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                }
+            } finally {
+                out.close();
+            }
+        } finally {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) 2011, 2014 SAP AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    SAP AG - initial API and implementation
+ */
+package org.eclipse.tycho.targeteditor.updater;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.tycho.targeteditor.model.NexusRepositoryServiceMock1;
+import org.eclipse.tycho.targeteditor.model.Util;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class WorkspaceTargetUpdateJobTest {
+
+    private NexusRepositoryServiceMock1 repositoryServiceMock;
+    private IProject project;
+
+    @Before
+    public void setup() throws Exception {
+        repositoryServiceMock = NexusRepositoryServiceMock1.createAndRegister();
+        project = ResourcesPlugin.getWorkspace().getRoot().getProject("workspaceTargetUpdateJobTest");
+        project.create(null);
+        project.open(null);
+        final IFolder derivedFolder = project.getFolder("target");
+        derivedFolder.create(true, true, null);
+        derivedFolder.setDerived(true, null);
+        for (int i = 0; i < 3; i++) {
+            createTargetFile(project.getFile("reporef" + i + ".target"));
+        }
+        createTargetFile(derivedFolder.getFile("reporef.target"));
+    }
+
+    @After
+    public void cleanup() throws CoreException {
+        repositoryServiceMock.restoreOriginalService();
+        project.delete(true, null);
+    }
+
+    @Test
+    public void testCollectSkipsDerivedFiles() throws CoreException {
+        final List<IFile> targetFiles = WorkspaceTargetUpdateJob.collectTargetFiles(project);
+        assertEquals(3, targetFiles.size());
+        for (final IFile targetFile : targetFiles) {
+            assertEquals(project, targetFile.getParent());
+        }
+    }
+
+    @Test
+    public void testUpdateWorkspaceTargets() throws Exception {
+        final WorkspaceTargetUpdateJob job = new WorkspaceTargetUpdateJob(project, Collections.<IFile> emptySet(),
+                new TargetVersionUpdater(2, false));
+        job.schedule();
+        job.join();
+
+        assertTrue(job.getResult().isOK());
+        assertEquals(3, countChangedFiles(job));
+        // all files reference the same artifact
+        assertEquals(1, repositoryServiceMock.getAsyncRequestCount());
+    }
+
+    @Test
+    public void testUnsavedFileIsSkipped() throws Exception {
+        final WorkspaceTargetUpdateJob job = new WorkspaceTargetUpdateJob(project,
+                Collections.singleton(project.getFile("reporef0.target")), new TargetVersionUpdater(2, false));
+        job.schedule();
+        job.join();
+
+        assertEquals(IStatus.WARNING, job.getResult().getSeverity());
+        assertEquals(2, job.getResults().size());
+        assertEquals(2, countChangedFiles(job));
+    }
+
+    private static int countChangedFiles(final WorkspaceTargetUpdateJob job) {
+        int changedFiles = 0;
+        for (final TargetUpdateResult result : job.getResults()) {
+            if (result.isChanged()) {
+                changedFiles++;
+            }
+        }
+        return changedFiles;
+    }
+
+    private static void createTargetFile(final IFile file) throws Exception {
+        final InputStream content = new FileInputStream(Util.getResourceFile(Util.REPOREF_TARGET_DEFINITION_PATH));
+        try {
+            file.create(content, true, null);
+        } finally {
+            content.close();
+        }
+    }
+}
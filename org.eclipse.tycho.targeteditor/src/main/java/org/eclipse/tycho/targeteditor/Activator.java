@@ -18,6 +18,7 @@ import org.eclipse.jface.viewers.DecorationOverlayIcon;
 import org.eclipse.jface.viewers.IDecoration;
 import org.eclipse.pde.internal.ui.PDEPluginImages;
 import org.eclipse.swt.graphics.Image;
+import org.eclipse.tycho.targeteditor.model.NexusInstances;
 import org.eclipse.ui.plugin.AbstractUIPlugin;
 import org.osgi.framework.BundleContext;
 
@@ -87,6 +88,8 @@ public class Activator extends AbstractUIPlugin {
      */
     @Override
     public void stop(final BundleContext context) throws Exception {
+        RepositoryVersionCache.shutdown();
+        NexusInstances.shutdown();
         plugin = null;
         super.stop(context);
     }
@@ -10,35 +10,47 @@
  */
 package org.eclipse.tycho.targeteditor;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.jface.layout.GridLayoutFactory;
 import org.eclipse.jface.util.IPropertyChangeListener;
 import org.eclipse.jface.util.PropertyChangeEvent;
 import org.eclipse.jface.viewers.DecoratingLabelProvider;
 import org.eclipse.jface.viewers.IContentProvider;
-import org.eclipse.jface.viewers.ILabelDecorator;
 import org.eclipse.jface.viewers.ILabelProvider;
 import org.eclipse.jface.viewers.ISelectionChangedListener;
+import org.eclipse.jface.viewers.IStructuredContentProvider;
 import org.eclipse.jface.viewers.SelectionChangedEvent;
 import org.eclipse.jface.viewers.StructuredSelection;
 import org.eclipse.jface.viewers.TableViewer;
-import org.eclipse.jface.viewers.Viewer;
-import org.eclipse.jface.viewers.ViewerFilter;
 import org.eclipse.swt.SWT;
+import org.eclipse.swt.events.DisposeEvent;
+import org.eclipse.swt.events.DisposeListener;
 import org.eclipse.swt.layout.GridData;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Table;
 import org.eclipse.swt.widgets.Text;
+import org.eclipse.tycho.targeteditor.FilteredLazyContentProvider.FilterResult;
+import org.eclipse.tycho.targeteditor.jobs.FilterJob;
+import org.eclipse.tycho.targeteditor.model.INexusRepository;
 import org.eclipse.ui.forms.AbstractFormPart;
+import org.eclipse.ui.forms.IFormPart;
 import org.eclipse.ui.forms.IManagedForm;
 
 public class FilterTable extends Composite {
 
     static final String FILTER_TEXT_ID = "FilterTable_filterText";
-    private ViewerFilter filter;
     public String filterString = "";
     private TableViewer viewer;
+    private FilteredLazyContentProvider contentProvider;
+    private FilterJob<FilterResult> filterJob;
+    private RepositoryTableLabelDecorator decorator;
     private Table repositoryTable;
     private HintBox hintBox;
+    private AbstractFormPart formPart;
 
     public FilterTable(final IManagedForm managedForm, final Composite parent,
             final IContentProvider tableContentProvider, ILabelProvider labelProvider) {
@@ -56,9 +68,11 @@ public class FilterTable extends Composite {
     }
 
     private void addFormPart(final IManagedForm managedForm) {
-        final AbstractFormPart formPart = new AbstractFormPart() {
+        formPart = new AbstractFormPart() {
             @Override
             public void refresh() {
+                contentProvider.refresh();
+                decorator.invalidateAll();
                 viewer.refresh(true);
             }
 
@@ -79,38 +93,58 @@ public class FilterTable extends Composite {
 
     private void createTable(final IManagedForm managedForm, IContentProvider tableContentProvider,
             final ILabelProvider labelProvider) {
-        repositoryTable = managedForm.getToolkit().createTable(this, SWT.H_SCROLL | SWT.V_SCROLL | SWT.MULTI);
+        if (!(tableContentProvider instanceof IStructuredContentProvider)) {
+            throw new IllegalArgumentException("tableContentProvider not instanceof IStructuredContentProvider");
+        }
+        repositoryTable = managedForm.getToolkit().createTable(this,
+                SWT.H_SCROLL | SWT.V_SCROLL | SWT.MULTI | SWT.VIRTUAL);
         repositoryTable.setLayoutData(new GridData(SWT.FILL, SWT.FILL, true, true));
         viewer = new TableViewer(repositoryTable);
+        viewer.setUseHashlookup(true);
 
-        viewer.setContentProvider(tableContentProvider);
-        final ILabelDecorator decorator = new RepositoryTableLabelDecorator();
+        // sorting and filtering is done by the content provider, as the table is virtual
+        contentProvider = new FilteredLazyContentProvider((IStructuredContentProvider) tableContentProvider,
+                labelProvider, new RepositoryTableComparator());
+        viewer.setContentProvider(contentProvider);
+        decorator = new RepositoryTableLabelDecorator();
 
         viewer.setLabelProvider(new DecoratingLabelProvider(labelProvider, decorator));
-        viewer.setComparator(new RepositoryTableComparator());
-
-        filter = new ViewerFilter() {
 
+        filterJob = new FilterJob<FilterResult>("Filter repositories", getDisplay(), FilterJob.DEFAULT_DELAY) {
             @Override
-            public boolean select(final Viewer viewer, final Object parentElement, final Object element) {
-                final String elementText = labelProvider.getText(element);
-                return elementText.toLowerCase().contains(hintBox.getTextValue().toLowerCase());
+            protected FilterResult match(final String filterText, final IProgressMonitor monitor) {
+                return contentProvider.filter(filterText, monitor);
             }
 
-        };
-
-        hintBox.addListener(new IPropertyChangeListener() {
-
             @Override
-            public void propertyChange(PropertyChangeEvent event) {
+            protected void apply(final String filterText, final FilterResult result) {
+                if (repositoryTable.isDisposed()) {
+                    return;
+                }
+                if (!contentProvider.applyFilter(result)) {
+                    // elements changed while matching
+                    setFilterText(filterText);
+                    return;
+                }
                 viewer.refresh();
                 if (viewer.getSelection().isEmpty()) {
                     selectFirst();
                 }
             }
-        });
-        viewer.addFilter(filter);
+        };
+        hintBox.addListener(new IPropertyChangeListener() {
 
+            @Override
+            public void propertyChange(PropertyChangeEvent event) {
+                filterJob.setFilterText(hintBox.getTextValue());
+            }
+        });
+        addDisposeListener(new DisposeListener() {
+            @Override
+            public void widgetDisposed(final DisposeEvent e) {
+                filterJob.cancel();
+            }
+        });
     }
 
     private HintBox createHintBox(final IManagedForm managedForm) {
@@ -126,8 +160,41 @@ public class FilterTable extends Composite {
         viewer.setInput(input);
     }
 
+    /**
+     * @return the form part refreshing the whole table
+     */
+    IFormPart getFormPart() {
+        return formPart;
+    }
+
+    /**
+     * Updates the labels of the shown Nexus repositories of the given artifacts without refreshing
+     * the whole table.
+     * 
+     * @param artifactKeys
+     *            keys as created by {@link #createArtifactKey(INexusRepository)}
+     */
+    void updateNexusRepositories(final Set<String> artifactKeys) {
+        decorator.invalidate(artifactKeys);
+        final List<Object> elements = new ArrayList<Object>();
+        for (int i = 0; i < contentProvider.getElementCount(); i++) {
+            final Object element = contentProvider.getElementAt(i);
+            if (element instanceof INexusRepository
+                    && artifactKeys.contains(createArtifactKey((INexusRepository) element))) {
+                elements.add(element);
+            }
+        }
+        if (!elements.isEmpty()) {
+            viewer.update(elements.toArray(), null);
+        }
+    }
+
+    static String createArtifactKey(final INexusRepository repository) {
+        return repository.getGroupId() + ":" + repository.getArtifactId();
+    }
+
     public void selectFirst() {
-        final Object firstElement = viewer.getElementAt(0);
+        final Object firstElement = contentProvider.getElementAt(0);
         if (firstElement != null) {
             viewer.setSelection(new StructuredSelection(firstElement), true);
         }
@@ -0,0 +1,232 @@
+/**
+ * Copyright (c) 2011, 2014 SAP AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    SAP AG - initial API and implementation
+ */
+package org.eclipse.tycho.targeteditor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jface.util.Policy;
+import org.eclipse.jface.viewers.ILabelProvider;
+import org.eclipse.jface.viewers.ILazyContentProvider;
+import org.eclipse.jface.viewers.IStructuredContentProvider;
+import org.eclipse.jface.viewers.TableViewer;
+import org.eclipse.jface.viewers.Viewer;
+import org.eclipse.jface.viewers.ViewerComparator;
+
+/**
+ * Content provider of a virtual table, which sorts and filters the elements of a structured
+ * content provider itself, as virtual tables support neither comparators nor filters.
+ * <p>
+ * The lower-cased label of each element is computed once when the input is set or refreshed, so
+ * that filtering does not call the label provider. If the filter text is refined, only the
+ * elements matching the previous filter text are searched.
+ * <p>
+ * Filtering may be split into {@link #filter(String, IProgressMonitor)}, which can be called in a
+ * background thread, and {@link #applyFilter(FilterResult)}. All other methods must be called in
+ * the UI thread.
+ */
+final class FilteredLazyContentProvider implements ILazyContentProvider {
+
+    private static final int CANCEL_CHECK_INTERVAL = 1024;
+
+    private static final class Entry {
+        final Object element;
+        final int category;
+        final String label;
+        final String searchText;
+
+        Entry(final Object element, final int category, final String label) {
+            this.element = element;
+            this.category = category;
+            this.label = label;
+            this.searchText = label.toLowerCase();
+        }
+    }
+
+    /**
+     * Elements, filter text and matching elements. Never modified, so that it can be read in
+     * background threads.
+     */
+    private static final class State {
+        final List<Entry> entries;
+        final String filterText;
+        final List<Entry> filteredEntries;
+
+        State(final List<Entry> entries, final String filterText, final List<Entry> filteredEntries) {
+            this.entries = entries;
+            this.filterText = filterText;
+            this.filteredEntries = filteredEntries;
+        }
+    }
+
+    /**
+     * Result of {@link FilteredLazyContentProvider#filter(String, IProgressMonitor)}.
+     */
+    static final class FilterResult {
+        private final State state;
+
+        FilterResult(final State state) {
+            this.state = state;
+        }
+    }
+
+    private static final Comparator<Entry> ENTRY_COMPARATOR = new Comparator<Entry>() {
+        @Override
+        public int compare(final Entry e1, final Entry e2) {
+            if (e1.category != e2.category) {
+                return e1.category < e2.category ? -1 : 1;
+            }
+            return Policy.getComparator().compare(e1.label, e2.label);
+        }
+    };
+
+    private final IStructuredContentProvider elementProvider;
+    private final ILabelProvider labelProvider;
+    private final ViewerComparator comparator;
+    private TableViewer viewer;
+    private Object input;
+    private volatile State state = new State(Collections.<Entry> emptyList(), "", Collections.<Entry> emptyList());
+
+    /**
+     * @param comparator
+     *            provides the categories of the elements; elements of the same category are
+     *            sorted by their labels
+     */
+    FilteredLazyContentProvider(final IStructuredContentProvider elementProvider, final ILabelProvider labelProvider,
+            final ViewerComparator comparator) {
+        this.elementProvider = elementProvider;
+        this.labelProvider = labelProvider;
+        this.comparator = comparator;
+    }
+
+    @Override
+    public void inputChanged(final Viewer viewer, final Object oldInput, final Object newInput) {
+        elementProvider.inputChanged(viewer, oldInput, newInput);
+        this.viewer = (TableViewer) viewer;
+        this.input = newInput;
+        refresh();
+    }
+
+    /**
+     * Reads the elements of the input again and updates the search index.
+     */
+    void refresh() {
+        final List<Entry> newEntries = new ArrayList<Entry>();
+        if (input != null) {
+            for (final Object element : elementProvider.getElements(input)) {
+                final String label = labelProvider.getText(element);
+                newEntries.add(new Entry(element, comparator.category(element), label == null ? "" : label));
+            }
+            Collections.sort(newEntries, ENTRY_COMPARATOR);
+        }
+        final String filterText = state.filterText;
+        state = new State(newEntries, filterText, filter(newEntries, filterText, null));
+        updateItemCount();
+    }
+
+    /**
+     * Shows only elements whose label contains the given text, ignoring case.
+     */
+    void setFilter(final String text) {
+        applyFilter(filter(text, null));
+    }
+
+    /**
+     * Finds the elements whose label contains the given text, ignoring case. May be called in any
+     * thread.
+     *
+     * @return the result to be applied, or <code>null</code> if the monitor was cancelled
+     */
+    FilterResult filter(final String text, final IProgressMonitor monitor) {
+        final State current = state;
+        final String newFilterText = text.toLowerCase();
+        if (newFilterText.equals(current.filterText)) {
+            return new FilterResult(current);
+        }
+        final List<Entry> candidates = newFilterText.contains(current.filterText) ? current.filteredEntries
+                : current.entries;
+        final List<Entry> filteredEntries = filter(candidates, newFilterText, monitor);
+        if (filteredEntries == null) {
+            return null;
+        }
+        return new FilterResult(new State(current.entries, newFilterText, filteredEntries));
+    }
+
+    /**
+     * Shows the elements found by {@link #filter(String, IProgressMonitor)}.
+     *
+     * @return <code>false</code> if the result is outdated because the elements were refreshed in
+     *         the meantime
+     */
+    boolean applyFilter(final FilterResult result) {
+        if (result.state.entries != state.entries) {
+            return false;
+        }
+        state = result.state;
+        updateItemCount();
+        return true;
+    }
+
+    private static List<Entry> filter(final List<Entry> candidates, final String filterText,
+            final IProgressMonitor monitor) {
+        if (filterText.length() == 0) {
+            return candidates;
+        }
+        final List<Entry> result = new ArrayList<Entry>();
+        for (int i = 0; i < candidates.size(); i++) {
+            if (monitor != null && i % CANCEL_CHECK_INTERVAL == 0 && monitor.isCanceled()) {
+                return null;
+            }
+            final Entry entry = candidates.get(i);
+            if (entry.searchText.contains(filterText)) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    private void updateItemCount() {
+        if (viewer != null) {
+            viewer.setItemCount(state.filteredEntries.size());
+        }
+    }
+
+    /**
+     * @return the number of shown elements
+     */
+    int getElementCount() {
+        return state.filteredEntries.size();
+    }
+
+    /**
+     * @return the shown element at the given index, or <code>null</code> if there is none
+     */
+    Object getElementAt(final int index) {
+        final List<Entry> filteredEntries = state.filteredEntries;
+        return index >= 0 && index < filteredEntries.size() ? filteredEntries.get(index).element : null;
+    }
+
+    @Override
+    public void updateElement(final int index) {
+        final Object element = getElementAt(index);
+        if (element != null) {
+            viewer.replace(element, index);
+        }
+    }
+
+    @Override
+    public void dispose() {
+        elementProvider.dispose();
+    }
+}
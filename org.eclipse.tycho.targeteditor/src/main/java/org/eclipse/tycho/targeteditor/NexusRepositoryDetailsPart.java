@@ -11,7 +11,6 @@
 package org.eclipse.tycho.targeteditor;
 
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 
 import org.eclipse.core.runtime.IStatus;
@@ -28,6 +27,7 @@ import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Text;
 import org.eclipse.tycho.targeteditor.model.EDynamicVersions;
 import org.eclipse.tycho.targeteditor.model.INexusRepository;
+import org.eclipse.tycho.targeteditor.model.INexusVersionInfo;
 import org.eclipse.tycho.targeteditor.model.NexusVersionCalculationResult;
 import org.eclipse.tycho.targeteditor.model.LDIModelFactory;
 import org.eclipse.ui.forms.IFormPart;
@@ -43,6 +43,9 @@ public class NexusRepositoryDetailsPart extends TargetRepositoryDetailsPart {
     private Text artifactId;
     private Combo version;
     private Button button_problemDetails;
+    // version information and repository version the combo items were last computed for
+    private INexusVersionInfo shownVersionInfo;
+    private String shownVersion;
 
     @Override
     public void createContents(final Composite parent) {
@@ -144,33 +147,27 @@ public class NexusRepositoryDetailsPart extends TargetRepositoryDetailsPart {
         final NexusVersionCalculationResult availableVersions = RepositoryVersionCache.getInstance()
                 .getAllAvailableVersions(repo);
         if (availableVersions != null && availableVersions.getStatus().isOK()) {
-            final List<String> allVersions = availableVersions.getVersionInfo().getVersions();
-            final String latestReleaseVersion = availableVersions.getVersionInfo().getLatestReleaseVersion();
-            if (latestReleaseVersion != null && !latestReleaseVersion.isEmpty()) {
-                allVersions.add(EDynamicVersions.RELEASE.name());
-            }
-            final String latestVersion = availableVersions.getVersionInfo().getLatestVersion();
-            if (latestVersion != null && !latestVersion.isEmpty()) {
-                allVersions.add(EDynamicVersions.SNAPSHOT.name());
-            }
-
-            final List<String> currentItems = Arrays.asList(version.getItems());
-            // rely on sorted maven-meta.xml from Nexus
-            Collections.reverse(allVersions);
-            // Read only combo can only set a text contained as an item
-            if (!allVersions.contains(repo.getVersion())) {
-                allVersions.add(0, repo.getVersion());
-            }
-            // modifications to combo will reset cursor position. Do only in
-            // case content changed.
-            if (!allVersions.equals(currentItems)) {
-                final String[] availableVersion = allVersions.toArray(new String[allVersions.size()]);
-                version.setItems(availableVersion);
-                version.setText(repo.getVersion());
-            } else if (!version.getText().equals(repo.getVersion())) {
-                version.setText(repo.getVersion());
+            final INexusVersionInfo versionInfo = availableVersions.getVersionInfo();
+            final String currentVersion = repo.getVersion();
+            // version information is immutable: nothing to do if neither it nor the version changed
+            if (versionInfo != shownVersionInfo || !currentVersion.equals(shownVersion)) {
+                final String[] availableVersion = createVersionItems(versionInfo, currentVersion);
+                // modifications to combo will reset cursor position. Do only in
+                // case content changed.
+                if (!Arrays.equals(availableVersion, version.getItems())) {
+                    version.setItems(availableVersion);
+                    version.setText(currentVersion);
+                } else if (!version.getText().equals(currentVersion)) {
+                    version.setText(currentVersion);
+                }
+                shownVersionInfo = versionInfo;
+                shownVersion = currentVersion;
+                // the combo is mostly used to switch to one of these
+                P2MetadataPrefetcher.getInstance().prefetchLatestVersions(repo, versionInfo);
             }
         } else {
+            shownVersionInfo = null;
+            shownVersion = null;
             if (!version.getText().equals(repo.getVersion())) {
                 version.setItems(new String[] { repo.getVersion() });
                 version.setText(repo.getVersion());
@@ -179,6 +176,38 @@ public class NexusRepositoryDetailsPart extends TargetRepositoryDetailsPart {
         refreshVersionComboMessages(repo);
     }
 
+    /**
+     * @return the dynamic versions followed by the available versions, newest first. The current
+     *         version is prepended in case it is not available, because a read only combo can only
+     *         show a text contained as an item.
+     */
+    private static String[] createVersionItems(final INexusVersionInfo versionInfo, final String currentVersion) {
+        final List<String> versions = versionInfo.getVersionsDescending();
+        final String latestVersion = versionInfo.getLatestVersion();
+        final String latestReleaseVersion = versionInfo.getLatestReleaseVersion();
+        final boolean snapshotAvailable = latestVersion != null && !latestVersion.isEmpty();
+        final boolean releaseAvailable = latestReleaseVersion != null && !latestReleaseVersion.isEmpty();
+        final boolean currentAvailable = versionInfo.containsVersion(currentVersion)
+                || (snapshotAvailable && EDynamicVersions.SNAPSHOT.name().equals(currentVersion))
+                || (releaseAvailable && EDynamicVersions.RELEASE.name().equals(currentVersion));
+        final String[] items = new String[versions.size() + (snapshotAvailable ? 1 : 0) + (releaseAvailable ? 1 : 0)
+                + (currentAvailable ? 0 : 1)];
+        int i = 0;
+        if (!currentAvailable) {
+            items[i++] = currentVersion;
+        }
+        if (snapshotAvailable) {
+            items[i++] = EDynamicVersions.SNAPSHOT.name();
+        }
+        if (releaseAvailable) {
+            items[i++] = EDynamicVersions.RELEASE.name();
+        }
+        for (int j = 0; j < versions.size(); j++) {
+            items[i++] = versions.get(j);
+        }
+        return items;
+    }
+
     private void refreshVersionComboMessages(final INexusRepository repo) {
         final NexusVersionCalculationResult availableVersions = RepositoryVersionCache.getInstance()
                 .getAllAvailableVersions(repo);
@@ -0,0 +1,203 @@
+/**
+ * Copyright (c) 2011, 2014 SAP AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    SAP AG - initial API and implementation
+ */
+package org.eclipse.tycho.targeteditor;
+
+import java.net.URI;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.equinox.p2.repository.metadata.IMetadataRepository;
+import org.eclipse.pde.internal.core.target.P2TargetUtils;
+import org.eclipse.tycho.targeteditor.model.INexusRepository;
+import org.eclipse.tycho.targeteditor.model.INexusVersionInfo;
+import org.eclipse.tycho.targeteditor.model.LDIModelFactory;
+
+/**
+ * Loads p2 metadata repositories through the repository manager of PDE, which keeps the loaded
+ * repositories, so that target resolution does not load them again. Concurrent loads of the same
+ * repository are merged into one, and repositories which are likely to be used next can be loaded
+ * ahead in the background.
+ */
+@SuppressWarnings("restriction")
+public final class P2MetadataPrefetcher {
+
+    /** family of the background job loading the repositories ahead */
+    public static final Object PREFETCH_JOB_FAMILY = new Object();
+
+    private static final long POLL_INTERVAL = 100;
+
+    private static final P2MetadataPrefetcher INSTANCE = new P2MetadataPrefetcher(new RepositoryLoader() {
+        @Override
+        public IMetadataRepository load(final URI uri, final IProgressMonitor monitor) throws CoreException {
+            return P2TargetUtils.getRepoManager().loadRepository(uri, monitor);
+        }
+    });
+
+    /**
+     * Loads a repository without merging concurrent loads.
+     */
+    interface RepositoryLoader {
+        IMetadataRepository load(URI uri, IProgressMonitor monitor) throws CoreException;
+    }
+
+    private final RepositoryLoader loader;
+
+    /** loads in progress */
+    private final ConcurrentMap<URI, Load> loads = new ConcurrentHashMap<URI, Load>();
+    private final BlockingQueue<URI> prefetchQueue = new LinkedBlockingQueue<URI>();
+    private final Job prefetchJob = new Job("Prefetch p2 repositories") {
+        @Override
+        protected IStatus run(final IProgressMonitor monitor) {
+            URI uri;
+            while ((uri = prefetchQueue.poll()) != null) {
+                if (monitor.isCanceled()) {
+                    prefetchQueue.clear();
+                    return Status.CANCEL_STATUS;
+                }
+                try {
+                    load(uri, monitor);
+                } catch (final CoreException e) {
+                    // speculative, the problem is reported when the repository is actually used
+                } catch (final OperationCanceledException e) {
+                    prefetchQueue.clear();
+                    return Status.CANCEL_STATUS;
+                }
+            }
+            return Status.OK_STATUS;
+        }
+
+        @Override
+        public boolean belongsTo(final Object family) {
+            return family == PREFETCH_JOB_FAMILY;
+        }
+    };
+
+    P2MetadataPrefetcher(final RepositoryLoader loader) {
+        this.loader = loader;
+        prefetchJob.setSystem(true);
+        prefetchJob.setPriority(Job.DECORATE);
+    }
+
+    public static P2MetadataPrefetcher getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Loads the repository, or waits for a load of the same repository which is already in
+     * progress, e.g. a prefetch.
+     *
+     * @param monitor
+     *            progress monitor or <code>null</code>
+     * @throws OperationCanceledException
+     *             if the monitor was cancelled
+     */
+    public IMetadataRepository load(final URI uri, final IProgressMonitor monitor) throws CoreException {
+        final IProgressMonitor loadMonitor = monitor == null ? new NullProgressMonitor() : monitor;
+        while (true) {
+            final Load newLoad = new Load();
+            final Load pendingLoad = loads.putIfAbsent(uri, newLoad);
+            if (pendingLoad == null) {
+                return newLoad.run(uri, loadMonitor);
+            }
+            final IMetadataRepository repository = pendingLoad.await(loadMonitor);
+            if (repository != null) {
+                return repository;
+            }
+            // the pending load was cancelled, load on our own
+        }
+    }
+
+    /**
+     * Loads the repository in the background unless it is already queued or being loaded.
+     */
+    public void prefetch(final URI uri) {
+        if (!loads.containsKey(uri) && !prefetchQueue.contains(uri)) {
+            prefetchQueue.add(uri);
+            // if the job is running, it is scheduled again when done
+            prefetchJob.schedule();
+        }
+    }
+
+    /**
+     * Loads the repositories of the latest release and the latest version of the artifact in the
+     * background, which are the versions the repository is most likely changed to next.
+     *
+     * @param versionInfo
+     *            the available versions of the artifact
+     */
+    public void prefetchLatestVersions(final INexusRepository repository, final INexusVersionInfo versionInfo) {
+        prefetchVersion(repository, versionInfo.getLatestReleaseVersion());
+        prefetchVersion(repository, versionInfo.getLatestVersion());
+    }
+
+    private void prefetchVersion(final INexusRepository repository, final String version) {
+        if (version == null || version.length() == 0 || version.equals(repository.getVersion())) {
+            return;
+        }
+        final INexusRepository candidate = LDIModelFactory.createNexusRepository(repository.getURI());
+        if (candidate == null) {
+            return;
+        }
+        candidate.setVersion(version);
+        LDIModelFactory.adjustRepositoryName(candidate);
+        prefetch(candidate.getURI());
+    }
+
+    private final class Load {
+        private final CountDownLatch done = new CountDownLatch(1);
+        private volatile IMetadataRepository repository;
+        private volatile CoreException problem;
+
+        IMetadataRepository run(final URI uri, final IProgressMonitor monitor) throws CoreException {
+            try {
+                repository = loader.load(uri, monitor);
+                return repository;
+            } catch (final CoreException e) {
+                problem = e;
+                throw e;
+            } finally {
+                loads.remove(uri, this);
+                done.countDown();
+            }
+        }
+
+        /**
+         * @return the repository, or <code>null</code> if the load was cancelled
+         */
+        IMetadataRepository await(final IProgressMonitor monitor) throws CoreException {
+            try {
+                while (!done.await(POLL_INTERVAL, TimeUnit.MILLISECONDS)) {
+                    if (monitor.isCanceled()) {
+                        throw new OperationCanceledException();
+                    }
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new OperationCanceledException();
+            }
+            if (problem != null) {
+                throw problem;
+            }
+            return repository;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/**
+ * Copyright (c) 2011, 2014 SAP AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    SAP AG - initial API and implementation
+ */
+package org.eclipse.tycho.targeteditor;
+
+import org.eclipse.swt.widgets.Display;
+
+/**
+ * Merges refresh requests from arbitrary threads into UI refreshes which run at most once per
+ * interval. Subclasses collect the details of the requests themselves and apply them in
+ * {@link #refresh()}.
+ */
+abstract class RefreshScheduler {
+
+    static final int DEFAULT_INTERVAL = 100;
+
+    private final Display display;
+    private final int interval;
+    private boolean scheduled;
+    private long lastRefreshTime;
+
+    private final Runnable refreshRunnable = new Runnable() {
+        @Override
+        public void run() {
+            synchronized (RefreshScheduler.this) {
+                scheduled = false;
+                lastRefreshTime = System.currentTimeMillis();
+            }
+            refresh();
+        }
+    };
+
+    private final Runnable timerRunnable = new Runnable() {
+        @Override
+        public void run() {
+            final long delay;
+            synchronized (RefreshScheduler.this) {
+                delay = Math.max(0, lastRefreshTime + interval - System.currentTimeMillis());
+            }
+            if (delay == 0) {
+                refreshRunnable.run();
+            } else {
+                display.timerExec((int) delay, refreshRunnable);
+            }
+        }
+    };
+
+    RefreshScheduler(final Display display, final int interval) {
+        this.display = display;
+        this.interval = interval;
+    }
+
+    /**
+     * Requests a refresh. May be called from any thread. Requests arriving before a pending
+     * refresh was executed are served by that refresh.
+     */
+    final void schedule() {
+        synchronized (this) {
+            if (scheduled) {
+                return;
+            }
+            scheduled = true;
+        }
+        if (!display.isDisposed()) {
+            display.asyncExec(timerRunnable);
+        }
+    }
+
+    /**
+     * Applies all requests collected since the previous refresh. Called in the UI thread.
+     */
+    protected abstract void refresh();
+}
@@ -10,6 +10,11 @@
  */
 package org.eclipse.tycho.targeteditor;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
@@ -26,6 +31,7 @@ import org.eclipse.tycho.targeteditor.model.IMutableVersionedId;
 import org.eclipse.tycho.targeteditor.model.INexusRepository;
 import org.eclipse.tycho.targeteditor.model.IRepository;
 import org.eclipse.tycho.targeteditor.model.LDIModelFactory;
+import org.eclipse.tycho.targeteditor.model.NexusVersionCalculationResult;
 import org.eclipse.ui.IEditorInput;
 import org.eclipse.ui.IEditorSite;
 import org.eclipse.ui.forms.AbstractFormPart;
@@ -62,9 +68,18 @@ public class RepositoriesEditorPage extends FormPage implements IModelChangedLis
     }
 
     private RepositoryMainForm mainForm;
-    private ILDITargetDefintion ldiTargetDefinition;
+    private volatile ILDITargetDefintion ldiTargetDefinition;
     private LifeCycleForm lifeCycleForm;
     protected Job resolveTargetDefinitionTriggerJob;
+    private Object resolveJobFamily;
+
+    // changes collected since the last refresh; guarded by pendingChangesLock
+    private final Object pendingChangesLock = new Object();
+    private boolean fullRefreshPending;
+    private boolean sourceChangePending;
+    private boolean resolvePending;
+    private Set<String> pendingVersionUpdates = new HashSet<String>();
+    private RefreshScheduler refreshScheduler;
 
     public RepositoriesEditorPage(final LDITargetEditor editor, final String id, final String title) {
         super(editor, id, title);
@@ -77,6 +92,14 @@ public class RepositoriesEditorPage extends FormPage implements IModelChangedLis
         resolveTargetDefinitionTriggerJob = new Job("Trigger resolve job") {
             @Override
             protected IStatus run(final IProgressMonitor monitor) {
+                // resolve changed locations only, PDE then finds the target resolved and just refreshes
+                final ILDITargetDefintion targetDefinition = ldiTargetDefinition;
+                if (targetDefinition != null) {
+                    targetDefinition.resolveChangedLocations(monitor);
+                }
+                if (monitor.isCanceled()) {
+                    return Status.CANCEL_STATUS;
+                }
                 Display.getDefault().asyncExec(new Runnable() {
                     @Override
                     public void run() {
@@ -89,19 +112,26 @@ public class RepositoriesEditorPage extends FormPage implements IModelChangedLis
 
                 return Status.OK_STATUS;
             }
+
+            @Override
+            public boolean belongsTo(final Object family) {
+                return family != null && family == resolveJobFamily;
+            }
         };
-        resolveTargetDefinitionTriggerJob.setPriority(Job.DECORATE);
+        resolveTargetDefinitionTriggerJob.setPriority(Job.LONG);
         resolveTargetDefinitionTriggerJob.setSystem(true);
     }
 
     private void updateRepositoryVersionCache() {
+        final List<INexusRepository> nexusRepositories = new ArrayList<INexusRepository>();
         for (final ILDIRepositoryLocation location : getLDITargetDefinition().getRepositoryLocations()) {
             for (final IRepository repo : location.getRepositories()) {
                 if (repo instanceof INexusRepository) {
-                    RepositoryVersionCache.getInstance().getAllAvailableVersions((INexusRepository) repo);
+                    nexusRepositories.add((INexusRepository) repo);
                 }
             }
         }
+        RepositoryVersionCache.getInstance().prefetch(nexusRepositories);
     }
 
     @Override
@@ -152,41 +182,101 @@ public class RepositoriesEditorPage extends FormPage implements IModelChangedLis
         managedForm.addPart(lifeCycleForm);
         ((TargetEditor) getEditor()).contributeToToolbar(managedForm.getForm(), LDI_EDITOR_HELP_ID);
 
-        final Object resolveJobFamily = LDIModelFactory.getResolveJobFamily(((TargetEditor) getEditor()));
+        resolveJobFamily = LDIModelFactory.getResolveJobFamily(((TargetEditor) getEditor()));
         ShowResolutionProblemAction.createAndAssign(this, managedForm, resolveJobFamily);
+
+        refreshScheduler = new RefreshScheduler(form.getDisplay(), RefreshScheduler.DEFAULT_INTERVAL) {
+            @Override
+            protected void refresh() {
+                refreshPendingChanges();
+            }
+        };
     }
 
     @Override
     public void modelChanged(final IModelChangedEvent event) {
-        final IManagedForm managedForm = getManagedForm();
-        if (managedForm != null) {
-            managedForm.getForm().getDisplay().asyncExec(new Runnable() {
-                @Override
-                public void run() {
-                    final IModelChangeProvider changeProvider = event.getChangeProvider();
-                    final boolean isResolveRequired = (changeProvider instanceof INexusRepository)
-                            || (changeProvider instanceof IMutableVersionedId)
-                            || (changeProvider instanceof ILDITargetDefintion);
-                    final boolean isCacheRefresh = ILDITargetDefintion.EVENT_PROPERTY_RESET_CONTAINER_RESOLUTION_STATE
-                            .equals(event.getChangedProperty());
-                    final boolean isSourceChanged = isResolveRequired && !isCacheRefresh;
-                    if (isSourceChanged) {
-                        if (lifeCycleForm != null) {
-                            lifeCycleForm.markDirty();
-                            getEditor().editorDirtyStateChanged();
-                        }
-                    }
-                    if (isResolveRequired) {
-                        //  trigger resolve with delay. e.g programatic changes in loops should not be resolved separately
-                        resolveTargetDefinitionTriggerJob.schedule(400);
-                    }
-                    final IFormPart[] parts = managedForm.getParts();
-                    for (int i = 0; i < parts.length; i++) {
-                        final IFormPart part = parts[i];
-                        part.refresh();
-                    }
+        final RefreshScheduler scheduler = refreshScheduler;
+        if (scheduler == null) {
+            return;
+        }
+        synchronized (pendingChangesLock) {
+            final String changedProperty = event.getChangedProperty();
+            if (RepositoryVersionCache.EVENT_PROPERTY_RESULT.equals(changedProperty)) {
+                addVersionUpdate((NexusVersionCalculationResult) event.getNewValue());
+            } else if (RepositoryVersionCache.EVENT_PROPERTY_RESULTS.equals(changedProperty)) {
+                for (final Object result : (List<?>) event.getNewValue()) {
+                    addVersionUpdate((NexusVersionCalculationResult) result);
                 }
-            });
+            } else {
+                final IModelChangeProvider changeProvider = event.getChangeProvider();
+                final boolean isResolveRequired = (changeProvider instanceof INexusRepository)
+                        || (changeProvider instanceof IMutableVersionedId)
+                        || (changeProvider instanceof ILDITargetDefintion);
+                final boolean isCacheRefresh = ILDITargetDefintion.EVENT_PROPERTY_RESET_CONTAINER_RESOLUTION_STATE
+                        .equals(changedProperty);
+                sourceChangePending |= isResolveRequired && !isCacheRefresh;
+                resolvePending |= isResolveRequired;
+                fullRefreshPending = true;
+            }
+        }
+        scheduler.schedule();
+    }
+
+    private void addVersionUpdate(final NexusVersionCalculationResult result) {
+        if (result != null) {
+            pendingVersionUpdates.add(FilterTable.createArtifactKey(result.getRepository()));
+        }
+    }
+
+    /**
+     * Applies all model changes collected since the last refresh in a single UI update. Version
+     * calculation results only update the affected rows of the repository table; all other changes
+     * refresh the whole form.
+     */
+    private void refreshPendingChanges() {
+        final IManagedForm managedForm = getManagedForm();
+        if (managedForm == null || managedForm.getForm().isDisposed()) {
+            return;
+        }
+        final boolean fullRefresh;
+        final boolean sourceChanged;
+        final boolean resolveRequired;
+        final Set<String> versionUpdates;
+        synchronized (pendingChangesLock) {
+            fullRefresh = fullRefreshPending;
+            sourceChanged = sourceChangePending;
+            resolveRequired = resolvePending;
+            versionUpdates = pendingVersionUpdates;
+            fullRefreshPending = false;
+            sourceChangePending = false;
+            resolvePending = false;
+            pendingVersionUpdates = new HashSet<String>();
+        }
+        if (sourceChanged) {
+            if (lifeCycleForm != null) {
+                lifeCycleForm.markDirty();
+                getEditor().editorDirtyStateChanged();
+            }
+        }
+        if (resolveRequired) {
+            //  trigger resolve with delay. e.g programatic changes in loops should not be resolved separately
+            // a running resolution is outdated; it is cancelled and runs again after the delay
+            resolveTargetDefinitionTriggerJob.cancel();
+            resolveTargetDefinitionTriggerJob.schedule(400);
+        }
+        final FilterTable filterTable = mainForm.getFilterTable();
+        if (!fullRefresh) {
+            if (versionUpdates.isEmpty()) {
+                return;
+            }
+            filterTable.updateNexusRepositories(versionUpdates);
+        }
+        final IFormPart[] parts = managedForm.getParts();
+        for (int i = 0; i < parts.length; i++) {
+            final IFormPart part = parts[i];
+            if (fullRefresh || part != filterTable.getFormPart()) {
+                part.refresh();
+            }
         }
     }
 
@@ -123,6 +123,10 @@ public class RepositoryMainForm extends MasterDetailsBlock implements IDetailsPa
         managedForm.getToolkit().adapt(filterTable);
     }
 
+    FilterTable getFilterTable() {
+        return filterTable;
+    }
+
     void resetInput() {
         filterTable.setInput(targetDefinitionProvider.getLDITargetDefinition());
         filterTable.selectFirst();
@@ -10,6 +10,11 @@
  */
 package org.eclipse.tycho.targeteditor;
 
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.jface.viewers.IColorDecorator;
 import org.eclipse.jface.viewers.ILabelDecorator;
@@ -23,14 +28,38 @@ import org.eclipse.tycho.targeteditor.model.INexusRepository;
 import org.eclipse.tycho.targeteditor.model.NexusRepositoryNames;
 import org.eclipse.tycho.targeteditor.model.NexusVersionCalculationResult;
 
+/**
+ * Decorates Nexus repositories with overlays for their version state.
+ * <p>
+ * The overlay of each element is computed once and cached until it is invalidated with
+ * {@link #invalidate(Set)} or {@link #invalidateAll()}, e.g. on version cache or model
+ * changes, so that painting a row is a plain lookup. All methods must be called in the UI thread.
+ */
 public class RepositoryTableLabelDecorator implements ILabelDecorator, IColorDecorator {
 
+    private enum Overlay {
+        NONE(null),
+        ERROR(Activator.ERROR_OVERLAY),
+        UPDATEABLE(Activator.UPDATEABLE_OVERLAY),
+        LOADING(Activator.LOADING_OVERLAY);
+
+        final String imageKey;
+
+        private Overlay(final String imageKey) {
+            this.imageKey = imageKey;
+        }
+    }
+
+    /** element -> overlay; elements are compared by identity */
+    private final Map<Object, Overlay> overlays = new IdentityHashMap<Object, Overlay>();
+
     @Override
     public void addListener(final ILabelProviderListener listener) {
     }
 
     @Override
     public void dispose() {
+        overlays.clear();
     }
 
     @Override
@@ -42,32 +71,65 @@ public class RepositoryTableLabelDecorator implements ILabelDecorator, IColorDec
     public void removeListener(final ILabelProviderListener listener) {
     }
 
+    /**
+     * Discards the cached decorations of the Nexus repositories of the given artifacts.
+     *
+     * @param artifactKeys
+     *            keys as created by {@link FilterTable#createArtifactKey(INexusRepository)}
+     */
+    void invalidate(final Set<String> artifactKeys) {
+        final Iterator<Object> elements = overlays.keySet().iterator();
+        while (elements.hasNext()) {
+            final Object element = elements.next();
+            if (element instanceof INexusRepository
+                    && artifactKeys.contains(FilterTable.createArtifactKey((INexusRepository) element))) {
+                elements.remove();
+            }
+        }
+    }
+
+    /**
+     * Discards all cached decorations.
+     */
+    void invalidateAll() {
+        overlays.clear();
+    }
+
     @Override
     public Image decorateImage(final Image image, final Object element) {
-        if (element instanceof INexusRepository) {
-            final INexusRepository repo = (INexusRepository) element;
-            final NexusVersionCalculationResult availableVersions = RepositoryVersionCache.getInstance()
-                    .getAllAvailableVersions(repo);
-            if (availableVersions != null) {
-                final IStatus status = availableVersions.getStatus();
-                if (status.matches(IStatus.ERROR)) {
-                    return Activator.getDefault().getImageFromRegistry(Activator.ERROR_OVERLAY);
-                } else {
-                    final String currentVersion = repo.getVersion();
-                    if (!EDynamicVersions.isDynamicVersion(currentVersion)) {
-                        final String latestVersion = availableVersions.getVersionInfo().getLatestVersion();
-                        final String latestReleaseVersion = availableVersions.getVersionInfo()
-                                .getLatestReleaseVersion();
-                        if (!(currentVersion.equals(latestVersion) || currentVersion.equals(latestReleaseVersion))) {
-                            return Activator.getDefault().getImageFromRegistry(Activator.UPDATEABLE_OVERLAY);
-                        }
-                    }
-                }
-            } else {
-                return Activator.getDefault().getImageFromRegistry(Activator.LOADING_OVERLAY);
+        if (!(element instanceof INexusRepository)) {
+            return image;
+        }
+        Overlay overlay = overlays.get(element);
+        if (overlay == null) {
+            overlay = computeOverlay((INexusRepository) element);
+            overlays.put(element, overlay);
+        }
+        return overlay == Overlay.NONE ? image : Activator.getDefault().getImageFromRegistry(overlay.imageKey);
+    }
+
+    private static Overlay computeOverlay(final INexusRepository repo) {
+        final NexusVersionCalculationResult availableVersions = RepositoryVersionCache.getInstance()
+                .getAllAvailableVersions(repo);
+        if (availableVersions == null) {
+            return Overlay.LOADING;
+        }
+        final IStatus status = availableVersions.getStatus();
+        if (status.matches(IStatus.ERROR)) {
+            return Overlay.ERROR;
+        }
+        final String currentVersion = repo.getVersion();
+        if (!EDynamicVersions.isDynamicVersion(currentVersion)) {
+            final String latestVersion = availableVersions.getVersionInfo().getLatestVersion();
+            final String latestReleaseVersion = availableVersions.getVersionInfo().getLatestReleaseVersion();
+            if (!(currentVersion.equals(latestVersion) || currentVersion.equals(latestReleaseVersion))) {
+                return Overlay.UPDATEABLE;
             }
         }
-        return image;
+        if (RepositoryVersionCache.getInstance().isRefreshing(repo)) {
+            return Overlay.LOADING;
+        }
+        return Overlay.NONE;
     }
 
     @Override
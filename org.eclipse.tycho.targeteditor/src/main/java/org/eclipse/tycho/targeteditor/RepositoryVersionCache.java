@@ -10,41 +10,181 @@
  */
 package org.eclipse.tycho.targeteditor;
 
+import java.util.AbstractMap;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jface.util.IPropertyChangeListener;
+import org.eclipse.jface.util.PropertyChangeEvent;
+import org.eclipse.tycho.targeteditor.RepositoryVersionCacheStore.StoredEntry;
 import org.eclipse.tycho.targeteditor.model.INexusRepository;
+import org.eclipse.tycho.targeteditor.model.INexusVersionInfoBatchCallback;
 import org.eclipse.tycho.targeteditor.model.INexusVersionInfoCallback;
 import org.eclipse.tycho.targeteditor.model.ModelChangeProvider;
 import org.eclipse.tycho.targeteditor.model.NexusVersionCalculationResult;
 import org.eclipse.tycho.targeteditor.model.LDIModelFactory;
 
+/**
+ * Caches the available versions of Nexus artifacts. Entries expire according to the
+ * {@link VersionCachePolicy}, the least recently used entries are evicted if the maximum number of
+ * entries is exceeded, and entries in use are refreshed in the background shortly before they
+ * expire.
+ * <p>
+ * Reading never blocks: entries are kept in a concurrent map, and the calculation of an entry is
+ * claimed atomically by the single caller that creates the entry or marks it as refreshing.
+ */
 public class RepositoryVersionCache extends ModelChangeProvider {
 
     static final String EVENT_PROPERTY_CACHE_CLEAN = "NexusVersionCacheClean";
-    private static final RepositoryVersionCache instance = new RepositoryVersionCache();
-    private final Map<Object, NexusVersionCalculationResult> versionMap = new HashMap<Object, NexusVersionCalculationResult>();
-    private static final NexusVersionCalculationResult CALCULATION_IN_PROGRESS = new NexusVersionCalculationResult(
-            null, null, null);
+    /** event property of a single calculated result; the new value is a NexusVersionCalculationResult */
+    static final String EVENT_PROPERTY_RESULT = "NexusVersionCalculationResult";
+    /** event property of several calculated results; the new value is a list of NexusVersionCalculationResult */
+    static final String EVENT_PROPERTY_RESULTS = "NexusVersionCalculationResults";
+    private static final long REFRESH_AHEAD_INTERVAL = 60 * 1000L;
+    /** delay of saving new results, so that the results of a batch are saved together */
+    private static final long SAVE_DELAY = 30 * 1000L;
+    private static volatile RepositoryVersionCache instance;
+    private final ConcurrentMap<Object, CacheEntry> versionMap = new ConcurrentHashMap<Object, CacheEntry>();
+    /** orders the accesses of entries for the eviction of the least recently used ones */
+    private final AtomicLong accessCounter = new AtomicLong();
+    private final Object evictionLock = new Object();
+    private final RepositoryVersionCacheStore store;
+    private final RefreshAheadJob refreshAheadJob = new RefreshAheadJob();
+    private final SaveJob saveJob = new SaveJob();
+    private final PolicyUpdater policyUpdater = new PolicyUpdater();
+    private volatile VersionCachePolicy policy;
+
+    private static final class CacheEntry {
+        /** <code>null</code> while the first calculation is in progress */
+        final NexusVersionCalculationResult result;
+        final long fetchTime;
+        volatile long lastAccessTime;
+        volatile long accessOrder;
+        /** result is expired or was loaded from a previous session and not yet revalidated */
+        volatile boolean stale;
+        final AtomicBoolean refreshing = new AtomicBoolean();
+
+        CacheEntry(final NexusVersionCalculationResult result, final long fetchTime) {
+            this.result = result;
+            this.fetchTime = fetchTime;
+        }
+    }
+
+    private class RefreshAheadJob extends Job {
+
+        RefreshAheadJob() {
+            super("Refreshing available versions from Nexus...");
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(final IProgressMonitor monitor) {
+            refreshAhead();
+            if (!monitor.isCanceled()) {
+                schedule(REFRESH_AHEAD_INTERVAL);
+            }
+            return Status.OK_STATUS;
+        }
+    }
 
-    private RepositoryVersionCache() {
+    private class SaveJob extends Job {
+
+        SaveJob() {
+            super("Saving available versions from Nexus...");
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(final IProgressMonitor monitor) {
+            save();
+            return Status.OK_STATUS;
+        }
+    }
+
+    private class PolicyUpdater implements IPropertyChangeListener {
+        @Override
+        public void propertyChange(final PropertyChangeEvent event) {
+            policy = VersionCachePolicy.createDefault();
+            evictExceedingEntries();
+        }
+    }
+
+    RepositoryVersionCache(final RepositoryVersionCacheStore store, final VersionCachePolicy policy) {
+        this.store = store;
+        this.policy = policy;
+        if (store != null) {
+            final long now = System.currentTimeMillis();
+            for (final StoredEntry storedEntry : store.load()) {
+                final CacheEntry entry = new CacheEntry(storedEntry.result, storedEntry.fetchTime);
+                entry.stale = policy.isExpired(storedEntry.result, storedEntry.fetchTime, now);
+                entry.accessOrder = accessCounter.incrementAndGet();
+                versionMap.put(storedEntry.key, entry);
+            }
+            evictExceedingEntries();
+        }
     }
 
     /**
      * @return the singleton instance
      */
     public static RepositoryVersionCache getInstance() {
+        final RepositoryVersionCache current = instance;
+        return current != null ? current : createInstance();
+    }
+
+    private static synchronized RepositoryVersionCache createInstance() {
+        if (instance == null) {
+            final RepositoryVersionCache newInstance = new RepositoryVersionCache(
+                    RepositoryVersionCacheStore.createDefault(), VersionCachePolicy.createDefault());
+            final Activator activator = Activator.getDefault();
+            if (activator != null) {
+                activator.getPreferenceStore().addPropertyChangeListener(newInstance.policyUpdater);
+            }
+            newInstance.refreshAheadJob.schedule(REFRESH_AHEAD_INTERVAL);
+            instance = newInstance;
+        }
         return instance;
     }
 
+    /**
+     * Stops background refreshing and writes the successfully calculated cache content to the
+     * plug-in state location. Does nothing in case the cache was never used in this session.
+     * <p>
+     * The content is also saved in the background a while after new results arrived, so that
+     * they are not lost if the workbench does not shut down properly.
+     */
+    static synchronized void shutdown() {
+        if (instance != null) {
+            instance.refreshAheadJob.cancel();
+            instance.saveJob.cancel();
+            final Activator activator = Activator.getDefault();
+            if (activator != null) {
+                activator.getPreferenceStore().removePropertyChangeListener(instance.policyUpdater);
+            }
+            instance.save();
+        }
+    }
+
     /**
      * Gets version information from the cache.</br> The method always return immediately. In case
      * the requested information is not yet contained in the cache it's asynchronous calculation is
-     * triggered.</br> Interested parties might register as listener to be informed when information
-     * is available.</br>
-     * 
+     * triggered.</br> Expired information and information persisted in a previous session is
+     * returned immediately, but is revalidated in the background (see
+     * {@link #isRefreshing(INexusRepository)}).</br> Interested parties might register as listener
+     * to be informed when information is available.</br>
+     *
      * @param repository
      *            the INexusRepository for which version information should be returned
      * @return the cached version information or <code>null</code> in case the information was not
@@ -54,62 +194,256 @@ public class RepositoryVersionCache extends ModelChangeProvider {
         return getAvailableVersions(LDIModelFactory.createRelatedSnapshotRepository(repository));
     }
 
+    /**
+     * Triggers the asynchronous calculation of all given repositories which are not yet cached or
+     * outdated with a single batch request. Listeners are informed with a small number of events
+     * carrying lists of results instead of one event per repository.
+     *
+     * @param repositories
+     *            e.g. all Nexus repositories of a target definition
+     */
+    public void prefetch(final Collection<INexusRepository> repositories) {
+        final List<INexusRepository> repos = new ArrayList<INexusRepository>();
+        final long now = System.currentTimeMillis();
+        for (final INexusRepository repository : repositories) {
+            final INexusRepository snapshotRepository = LDIModelFactory.createRelatedSnapshotRepository(repository);
+            if (markForCalculation(LDIModelFactory.createVersionKey(snapshotRepository), now)) {
+                repos.add(snapshotRepository);
+            }
+        }
+        calculate(repos);
+    }
+
+    /**
+     * @param repository
+     *            the INexusRepository for which version information is requested
+     * @return <code>true</code> if the cached version information is outdated and currently
+     *         recalculated
+     */
+    public boolean isRefreshing(final INexusRepository repository) {
+        final Object key = LDIModelFactory.createVersionKey(LDIModelFactory
+                .createRelatedSnapshotRepository(repository));
+        final CacheEntry entry = versionMap.get(key);
+        return entry != null && entry.result != null && entry.stale;
+    }
+
     /**
      * Triggers an asynchronous recalculation of cache content
      */
     public void reload() {
         final List<INexusRepository> repos = new ArrayList<INexusRepository>();
-        synchronized (versionMap) {
-            for (final NexusVersionCalculationResult currentResult : versionMap.values()) {
-                repos.add(currentResult.getRepository());
+        for (final CacheEntry entry : versionMap.values()) {
+            if (entry.result != null && entry.refreshing.compareAndSet(false, true)) {
+                repos.add(entry.result.getRepository());
             }
         }
-        for (final INexusRepository repository : repos) {
-            LDIModelFactory.getNexusRepositoryService().getVersionInfoAsync(repository, new VersionCallback());
-        }
+        calculate(repos);
     }
 
     public void clean() {
-        synchronized (versionMap) {
-            versionMap.clear();
+        versionMap.clear();
+        if (store != null) {
+            store.delete();
         }
         fireModelObjectChanged(this, EVENT_PROPERTY_CACHE_CLEAN, null, null);
     }
 
+    /**
+     * @return the number of cached artifacts
+     */
+    int size() {
+        return versionMap.size();
+    }
+
+    /**
+     * Refreshes entries which were used since they have been fetched and which are about to
+     * expire.
+     */
+    void refreshAhead() {
+        final long now = System.currentTimeMillis();
+        final VersionCachePolicy currentPolicy = policy;
+        final List<INexusRepository> repos = new ArrayList<INexusRepository>();
+        for (final CacheEntry entry : versionMap.values()) {
+            if (entry.result != null && entry.lastAccessTime > entry.fetchTime
+                    && currentPolicy.isRefreshAheadDue(entry.result, entry.fetchTime, now)
+                    && entry.refreshing.compareAndSet(false, true)) {
+                repos.add(entry.result.getRepository());
+            }
+        }
+        calculate(repos);
+    }
+
+    private void save() {
+        if (store == null) {
+            return;
+        }
+        final List<Map.Entry<Object, CacheEntry>> mapEntries = getEntriesByAccessOrder();
+        final List<StoredEntry> entries = new ArrayList<StoredEntry>();
+        for (final Map.Entry<Object, CacheEntry> mapEntry : mapEntries) {
+            final CacheEntry entry = mapEntry.getValue();
+            if (entry.result != null && entry.result.getStatus().isOK()) {
+                entries.add(new StoredEntry(mapEntry.getKey(), entry.result, entry.fetchTime));
+            }
+        }
+        store.save(entries);
+    }
+
+    private void scheduleSave() {
+        // not rescheduled while sleeping, so that a steady flow of results does not postpone saving;
+        // a running job is scheduled again when done
+        if (store != null && saveJob.getState() != Job.SLEEPING) {
+            saveJob.schedule(SAVE_DELAY);
+        }
+    }
+
     private NexusVersionCalculationResult getAvailableVersions(final INexusRepository repository) {
-        synchronized (versionMap) {
-            NexusVersionCalculationResult result = versionMap.get(createVersionKey(repository));
-            if (result == null) {
-                versionMap.put(createVersionKey(repository), CALCULATION_IN_PROGRESS);
-                LDIModelFactory.getNexusRepositoryService().getVersionInfoAsync(repository, new VersionCallback());
+        final Object key = LDIModelFactory.createVersionKey(repository);
+        final boolean calculate = markForCalculation(key, System.currentTimeMillis());
+        if (calculate) {
+            LDIModelFactory.getNexusRepositoryService().getVersionInfoAsync(repository, new VersionCallback());
+        }
+        final CacheEntry entry = versionMap.get(key);
+        return entry != null ? entry.result : null;
+    }
+
+    /**
+     * Records an access to the entry of the given key, creating it if necessary.
+     *
+     * @return <code>true</code> if the caller has to trigger the calculation of the repository
+     */
+    private boolean markForCalculation(final Object key, final long now) {
+        boolean calculate = false;
+        CacheEntry entry = versionMap.get(key);
+        if (entry == null) {
+            final CacheEntry newEntry = new CacheEntry(null, 0);
+            newEntry.refreshing.set(true);
+            newEntry.accessOrder = accessCounter.incrementAndGet();
+            entry = versionMap.putIfAbsent(key, newEntry);
+            if (entry == null) {
+                entry = newEntry;
+                calculate = true;
+            }
+        }
+        if (!calculate && entry.result != null && !entry.refreshing.get()) {
+            final VersionCachePolicy currentPolicy = policy;
+            if (currentPolicy.isExpired(entry.result, entry.fetchTime, now)) {
+                entry.stale = true;
+            }
+            if (entry.stale || currentPolicy.isRefreshAheadDue(entry.result, entry.fetchTime, now)) {
+                calculate = entry.refreshing.compareAndSet(false, true);
             }
-            if (result == CALCULATION_IN_PROGRESS) {
-                result = null;
+        }
+        entry.lastAccessTime = now;
+        entry.accessOrder = accessCounter.incrementAndGet();
+        if (calculate && entry.result == null) {
+            evictExceedingEntries();
+        }
+        return calculate;
+    }
+
+    private void calculate(final List<INexusRepository> repos) {
+        if (!repos.isEmpty()) {
+            LDIModelFactory.getNexusRepositoryService().getVersionInfoAsync(repos, new VersionBatchCallback());
+        }
+    }
+
+    /**
+     * Removes the least recently used entries. As finding them requires sorting all entries, a
+     * sixteenth of the maximum number of entries is removed in addition, so that the sorting is not
+     * repeated on every new entry of a full cache.
+     */
+    private void evictExceedingEntries() {
+        final int maxEntries = policy.getMaxEntries();
+        if (versionMap.size() <= maxEntries) {
+            return;
+        }
+        synchronized (evictionLock) {
+            if (versionMap.size() <= maxEntries) {
+                return;
             }
-            return result;
+            final List<Map.Entry<Object, CacheEntry>> entries = getEntriesByAccessOrder();
+            final int evicted = Math.min(entries.size() - maxEntries + maxEntries / 16, entries.size());
+            for (int i = 0; i < evicted; i++) {
+                final Map.Entry<Object, CacheEntry> entry = entries.get(i);
+                versionMap.remove(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * @return a snapshot of the entries, least recently used first
+     */
+    private List<Map.Entry<Object, CacheEntry>> getEntriesByAccessOrder() {
+        final List<Map.Entry<Object, CacheEntry>> entries = new ArrayList<Map.Entry<Object, CacheEntry>>();
+        for (final Map.Entry<Object, CacheEntry> entry : versionMap.entrySet()) {
+            entries.add(new AbstractMap.SimpleImmutableEntry<Object, CacheEntry>(entry));
         }
+        Collections.sort(entries, new Comparator<Map.Entry<Object, CacheEntry>>() {
+            @Override
+            public int compare(final Map.Entry<Object, CacheEntry> e1, final Map.Entry<Object, CacheEntry> e2) {
+                final long order1 = e1.getValue().accessOrder;
+                final long order2 = e2.getValue().accessOrder;
+                return order1 < order2 ? -1 : (order1 == order2 ? 0 : 1);
+            }
+        });
+        return entries;
     }
 
-    private Object createVersionKey(final INexusRepository repository) {
-        Object key = null;
-        if (repository != null) {
-            key = repository.getRepositoryName() + "/" + repository.getGroupId() + "/" + repository.getArtifactId();
+    /**
+     * Stores a calculated result.
+     *
+     * @return the result which is cached now
+     */
+    private NexusVersionCalculationResult update(final NexusVersionCalculationResult calculationResult, final long now) {
+        final Object key = LDIModelFactory.createVersionKey(calculationResult.getRepository());
+        final CacheEntry oldEntry = versionMap.get(key);
+        final NexusVersionCalculationResult oldResult = oldEntry != null ? oldEntry.result : null;
+        final CacheEntry newEntry;
+        if (!calculationResult.getStatus().isOK() && oldResult != null && oldResult.getStatus().isOK()) {
+            // keep the previous information e.g. while working offline; retry after next expiry
+            newEntry = new CacheEntry(oldResult, now);
+        } else {
+            newEntry = new CacheEntry(calculationResult, now);
+        }
+        if (oldEntry != null) {
+            newEntry.lastAccessTime = oldEntry.lastAccessTime;
+            newEntry.accessOrder = oldEntry.accessOrder;
+        } else {
+            newEntry.accessOrder = accessCounter.incrementAndGet();
         }
-        return key;
+        versionMap.put(key, newEntry);
+        evictExceedingEntries();
+        scheduleSave();
+        return newEntry.result;
     }
 
     private class VersionCallback implements INexusVersionInfoCallback {
         @Override
         public void notifyVersionCalculated(final NexusVersionCalculationResult calculationResult) {
-            NexusVersionCalculationResult oldResult;
-            synchronized (versionMap) {
-                final Object key = createVersionKey(calculationResult.getRepository());
-                oldResult = versionMap.get(key);
-                versionMap.put(key, calculationResult);
-            }
-            oldResult = (oldResult == CALCULATION_IN_PROGRESS) ? null : oldResult;
-            RepositoryVersionCache.this.fireModelObjectChanged(RepositoryVersionCache.this,
-                    "NexusVersionCalculationResult", oldResult, calculationResult);
+            final Object key = LDIModelFactory.createVersionKey(calculationResult.getRepository());
+            final CacheEntry oldEntry = versionMap.get(key);
+            final NexusVersionCalculationResult oldResult = oldEntry != null ? oldEntry.result : null;
+            final NexusVersionCalculationResult newResult = update(calculationResult, System.currentTimeMillis());
+            RepositoryVersionCache.this.fireModelObjectChanged(RepositoryVersionCache.this, EVENT_PROPERTY_RESULT,
+                    oldResult, newResult);
+        }
+    }
+
+    private class VersionBatchCallback implements INexusVersionInfoBatchCallback {
+        @Override
+        public void notifyVersionsCalculated(final List<NexusVersionCalculationResult> calculationResults,
+                final boolean completed) {
+            if (calculationResults.isEmpty()) {
+                return;
+            }
+            final List<NexusVersionCalculationResult> newResults = new ArrayList<NexusVersionCalculationResult>(
+                    calculationResults.size());
+            final long now = System.currentTimeMillis();
+            for (final NexusVersionCalculationResult calculationResult : calculationResults) {
+                newResults.add(update(calculationResult, now));
+            }
+            RepositoryVersionCache.this.fireModelObjectChanged(RepositoryVersionCache.this, EVENT_PROPERTY_RESULTS,
+                    null, newResults);
         }
     }
 
@@ -0,0 +1,213 @@
+/**
+ * Copyright (c) 2011, 2014 SAP AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    SAP AG - initial API and implementation
+ */
+package org.eclipse.tycho.targeteditor;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.tycho.targeteditor.model.INexusRepository;
+import org.eclipse.tycho.targeteditor.model.INexusVersionInfo;
+import org.eclipse.tycho.targeteditor.model.LDIModelFactory;
+import org.eclipse.tycho.targeteditor.model.NexusVersionCalculationResult;
+import org.eclipse.ui.IMemento;
+import org.eclipse.ui.WorkbenchException;
+import org.eclipse.ui.XMLMemento;
+
+/**
+ * Persists the content of the {@link RepositoryVersionCache} in the plug-in state location, so that
+ * version information is available immediately after a restart.
+ */
+class RepositoryVersionCacheStore {
+
+    static final class StoredEntry {
+        final Object key;
+        final NexusVersionCalculationResult result;
+        final long fetchTime;
+
+        StoredEntry(final Object key, final NexusVersionCalculationResult result, final long fetchTime) {
+            this.key = key;
+            this.result = result;
+            this.fetchTime = fetchTime;
+        }
+    }
+
+    private static final String FILE_NAME = "nexusVersionCache.xml";
+    private static final String TAG_CACHE = "nexusVersionCache";
+    private static final String TAG_ENTRY = "entry";
+    private static final String TAG_VERSIONING = "versioning";
+    private static final String TAG_LATEST = "latest";
+    private static final String TAG_RELEASE = "release";
+    private static final String TAG_VERSIONS = "versions";
+    private static final String TAG_VERSION = "version";
+    private static final String ATT_KEY = "key";
+    private static final String ATT_URI = "uri";
+    private static final String ATT_FETCH_TIME = "fetchTime";
+    private static final String ENCODING = "UTF-8";
+
+    private final File file;
+
+    RepositoryVersionCacheStore(final File file) {
+        this.file = file;
+    }
+
+    /**
+     * @return the store located in the plug-in state location or <code>null</code> if the plug-in
+     *         is not active
+     */
+    static RepositoryVersionCacheStore createDefault() {
+        final Activator activator = Activator.getDefault();
+        if (activator == null) {
+            return null;
+        }
+        return new RepositoryVersionCacheStore(activator.getStateLocation().append(FILE_NAME).toFile());
+    }
+
+    List<StoredEntry> load() {
+        final List<StoredEntry> result = new ArrayList<StoredEntry>();
+        if (!file.isFile()) {
+            return result;
+        }
+        try {
+            final Reader reader = new InputStreamReader(new FileInputStream(file), ENCODING);
+            try {
+                final XMLMemento root = XMLMemento.createReadRoot(reader);
+                for (final IMemento entryMemento : root.getChildren(TAG_ENTRY)) {
+                    final StoredEntry entry = readEntry(entryMemento);
+                    if (entry != null) {
+                        result.add(entry);
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (final IOException e) {
+            logWarning("Unable to read persisted Nexus version cache", e);
+        } catch (final WorkbenchException e) {
+            logWarning("Unable to parse persisted Nexus version cache", e);
+        }
+        return result;
+    }
+
+    /**
+     * Writes the entries to a temporary file which then replaces the store file, so that a crash
+     * while saving does not leave a truncated file behind.
+     */
+    synchronized void save(final List<StoredEntry> entries) {
+        final XMLMemento root = XMLMemento.createWriteRoot(TAG_CACHE);
+        for (final StoredEntry entry : entries) {
+            writeEntry(root.createChild(TAG_ENTRY), entry);
+        }
+        File tempFile = null;
+        try {
+            tempFile = File.createTempFile(file.getName(), ".tmp", file.getParentFile());
+            final Writer writer = new OutputStreamWriter(new FileOutputStream(tempFile), ENCODING);
+            try {
+                root.save(writer);
+            } finally {
+                writer.close();
+            }
+            // renaming onto an existing file fails on Windows
+            if (!tempFile.renameTo(file) && !(file.delete() && tempFile.renameTo(file))) {
+                throw new IOException("Unable to rename " + tempFile + " to " + file);
+            }
+        } catch (final IOException e) {
+            logWarning("Unable to persist Nexus version cache", e);
+        } finally {
+            if (tempFile != null && tempFile.exists()) {
+                tempFile.delete();
+            }
+        }
+    }
+
+    synchronized void delete() {
+        if (file.exists() && !file.delete()) {
+            logWarning("Unable to delete persisted Nexus version cache " + file, null);
+        }
+    }
+
+    private StoredEntry readEntry(final IMemento entryMemento) {
+        final String key = entryMemento.getString(ATT_KEY);
+        final String uri = entryMemento.getString(ATT_URI);
+        final String fetchTime = entryMemento.getString(ATT_FETCH_TIME);
+        if (key == null || uri == null || fetchTime == null) {
+            return null;
+        }
+        final INexusRepository repository;
+        try {
+            repository = LDIModelFactory.createNexusRepository(new URI(uri));
+        } catch (final URISyntaxException e) {
+            return null;
+        }
+        if (repository == null) {
+            return null;
+        }
+        final INexusVersionInfo versionInfo = readVersionInfo(entryMemento);
+        if (versionInfo == null) {
+            return null;
+        }
+        final NexusVersionCalculationResult result = new NexusVersionCalculationResult(repository, versionInfo,
+                Status.OK_STATUS);
+        try {
+            return new StoredEntry(key, result, Long.parseLong(fetchTime));
+        } catch (final NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private INexusVersionInfo readVersionInfo(final IMemento entryMemento) {
+        final IMemento versioning = entryMemento.getChild(TAG_VERSIONING);
+        if (versioning == null || versioning.getChild(TAG_LATEST) == null || versioning.getChild(TAG_VERSIONS) == null) {
+            return null;
+        }
+        final IMemento release = versioning.getChild(TAG_RELEASE);
+        final List<String> versions = new ArrayList<String>();
+        for (final IMemento version : versioning.getChild(TAG_VERSIONS).getChildren(TAG_VERSION)) {
+            versions.add(version.getTextData());
+        }
+        return LDIModelFactory.createNexusVersionInfo(versioning.getChild(TAG_LATEST).getTextData(),
+                release != null ? release.getTextData() : null, versions);
+    }
+
+    private void writeEntry(final IMemento entryMemento, final StoredEntry entry) {
+        final INexusVersionInfo versionInfo = entry.result.getVersionInfo();
+        entryMemento.putString(ATT_KEY, entry.key.toString());
+        entryMemento.putString(ATT_URI, entry.result.getRepository().getURI().toString());
+        entryMemento.putString(ATT_FETCH_TIME, Long.toString(entry.fetchTime));
+        final IMemento versioning = entryMemento.createChild(TAG_VERSIONING);
+        versioning.createChild(TAG_LATEST).putTextData(versionInfo.getLatestVersion());
+        if (versionInfo.getLatestReleaseVersion() != null) {
+            versioning.createChild(TAG_RELEASE).putTextData(versionInfo.getLatestReleaseVersion());
+        }
+        final IMemento versions = versioning.createChild(TAG_VERSIONS);
+        for (final String version : versionInfo.getVersions()) {
+            versions.createChild(TAG_VERSION).putTextData(version);
+        }
+    }
+
+    private static void logWarning(final String message, final Exception e) {
+        final Activator activator = Activator.getDefault();
+        if (activator != null) {
+            activator.getLog().log(new Status(IStatus.WARNING, Activator.PLUGIN_ID, message, e));
+        }
+    }
+}
@@ -11,23 +11,32 @@
 package org.eclipse.tycho.targeteditor;
 
 import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.WeakHashMap;
 
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.IJobChangeEvent;
+import org.eclipse.core.runtime.jobs.IJobChangeListener;
 import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.JobChangeAdapter;
 import org.eclipse.jface.action.Action;
 import org.eclipse.jface.action.ActionContributionItem;
 import org.eclipse.jface.action.IContributionItem;
 import org.eclipse.jface.dialogs.IMessageProvider;
 import org.eclipse.pde.internal.ui.PDEPluginImages;
-import org.eclipse.swt.widgets.Display;
+import org.eclipse.tycho.targeteditor.preferences.PreferenceConstants;
 import org.eclipse.ui.IWorkbenchPage;
 import org.eclipse.ui.PartInitException;
 import org.eclipse.ui.PlatformUI;
@@ -45,7 +54,13 @@ import org.eclipse.ui.forms.IManagedForm;
 class ShowResolutionProblemAction extends Action {
     static final String TOOL_TIP_TEXT = "Show resolution problem details";
     static final String CONSOLE_NAME = "Target definition resolution problems";
+    /** family of the jobs writing the problems to the console */
+    static final Object CONSOLE_JOB_FAMILY = new Object();
+    /** the job which wrote to the console last; only accessed in the UI thread */
+    private static Job lastConsoleJob;
     private final LDITargetDefinitionProvider targetDefinitionProvider;
+    /** the status last written with truncated stack traces */
+    private volatile IStatus truncatedStatus;
 
     ShowResolutionProblemAction(final LDITargetDefinitionProvider targetDefinitionProvider) {
         this.targetDefinitionProvider = targetDefinitionProvider;
@@ -61,22 +76,140 @@ class ShowResolutionProblemAction extends Action {
     public void run() {
         final IStatus resolutionStatus = targetDefinitionProvider.getLDITargetDefinition().getResolutionStatus();
         final MessageConsole problemConsole = getResolutionProblemConsole();
-        writeStatusToConsole(resolutionStatus, problemConsole);
         showConsole(problemConsole);
+        // show the complete stack traces if the details of the same status are requested again
+        final int maxStackFrames = resolutionStatus != null && resolutionStatus == truncatedStatus
+                ? ResolutionStatusFormatter.ALL_STACK_FRAMES : getMaxStackFrames();
+        // the console is shared, so the output of the previous job is stopped before writing again
+        final Job previousJob = lastConsoleJob;
+        if (previousJob != null) {
+            previousJob.cancel();
+        }
+        lastConsoleJob = new WriteStatusToConsoleJob(resolutionStatus, problemConsole, maxStackFrames, previousJob);
+        lastConsoleJob.schedule();
     }
 
-    private static void writeStatusToConsole(final IStatus resolutionStatus, final MessageConsole problemConsole) {
-        final MessageConsoleStream messageConsoleStream = problemConsole.newMessageStream();
-        try {
-            messageConsoleStream.println(ResolutionStatusFormatter.format(resolutionStatus));
-        } finally {
+    private static int getMaxStackFrames() {
+        final int maxStackFrames = Activator.getDefault().getPreferenceStore()
+                .getInt(PreferenceConstants.P_MAX_STACK_FRAMES);
+        return maxStackFrames > 0 ? maxStackFrames : PreferenceConstants.DEFAULT_MAX_STACK_FRAMES;
+    }
+
+    /**
+     * Writes the formatted status to the console while it is formatted, so that the output of huge
+     * states starts to show up immediately and is never kept completely in memory.
+     */
+    private final class WriteStatusToConsoleJob extends Job {
+        private final IStatus resolutionStatus;
+        private final MessageConsole problemConsole;
+        private final int maxStackFrames;
+        private Job previousJob;
+
+        /**
+         * @param previousJob
+         *            the cancelled job which wrote to the console before, which is waited for, or
+         *            <code>null</code>
+         */
+        WriteStatusToConsoleJob(final IStatus resolutionStatus, final MessageConsole problemConsole,
+                final int maxStackFrames, final Job previousJob) {
+            super("Writing resolution problems");
+            this.resolutionStatus = resolutionStatus;
+            this.problemConsole = problemConsole;
+            this.maxStackFrames = maxStackFrames;
+            this.previousJob = previousJob;
+            setSystem(true);
+        }
+
+        @Override
+        public boolean belongsTo(final Object family) {
+            return family == CONSOLE_JOB_FAMILY;
+        }
+
+        @Override
+        protected IStatus run(final IProgressMonitor monitor) {
+            if (previousJob != null) {
+                try {
+                    previousJob.join();
+                    // do not keep the chain of previous jobs alive
+                    previousJob = null;
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return Status.CANCEL_STATUS;
+                }
+            }
+            if (monitor.isCanceled()) {
+                return Status.CANCEL_STATUS;
+            }
+            final MessageConsoleStream messageConsoleStream = problemConsole.newMessageStream();
+            final ConsoleWriter writer = new ConsoleWriter(messageConsoleStream, monitor);
             try {
-                messageConsoleStream.close();
+                final boolean truncated = ResolutionStatusFormatter.format(resolutionStatus, writer, maxStackFrames);
+                writer.write("\n");
+                if (truncated) {
+                    writer.write("Stack traces are limited to " + maxStackFrames
+                            + " frames. Show the resolution problem details again to see the complete stack traces.\n");
+                }
+                writer.flush();
+                truncatedStatus = truncated ? resolutionStatus : null;
+                return Status.OK_STATUS;
             } catch (final IOException e) {
-                Activator.getDefault().getLog()
-                        .log(new Status(IStatus.WARNING, Activator.PLUGIN_ID, "Unable to close console stream", e));
+                return new Status(IStatus.WARNING, Activator.PLUGIN_ID, "Unable to write to console", e);
+            } finally {
+                try {
+                    messageConsoleStream.close();
+                } catch (final IOException e) {
+                    Activator.getDefault().getLog()
+                            .log(new Status(IStatus.WARNING, Activator.PLUGIN_ID, "Unable to close console stream", e));
+                }
+            }
+        }
+    }
+
+    /**
+     * Passes the written text in chunks to the console stream.
+     */
+    private static final class ConsoleWriter extends Writer {
+        private static final int CHUNK_SIZE = 8192;
+        private final MessageConsoleStream stream;
+        private final IProgressMonitor monitor;
+        private final StringBuilder buffer = new StringBuilder(CHUNK_SIZE);
+
+        ConsoleWriter(final MessageConsoleStream stream, final IProgressMonitor monitor) {
+            this.stream = stream;
+            this.monitor = monitor;
+        }
+
+        @Override
+        public void write(final char[] cbuf, final int off, final int len) {
+            buffer.append(cbuf, off, len);
+            if (buffer.length() >= CHUNK_SIZE) {
+                flush();
             }
         }
+
+        @Override
+        public void write(final String str) {
+            buffer.append(str);
+            if (buffer.length() >= CHUNK_SIZE) {
+                flush();
+            }
+        }
+
+        @Override
+        public void flush() {
+            if (monitor.isCanceled()) {
+                throw new OperationCanceledException();
+            }
+            if (buffer.length() > 0) {
+                stream.print(buffer.toString());
+                buffer.setLength(0);
+            }
+        }
+
+        @Override
+        public void close() {
+            flush();
+        }
     }
 
     private static void showConsole(final MessageConsole problemConsole) {
@@ -121,15 +254,41 @@ class ShowResolutionProblemAction extends Action {
         managedForm.addPart(lifecyclePart);
     }
 
+    /**
+     * Updates the message and the tool bar of the form whenever a resolve job of the target starts
+     * or ends and whenever the form is refreshed, e.g. on model changes. Nothing is done while no
+     * resolution takes place.
+     */
     private static final class ResolutionProblemActionLifecyclePart extends AbstractFormPart {
-        private static final int RESOLUTION_STATUS_POLL_TIMER_PERIOD = 500;
         private static final String MSG_RESOLVING_TARGET_DEFINITION = "Resolving target definition...";
         private final LDITargetDefinitionProvider targetDefinitionProvider;
         private final IManagedForm managedForm;
         private final ActionContributionItem showProblemDetailsActionContributionItem;
         private final ShowResolutionProblemAction showProblemDetailsAction;
-        private final Timer refreshTimer;
         private final Object resolveJobFamily;
+        private final Set<Job> runningResolveJobs = new HashSet<Job>();
+        private final RefreshScheduler refreshScheduler;
+        private final IJobChangeListener resolveJobListener = new JobChangeAdapter() {
+            @Override
+            public void running(final IJobChangeEvent event) {
+                if (event.getJob().belongsTo(resolveJobFamily)) {
+                    synchronized (runningResolveJobs) {
+                        runningResolveJobs.add(event.getJob());
+                    }
+                    refreshScheduler.schedule();
+                }
+            }
+
+            @Override
+            public void done(final IJobChangeEvent event) {
+                if (event.getJob().belongsTo(resolveJobFamily)) {
+                    synchronized (runningResolveJobs) {
+                        runningResolveJobs.remove(event.getJob());
+                    }
+                    refreshScheduler.schedule();
+                }
+            }
+        };
 
         private String currentMessage;
 
@@ -142,18 +301,25 @@ class ShowResolutionProblemAction extends Action {
             this.showProblemDetailsAction = showProblemDetailsAction;
             this.resolveJobFamily = resolveJobFamily;
 
-            this.refreshTimer = new Timer("TargetResolutionRefreshTimer", true);
-            refreshTimer.schedule(new TimerTask() {
+            this.refreshScheduler = new RefreshScheduler(managedForm.getForm().getDisplay(),
+                    RefreshScheduler.DEFAULT_INTERVAL) {
                 @Override
-                public void run() {
-                    Display.getDefault().asyncExec(new Runnable() {
-                        @Override
-                        public void run() {
-                            ResolutionProblemActionLifecyclePart.this.refresh();
-                        }
-                    });
+                protected void refresh() {
+                    if (!ResolutionProblemActionLifecyclePart.this.managedForm.getForm().isDisposed()) {
+                        ResolutionProblemActionLifecyclePart.this.refresh();
+                    }
                 }
-            }, RESOLUTION_STATUS_POLL_TIMER_PERIOD, RESOLUTION_STATUS_POLL_TIMER_PERIOD);
+            };
+            Job.getJobManager().addJobChangeListener(resolveJobListener);
+            // resolve jobs which started before the listener was added
+            for (final Job job : Job.getJobManager().find(resolveJobFamily)) {
+                if (job.getState() == Job.RUNNING) {
+                    synchronized (runningResolveJobs) {
+                        runningResolveJobs.add(job);
+                    }
+                }
+            }
+            refreshScheduler.schedule();
         }
 
         @Override
@@ -219,15 +385,15 @@ class ShowResolutionProblemAction extends Action {
         }
 
         private boolean isCurrentlyResolving() {
-            final Job[] resolveJobs = Job.getJobManager().find(resolveJobFamily);
-            if (resolveJobs != null) {
-                for (int i = 0; i < resolveJobs.length; i++) {
-                    if (resolveJobs[i].getState() == Job.RUNNING) {
-                        return true;
+            synchronized (runningResolveJobs) {
+                // a job found by the constructor may have finished before the listener saw it
+                for (final Iterator<Job> jobs = runningResolveJobs.iterator(); jobs.hasNext();) {
+                    if (jobs.next().getState() != Job.RUNNING) {
+                        jobs.remove();
                     }
                 }
+                return !runningResolveJobs.isEmpty();
             }
-            return false;
         }
 
         @Override
@@ -237,107 +403,217 @@ class ShowResolutionProblemAction extends Action {
 
         @Override
         public void dispose() {
-            refreshTimer.cancel();
+            Job.getJobManager().removeJobChangeListener(resolveJobListener);
         }
     }
 
+    /**
+     * Formats resolution states for the user. Children with the same message and the same
+     * (recursively de-duplicated) children are only shown once.
+     * <p>
+     * Duplicates are detected by assigning each distinct subtree an id bottom-up in a single pass,
+     * so that large problem reports of failed resolutions are formatted in linear time. The
+     * de-duplicated trees are kept as long as their status is referenced, as the same status is
+     * usually formatted repeatedly; resolution states are not modified after the resolution.
+     */
     static final class ResolutionStatusFormatter {
         static final String MSG_UNRESOLVED = "Unresolved";
+        static final int ALL_STACK_FRAMES = Integer.MAX_VALUE;
         private static final String NEW_LINE = "\n";
 
-        static String getShortMsgText(final IStatus resolutionStatus) {
+        /** weak keys compared by identity, as statuses do not implement equals */
+        private static final Map<IStatus, StatusNode> trees = new WeakHashMap<IStatus, StatusNode>();
+
+        static synchronized String getShortMsgText(final IStatus resolutionStatus) {
+            if (resolutionStatus == null) {
+                return MSG_UNRESOLVED;
+            }
+            final StatusNode tree = getTree(resolutionStatus);
             String result = MSG_UNRESOLVED;
-            if (resolutionStatus != null) {
-                final List<IStatus> children = removeDuplicates(resolutionStatus.getChildren());
-                if (children.size() > 0) {
-                    result = children.get(0).getMessage();
-                    if (children.size() > 1) {
-                        result = "[" + children.size() + " problems] " + result;
-                    }
+            if (tree.children.size() > 0) {
+                result = tree.children.get(0).message;
+                if (tree.children.size() > 1) {
+                    result = "[" + tree.children.size() + " problems] " + result;
                 }
             }
             return result;
         }
 
         static String format(final IStatus resolutionStatus) {
-            final StringBuilder sb = new StringBuilder();
-            if (resolutionStatus != null) {
-                formatTargetResolutionStatusMessage(resolutionStatus, sb, 0);
-                sb.append(NEW_LINE);
-                formatTargetResolutionStatusExceptions(resolutionStatus, sb);
-            } else {
-                sb.append(MSG_UNRESOLVED);
-                sb.append(NEW_LINE);
+            if (resolutionStatus == null) {
+                return MSG_UNRESOLVED + NEW_LINE;
             }
-            return sb.toString();
+            final StringWriter result = new StringWriter();
+            try {
+                format(resolutionStatus, result, ALL_STACK_FRAMES);
+            } catch (final IOException e) {
+                // not thrown by StringWriter
+                throw new IllegalStateException(e);
+            }
+            return result.toString();
         }
 
-        private static void formatTargetResolutionStatusMessage(final IStatus resolutionStatus, final StringBuilder sb,
-                final int indent) {
-            final char[] indentChars = new char[indent];
-            Arrays.fill(indentChars, ' ');
-            sb.append(indentChars);
-            sb.append(resolutionStatus.getMessage());
-            if (resolutionStatus.isMultiStatus()) {
-                final List<IStatus> children = removeDuplicates(resolutionStatus.getChildren());
-                for (final IStatus iStatus : children) {
-                    sb.append(NEW_LINE);
-                    formatTargetResolutionStatusMessage(iStatus, sb, indent + 2);
-                }
+        /**
+         * Writes the formatted status to the given writer.
+         *
+         * @param maxStackFrames
+         *            maximum number of stack frames written per exception
+         * @return <code>true</code> if stack frames have been omitted
+         */
+        static boolean format(final IStatus resolutionStatus, final Writer out, final int maxStackFrames)
+                throws IOException {
+            if (resolutionStatus == null) {
+                out.write(MSG_UNRESOLVED);
+                out.write(NEW_LINE);
+                return false;
+            }
+            final StatusNode tree;
+            synchronized (ResolutionStatusFormatter.class) {
+                tree = getTree(resolutionStatus);
+            }
+            formatTargetResolutionStatusMessage(tree, out, 0);
+            out.write(NEW_LINE);
+            return formatTargetResolutionStatusExceptions(resolutionStatus, out, maxStackFrames);
+        }
+
+        private static StatusNode getTree(final IStatus resolutionStatus) {
+            StatusNode tree = trees.get(resolutionStatus);
+            if (tree == null) {
+                tree = new StatusTreeBuilder().build(resolutionStatus);
+                trees.put(resolutionStatus, tree);
+            }
+            return tree;
+        }
+
+        private static void formatTargetResolutionStatusMessage(final StatusNode node, final Writer out,
+                final int indent) throws IOException {
+            for (int i = 0; i < indent; i++) {
+                out.write(' ');
+            }
+            out.write(String.valueOf(node.message));
+            for (final StatusNode child : node.children) {
+                out.write(NEW_LINE);
+                formatTargetResolutionStatusMessage(child, out, indent + 2);
             }
         }
 
-        private static void formatTargetResolutionStatusExceptions(final IStatus resolutionStatus,
-                final StringBuilder sb) {
+        private static boolean formatTargetResolutionStatusExceptions(final IStatus resolutionStatus,
+                final Writer out, final int maxStackFrames) throws IOException {
+            boolean truncated = false;
             final Throwable exception = resolutionStatus.getException();
             if (exception != null) {
-                sb.append(NEW_LINE);
-                sb.append("Status containing exception:");
-                sb.append(NEW_LINE);
-                sb.append(resolutionStatus.getMessage());
-                sb.append(NEW_LINE);
-                sb.append("Contained exception");
-                sb.append(NEW_LINE);
-                dumpException(exception, sb);
+                out.write(NEW_LINE);
+                out.write("Status containing exception:");
+                out.write(NEW_LINE);
+                out.write(String.valueOf(resolutionStatus.getMessage()));
+                out.write(NEW_LINE);
+                out.write("Contained exception");
+                out.write(NEW_LINE);
+                truncated = dumpException(exception, out, maxStackFrames);
             }
             if (resolutionStatus.isMultiStatus()) {
                 for (final IStatus iStatus : resolutionStatus.getChildren()) {
-                    formatTargetResolutionStatusExceptions(iStatus, sb);
+                    truncated |= formatTargetResolutionStatusExceptions(iStatus, out, maxStackFrames);
                 }
             }
+            return truncated;
         }
 
-        private static void dumpException(final Throwable exception, final StringBuilder sb) {
-            sb.append(exception.toString());
-            sb.append(NEW_LINE);
+        private static boolean dumpException(final Throwable exception, final Writer out, final int maxStackFrames)
+                throws IOException {
+            out.write(exception.toString());
+            out.write(NEW_LINE);
             final StackTraceElement[] stackTrace = exception.getStackTrace();
-            for (final StackTraceElement stackTraceElement : stackTrace) {
-                sb.append(" at ");
-                sb.append(stackTraceElement.toString());
-                sb.append(NEW_LINE);
+            final int shownFrames = Math.min(stackTrace.length, maxStackFrames);
+            for (int i = 0; i < shownFrames; i++) {
+                out.write(" at ");
+                out.write(stackTrace[i].toString());
+                out.write(NEW_LINE);
+            }
+            boolean truncated = false;
+            if (shownFrames < stackTrace.length) {
+                out.write(" ... " + (stackTrace.length - shownFrames) + " more");
+                out.write(NEW_LINE);
+                truncated = true;
             }
             final Throwable cause = exception.getCause();
             if (cause != null) {
-                sb.append("Caused by ");
-                dumpException(cause, sb);
+                out.write("Caused by ");
+                truncated |= dumpException(cause, out, maxStackFrames);
             }
+            return truncated;
         }
 
-        private static List<IStatus> removeDuplicates(final IStatus[] children) {
-            final List<IStatus> result = new ArrayList<IStatus>();
-            final Set<String> compareSet = new HashSet<String>();
-            if (children != null) {
-                for (int i = 0; i < children.length; i++) {
-                    final IStatus status = children[i];
-                    final StringBuilder sb = new StringBuilder();
-                    formatTargetResolutionStatusMessage(status, sb, 0);
-                    final String compareKey = sb.toString();
-                    if (compareSet.add(compareKey)) {
-                        result.add(status);
+        /**
+         * The message of a status with its distinct children. Nodes with equal ids have the same
+         * message and the same distinct children. The status itself is not referenced, so that the
+         * cached trees do not keep their statuses alive.
+         */
+        private static final class StatusNode {
+            final String message;
+            final List<StatusNode> children;
+            final int id;
+
+            StatusNode(final String message, final List<StatusNode> children, final int id) {
+                this.message = message;
+                this.children = children;
+                this.id = id;
+            }
+        }
+
+        private static final class StructureKey {
+            private final String message;
+            private final int[] childIds;
+            private final int hash;
+
+            StructureKey(final String message, final int[] childIds) {
+                this.message = message;
+                this.childIds = childIds;
+                this.hash = 31 * message.hashCode() + Arrays.hashCode(childIds);
+            }
+
+            @Override
+            public int hashCode() {
+                return hash;
+            }
+
+            @Override
+            public boolean equals(final Object obj) {
+                if (!(obj instanceof StructureKey)) {
+                    return false;
+                }
+                final StructureKey other = (StructureKey) obj;
+                return hash == other.hash && message.equals(other.message) && Arrays.equals(childIds, other.childIds);
+            }
+        }
+
+        private static final class StatusTreeBuilder {
+            private final Map<StructureKey, Integer> ids = new HashMap<StructureKey, Integer>();
+
+            StatusNode build(final IStatus status) {
+                final List<StatusNode> distinctChildren = new ArrayList<StatusNode>();
+                final IStatus[] children = status.getChildren();
+                if (children != null && children.length > 0) {
+                    final Set<Integer> childIds = new HashSet<Integer>();
+                    for (final IStatus child : children) {
+                        final StatusNode childNode = build(child);
+                        if (childIds.add(childNode.id)) {
+                            distinctChildren.add(childNode);
+                        }
                     }
                 }
+                final int[] childIds = new int[distinctChildren.size()];
+                for (int i = 0; i < childIds.length; i++) {
+                    childIds[i] = distinctChildren.get(i).id;
+                }
+                final StructureKey key = new StructureKey(String.valueOf(status.getMessage()), childIds);
+                Integer id = ids.get(key);
+                if (id == null) {
+                    id = ids.size();
+                    ids.put(key, id);
+                }
+                return new StatusNode(status.getMessage(), distinctChildren, id);
             }
-            return result;
         }
     }
 }
@@ -16,8 +16,9 @@ import org.eclipse.jface.action.IContributionItem;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Control;
-import org.eclipse.tycho.targeteditor.model.IMutableVersionedId;
 import org.eclipse.tycho.targeteditor.model.ILDIRepositoryLocation;
+import org.eclipse.tycho.targeteditor.model.ILDITargetDefintion;
+import org.eclipse.tycho.targeteditor.model.IMutableVersionedId;
 import org.eclipse.ui.forms.AbstractFormPart;
 import org.eclipse.ui.forms.IManagedForm;
 import org.eclipse.ui.forms.events.HyperlinkEvent;
@@ -48,13 +49,18 @@ class UpdateIUVersionAction {
     }
 
     void updateVersionsToUnspecified() {
-        for (final ILDIRepositoryLocation repoLocation : targetDefinitionProvider.getLDITargetDefinition()
-                .getRepositoryLocations()) {
-            for (final IMutableVersionedId version : repoLocation.getUnits()) {
-                if (!UNSPECIFIED_VERSION.equals(version.getVersion().toString())) {
-                    version.setVersion(Version.create(UNSPECIFIED_VERSION));
+        final ILDITargetDefintion targetDefinition = targetDefinitionProvider.getLDITargetDefinition();
+        targetDefinition.beginChange();
+        try {
+            for (final ILDIRepositoryLocation repoLocation : targetDefinition.getRepositoryLocations()) {
+                for (final IMutableVersionedId version : repoLocation.getUnits()) {
+                    if (!UNSPECIFIED_VERSION.equals(version.getVersion().toString())) {
+                        version.setVersion(Version.create(UNSPECIFIED_VERSION));
+                    }
                 }
             }
+        } finally {
+            targetDefinition.commitChange();
         }
     }
 
@@ -91,8 +91,7 @@ public class UpdateRepositoryVersionForm extends AbstractFormPart implements IPa
             final NexusVersionCalculationResult allAvailableVersions = RepositoryVersionCache.getInstance()
                     .getAllAvailableVersions(repository);
             if (allAvailableVersions != null && allAvailableVersions.getStatus().isOK()) {
-                repository.setVersion(allAvailableVersions.getVersionInfo().getLatestReleaseVersion());
-                LDIModelFactory.adjustRepositoryName(repository);
+                LDIModelFactory.updateToLatestRelease(repository, allAvailableVersions.getVersionInfo());
             }
         }
     }
@@ -102,15 +101,9 @@ public class UpdateRepositoryVersionForm extends AbstractFormPart implements IPa
         for (final INexusRepository repository : currentSelectedNexusRepos) {
             final NexusVersionCalculationResult allAvailableVersions = RepositoryVersionCache.getInstance()
                     .getAllAvailableVersions(repository);
-            if (allAvailableVersions != null && allAvailableVersions.getStatus().isOK()) {
-                final String latestReleaseVersion = allAvailableVersions.getVersionInfo().getLatestReleaseVersion();
-                final boolean usesLatestReleasedVersion = latestReleaseVersion == null
-                        || latestReleaseVersion.equals(repository.getVersion());
-                final boolean usesLatestVersion = allAvailableVersions.getVersionInfo().getLatestVersion()
-                        .equals(repository.getVersion());
-                if (!(usesLatestReleasedVersion || usesLatestVersion)) {
-                    result.add(repository);
-                }
+            if (allAvailableVersions != null && allAvailableVersions.getStatus().isOK()
+                    && LDIModelFactory.isReleaseUpdatable(repository, allAvailableVersions.getVersionInfo())) {
+                result.add(repository);
             }
         }
         return result;
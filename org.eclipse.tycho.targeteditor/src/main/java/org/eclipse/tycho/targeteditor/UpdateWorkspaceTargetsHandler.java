@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) 2011, 2014 SAP AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    SAP AG - initial API and implementation
+ */
+package org.eclipse.tycho.targeteditor;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.eclipse.core.commands.AbstractHandler;
+import org.eclipse.core.commands.ExecutionEvent;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.jobs.IJobChangeEvent;
+import org.eclipse.core.runtime.jobs.JobChangeAdapter;
+import org.eclipse.jface.dialogs.MessageDialog;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.tycho.targeteditor.updater.TargetUpdateResult;
+import org.eclipse.tycho.targeteditor.updater.WorkspaceTargetUpdateJob;
+import org.eclipse.ui.IEditorPart;
+import org.eclipse.ui.IWorkbenchPage;
+import org.eclipse.ui.IWorkbenchWindow;
+import org.eclipse.ui.handlers.HandlerUtil;
+import org.eclipse.ui.ide.ResourceUtil;
+
+/**
+ * Updates all target definitions of the workspace to the latest releases and shows how many files
+ * were changed. Problems are reported by the job. Files with unsaved changes in an editor are not
+ * rewritten underneath the editor.
+ */
+public class UpdateWorkspaceTargetsHandler extends AbstractHandler {
+
+    @Override
+    public Object execute(final ExecutionEvent event) {
+        final Shell shell = HandlerUtil.getActiveShell(event);
+        final WorkspaceTargetUpdateJob job = new WorkspaceTargetUpdateJob(getUnsavedFiles(event));
+        job.addJobChangeListener(new JobChangeAdapter() {
+            @Override
+            public void done(final IJobChangeEvent jobEvent) {
+                if (jobEvent.getResult().getSeverity() == IStatus.CANCEL || shell == null) {
+                    return;
+                }
+                showSummary(shell, job);
+            }
+        });
+        job.schedule();
+        return null;
+    }
+
+    private static Set<IFile> getUnsavedFiles(final ExecutionEvent event) {
+        final Set<IFile> unsavedFiles = new HashSet<IFile>();
+        final IWorkbenchWindow activeWindow = HandlerUtil.getActiveWorkbenchWindow(event);
+        if (activeWindow == null) {
+            return unsavedFiles;
+        }
+        for (final IWorkbenchWindow window : activeWindow.getWorkbench().getWorkbenchWindows()) {
+            for (final IWorkbenchPage page : window.getPages()) {
+                for (final IEditorPart editor : page.getDirtyEditors()) {
+                    final IFile file = ResourceUtil.getFile(editor.getEditorInput());
+                    if (file != null) {
+                        unsavedFiles.add(file);
+                    }
+                }
+            }
+        }
+        return unsavedFiles;
+    }
+
+    private static void showSummary(final Shell shell, final WorkspaceTargetUpdateJob job) {
+        int changedFiles = 0;
+        for (final TargetUpdateResult result : job.getResults()) {
+            if (result.isChanged()) {
+                changedFiles++;
+            }
+        }
+        final String message = changedFiles + " of " + job.getResults().size()
+                + " target definitions were updated to the latest releases.";
+        final Display display = shell.getDisplay();
+        if (display.isDisposed()) {
+            return;
+        }
+        display.asyncExec(new Runnable() {
+            @Override
+            public void run() {
+                if (!shell.isDisposed()) {
+                    MessageDialog.openInformation(shell, job.getName(), message);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,91 @@
+/**
+ * Copyright (c) 2011, 2014 SAP AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    SAP AG - initial API and implementation
+ */
+package org.eclipse.tycho.targeteditor;
+
+import org.eclipse.jface.preference.IPreferenceStore;
+import org.eclipse.tycho.targeteditor.model.NexusVersionCalculationResult;
+import org.eclipse.tycho.targeteditor.preferences.PreferenceConstants;
+
+/**
+ * Expiration and size settings of the {@link RepositoryVersionCache}.
+ * <p>
+ * Artifacts whose latest version is a snapshot are under active development and expire after the
+ * snapshot time-to-live; all other artifacts expire after the (usually longer) release
+ * time-to-live. Entries which are used after {@link #REFRESH_AHEAD_FACTOR} of their time-to-live
+ * are refreshed in the background before they expire.
+ */
+class VersionCachePolicy {
+
+    static final double REFRESH_AHEAD_FACTOR = 0.8;
+    private static final long MINUTE = 60 * 1000L;
+    private static final String SNAPSHOT_SUFFIX = "-SNAPSHOT";
+
+    private final long snapshotTimeToLive;
+    private final long releaseTimeToLive;
+    private final int maxEntries;
+
+    /**
+     * @param snapshotTimeToLive
+     *            in milliseconds
+     * @param releaseTimeToLive
+     *            in milliseconds
+     * @param maxEntries
+     *            maximum number of cached artifacts
+     */
+    VersionCachePolicy(final long snapshotTimeToLive, final long releaseTimeToLive, final int maxEntries) {
+        if (snapshotTimeToLive <= 0 || releaseTimeToLive <= 0 || maxEntries < 1) {
+            throw new IllegalArgumentException("Time-to-live and maximum number of entries must be positive");
+        }
+        this.snapshotTimeToLive = snapshotTimeToLive;
+        this.releaseTimeToLive = releaseTimeToLive;
+        this.maxEntries = maxEntries;
+    }
+
+    static VersionCachePolicy fromPreferences(final IPreferenceStore store) {
+        return new VersionCachePolicy(Math.max(1, store.getInt(PreferenceConstants.P_SNAPSHOT_VERSIONS_TTL)) * MINUTE,
+                Math.max(1, store.getInt(PreferenceConstants.P_RELEASE_VERSIONS_TTL)) * MINUTE, Math.max(1,
+                        store.getInt(PreferenceConstants.P_VERSION_CACHE_MAX_ENTRIES)));
+    }
+
+    static VersionCachePolicy createDefault() {
+        final Activator activator = Activator.getDefault();
+        if (activator == null) {
+            return new VersionCachePolicy(PreferenceConstants.DEFAULT_SNAPSHOT_VERSIONS_TTL * MINUTE,
+                    PreferenceConstants.DEFAULT_RELEASE_VERSIONS_TTL * MINUTE,
+                    PreferenceConstants.DEFAULT_VERSION_CACHE_MAX_ENTRIES);
+        }
+        return fromPreferences(activator.getPreferenceStore());
+    }
+
+    int getMaxEntries() {
+        return maxEntries;
+    }
+
+    long getTimeToLive(final NexusVersionCalculationResult result) {
+        if (result.getVersionInfo() != null) {
+            final String latestVersion = result.getVersionInfo().getLatestVersion();
+            if (latestVersion != null && latestVersion.endsWith(SNAPSHOT_SUFFIX)) {
+                return snapshotTimeToLive;
+            }
+            return releaseTimeToLive;
+        }
+        // failed calculations are retried after the shorter period
+        return Math.min(snapshotTimeToLive, releaseTimeToLive);
+    }
+
+    boolean isExpired(final NexusVersionCalculationResult result, final long fetchTime, final long now) {
+        return now - fetchTime >= getTimeToLive(result);
+    }
+
+    boolean isRefreshAheadDue(final NexusVersionCalculationResult result, final long fetchTime, final long now) {
+        return now - fetchTime >= (long) (getTimeToLive(result) * REFRESH_AHEAD_FACTOR);
+    }
+}
@@ -13,7 +13,6 @@ package org.eclipse.tycho.targeteditor.dialogs;
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.net.URI;
-import java.util.List;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -30,7 +29,6 @@ import org.eclipse.jface.layout.GridDataFactory;
 import org.eclipse.jface.operation.IRunnableWithProgress;
 import org.eclipse.jface.window.Window;
 import org.eclipse.jface.wizard.WizardPage;
-import org.eclipse.pde.internal.core.target.P2TargetUtils;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.events.ModifyEvent;
 import org.eclipse.swt.events.ModifyListener;
@@ -39,6 +37,7 @@ import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Label;
 import org.eclipse.swt.widgets.Text;
 import org.eclipse.tycho.targeteditor.LDITargetDefinitionProvider;
+import org.eclipse.tycho.targeteditor.P2MetadataPrefetcher;
 import org.eclipse.tycho.targeteditor.model.ILDIRepositoryLocation;
 import org.eclipse.tycho.targeteditor.model.IMutableVersionedId;
 import org.eclipse.tycho.targeteditor.model.INexusRepository;
@@ -51,7 +50,6 @@ import org.eclipse.tycho.targeteditor.model.LDIModelFactory;
 import org.eclipse.tycho.targeteditor.xml.Repository;
 import org.eclipse.ui.PlatformUI;
 
-@SuppressWarnings("restriction")
 public final class AddRepositoryManuallyWizardPage extends WizardPage {
 
     static final String GROUP_ID_LABEL = "Group ID:";
@@ -251,21 +249,29 @@ public final class AddRepositoryManuallyWizardPage extends WizardPage {
                 repositoryData.getClassifier(), repositoryData.getExtension());
         final INexusRepositoryService service = LDIModelFactory.getNexusRepositoryService();
 
-        validateRepository(service, repository, ldiTargetDefinition);
+        // the p2 repository is loaded once for the validation and the units
+        final IInstallableUnit[] p2RepoIUs = validateRepository(service, repository, ldiTargetDefinition);
         // add a repository and all its IUs
-        final ILDIRepositoryLocation newRepoLocation = ldiTargetDefinition.addRepository(repository.getURI());
-        addAllUnits(newRepoLocation, repository.getURI());
+        ldiTargetDefinition.beginChange();
+        try {
+            final ILDIRepositoryLocation newRepoLocation = ldiTargetDefinition.addRepository(repository.getURI());
+            addAllUnits(newRepoLocation, p2RepoIUs);
+        } finally {
+            ldiTargetDefinition.commitChange();
+        }
 
     }
 
-    private void validateRepository(final INexusRepositoryService service, final INexusRepository repository,
-            final ILDITargetDefintion ldiTargetDefinition) throws IOException, ProvisionException,
-            OperationCanceledException, CoreException, Exception {
+    /**
+     * @return the installable units of the p2 repository
+     */
+    private IInstallableUnit[] validateRepository(final INexusRepositoryService service,
+            final INexusRepository repository, final ILDITargetDefintion ldiTargetDefinition) throws IOException,
+            ProvisionException, OperationCanceledException, CoreException, Exception {
 
         // Throws an IOException in case the repo can not be found on Nexus
         final INexusVersionInfo versionInfo = service.getVersionInfo(repository);
-        final List<String> versions = versionInfo.getVersions();
-        if (versions == null || !versions.contains(repository.getVersion())) {
+        if (!versionInfo.containsVersion(repository.getVersion())) {
             throw new IllegalStateException(ERROR_MSG_INVALID_VERSION);
         }
 
@@ -273,13 +279,18 @@ public final class AddRepositoryManuallyWizardPage extends WizardPage {
             throw new IllegalStateException(ERROR_MSG_DUPLICATE_REPO);
         }
 
-        if (!validateP2Repo(repository)) {
+        final IInstallableUnit[] p2RepoIUs = getP2RepoIUs(repository.getURI());
+        if (!isValidP2Repo(p2RepoIUs)) {
             throw new IllegalStateException(ERROR_MSG_INVALID_P2_REPO);
         }
+        return p2RepoIUs;
     }
 
     static boolean validateP2Repo(final IRepository repository) throws CoreException {
-        final IInstallableUnit[] p2RepoIUs = getP2RepoIUs(repository.getURI());
+        return isValidP2Repo(getP2RepoIUs(repository.getURI()));
+    }
+
+    private static boolean isValidP2Repo(final IInstallableUnit[] p2RepoIUs) {
         if (p2RepoIUs != null && p2RepoIUs.length == 0) {
             return false;
         }
@@ -287,27 +298,11 @@ public final class AddRepositoryManuallyWizardPage extends WizardPage {
     }
 
     private boolean isDuplicateRepository(final ILDITargetDefintion ldiTargetDefinition, final INexusRepository repoToAdd) {
-        final List<ILDIRepositoryLocation> repositoryLocations = ldiTargetDefinition.getRepositoryLocations();
-        INexusRepository nexusRepo = null;
-        for (final ILDIRepositoryLocation repoLoc : repositoryLocations) {
-            final List<IRepository> repos = repoLoc.getRepositories();
-            for (final IRepository iRepository : repos) {
-                if (iRepository instanceof INexusRepository) {
-                    nexusRepo = ((INexusRepository) iRepository);
-                    if (nexusRepo.getGroupId().equals(repoToAdd.getGroupId())
-                            && nexusRepo.getArtifactId().equals(repoToAdd.getArtifactId())) {
-                        return true;
-                    }
-                }
-            }
-
-        }
-        return false;
+        return !ldiTargetDefinition.findNexusRepositories(repoToAdd.getGroupId(), repoToAdd.getArtifactId())
+                .isEmpty();
     }
 
-    private void addAllUnits(final ILDIRepositoryLocation newRepoLocation, final URI uri) throws ProvisionException,
-            OperationCanceledException, CoreException {
-        final IInstallableUnit[] foundUnits = getP2RepoIUs(uri);
+    private void addAllUnits(final ILDIRepositoryLocation newRepoLocation, final IInstallableUnit[] foundUnits) {
         final IMutableVersionedId[] addedUnits = newRepoLocation.addUnits(foundUnits);
         for (final IMutableVersionedId mutableVersionedId : addedUnits) {
             mutableVersionedId.setVersion(Version.create("0.0.0"));
@@ -315,7 +310,7 @@ public final class AddRepositoryManuallyWizardPage extends WizardPage {
     }
 
     private static IInstallableUnit[] getP2RepoIUs(final URI uri) throws ProvisionException, CoreException {
-        final IMetadataRepository repo = P2TargetUtils.getRepoManager().loadRepository(uri, new NullProgressMonitor());
+        final IMetadataRepository repo = P2MetadataPrefetcher.getInstance().load(uri, new NullProgressMonitor());
         final IQuery<IInstallableUnit> groupQuery = QueryUtil.createIUGroupQuery();
         final IQuery<IInstallableUnit> latestGroupQuery = QueryUtil.createLatestQuery(groupQuery);
 
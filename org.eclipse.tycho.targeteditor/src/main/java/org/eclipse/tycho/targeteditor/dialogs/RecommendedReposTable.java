@@ -10,10 +10,17 @@
  */
 package org.eclipse.tycho.targeteditor.dialogs;
 
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.jface.layout.GridLayoutFactory;
 import org.eclipse.jface.util.IPropertyChangeListener;
 import org.eclipse.jface.util.PropertyChangeEvent;
 import org.eclipse.jface.viewers.IContentProvider;
+import org.eclipse.jface.viewers.IStructuredContentProvider;
 import org.eclipse.jface.viewers.IStructuredSelection;
 import org.eclipse.jface.viewers.StructuredSelection;
 import org.eclipse.jface.viewers.TableViewer;
@@ -22,6 +29,8 @@ import org.eclipse.jface.viewers.Viewer;
 import org.eclipse.jface.viewers.ViewerFilter;
 import org.eclipse.jface.wizard.IWizardPage;
 import org.eclipse.swt.SWT;
+import org.eclipse.swt.events.DisposeEvent;
+import org.eclipse.swt.events.DisposeListener;
 import org.eclipse.swt.layout.GridData;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Label;
@@ -29,6 +38,7 @@ import org.eclipse.swt.widgets.Table;
 import org.eclipse.swt.widgets.Text;
 import org.eclipse.tycho.targeteditor.HintBox;
 import org.eclipse.tycho.targeteditor.RepositoryTableComparator;
+import org.eclipse.tycho.targeteditor.jobs.FilterJob;
 import org.eclipse.tycho.targeteditor.xml.Repository;
 
 public class RecommendedReposTable {
@@ -38,6 +48,12 @@ public class RecommendedReposTable {
 
     private ViewerFilter filter;
     private TableViewer viewer;
+    private RecommendedRepositoriesLabelProvider labelProvider;
+    private FilterJob<Set<Object>> filterJob;
+    /** lower-cased filter texts of the elements of the input */
+    private volatile Map<Object, String> searchIndex = Collections.emptyMap();
+    /** elements matching the filter text, <code>null</code> if all elements match */
+    private Set<Object> matchingElements;
     private Table repositoryTable;
     private HintBox hintBox;
     private final IWizardPage parentWizardPage;
@@ -97,25 +113,47 @@ public class RecommendedReposTable {
         viewer.setContentProvider(tableContentProvider);
         viewer.setComparator(new RepositoryTableComparator());
 
+        this.labelProvider = labelProvider;
         filter = new ViewerFilter() {
 
             @Override
             public boolean select(final Viewer viewer, final Object parentElement, final Object element) {
-                final String elementText = labelProvider.getFilterText(element);
-                return elementText.toLowerCase().contains(hintBox.getTextValue().toLowerCase());
+                return matchingElements == null || matchingElements.contains(element);
             }
 
         };
         viewer.addFilter(filter);
-        hintBox.addListener(new IPropertyChangeListener() {
+        filterJob = new FilterJob<Set<Object>>("Filter recommended repositories", parent.getDisplay(),
+                FilterJob.DEFAULT_DELAY) {
+            @Override
+            protected Set<Object> match(final String filterText, final IProgressMonitor monitor) {
+                return findMatchingElements(searchIndex, filterText, monitor);
+            }
 
             @Override
-            public void propertyChange(PropertyChangeEvent event) {
+            protected void apply(final String filterText, final Set<Object> result) {
+                if (repositoryTable.isDisposed()) {
+                    return;
+                }
+                matchingElements = result;
                 viewer.refresh();
                 if (viewer.getSelection().isEmpty()) {
                     selectFirst();
                 }
             }
+        };
+        hintBox.addListener(new IPropertyChangeListener() {
+
+            @Override
+            public void propertyChange(PropertyChangeEvent event) {
+                filterJob.setFilterText(hintBox.getTextValue());
+            }
+        });
+        repositoryTable.addDisposeListener(new DisposeListener() {
+            @Override
+            public void widgetDisposed(final DisposeEvent e) {
+                filterJob.cancel();
+            }
         });
 
         viewer.addSelectionChangedListener(((AddRepositorySelectOptionWizardPage) parentWizardPage));
@@ -146,9 +184,41 @@ public class RecommendedReposTable {
     }
 
     public void setInput(final Object input) {
+        final Map<Object, String> newSearchIndex = new IdentityHashMap<Object, String>();
+        if (input != null) {
+            for (final Object element : ((IStructuredContentProvider) viewer.getContentProvider()).getElements(input)) {
+                newSearchIndex.put(element, labelProvider.getFilterText(element).toLowerCase());
+            }
+        }
+        searchIndex = newSearchIndex;
+        matchingElements = findMatchingElements(newSearchIndex, hintBox.getTextValue(), null);
+        // discards results of a running match for the previous input
+        filterJob.setFilterText(hintBox.getTextValue());
         viewer.setInput(input);
     }
 
+    /**
+     * @return the elements whose filter text contains the given text ignoring case,
+     *         <code>null</code> if all elements match or if the monitor was cancelled
+     */
+    private static Set<Object> findMatchingElements(final Map<Object, String> searchIndex, final String filterText,
+            final IProgressMonitor monitor) {
+        if (filterText.length() == 0) {
+            return null;
+        }
+        final String lowerCaseFilterText = filterText.toLowerCase();
+        final Set<Object> result = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+        for (final Map.Entry<Object, String> entry : searchIndex.entrySet()) {
+            if (monitor != null && monitor.isCanceled()) {
+                return null;
+            }
+            if (entry.getValue().contains(lowerCaseFilterText)) {
+                result.add(entry.getKey());
+            }
+        }
+        return result;
+    }
+
     public void selectFirst() {
         final Object firstElement = viewer.getElementAt(0);
         if (firstElement != null) {
@@ -110,8 +110,13 @@ public class RemoveRepositoryForm extends AbstractFormPart implements IPartSelec
         }
         touchedRepositories.removeAll(selectedRepositories);
         if (touchedRepositories.isEmpty() || confirmDeleteRepositories(touchedRepositories)) {
-            for (final ILDIRepositoryLocation locationToBeRemoved : involvedLocations) {
-                ldiTargetDefinition.removeLocation(locationToBeRemoved);
+            ldiTargetDefinition.beginChange();
+            try {
+                for (final ILDIRepositoryLocation locationToBeRemoved : involvedLocations) {
+                    ldiTargetDefinition.removeLocation(locationToBeRemoved);
+                }
+            } finally {
+                ldiTargetDefinition.commitChange();
             }
         }
     }
@@ -0,0 +1,26 @@
+/**
+ * Copyright (c) 2011, 2014 SAP AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    SAP AG - initial API and implementation
+ */
+package org.eclipse.tycho.targeteditor.http;
+
+import java.io.IOException;
+
+/**
+ * Signals that no connection of the pool of the {@link HttpClient} became available in time. The
+ * server has not been contacted, so the failure says nothing about the health of the server.
+ */
+public class ConnectionUnavailableException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ConnectionUnavailableException(final String message) {
+        super(message);
+    }
+}
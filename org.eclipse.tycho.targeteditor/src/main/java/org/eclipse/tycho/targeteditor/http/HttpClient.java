@@ -0,0 +1,205 @@
+/**
+ * Copyright (c) 2011, 2014 SAP AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    SAP AG - initial API and implementation
+ */
+package org.eclipse.tycho.targeteditor.http;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jface.preference.IPreferenceStore;
+import org.eclipse.jface.util.IPropertyChangeListener;
+import org.eclipse.jface.util.PropertyChangeEvent;
+import org.eclipse.tycho.targeteditor.Activator;
+import org.eclipse.tycho.targeteditor.preferences.PreferenceConstants;
+
+/**
+ * Shared client for all HTTP access of the plug-in.
+ * <p>
+ * The number of concurrently open connections is limited by a pool of {@link #getMaxConnections()}
+ * permits. Responses are fully consumed when they are closed, so that the JDK keeps the underlying
+ * connections alive and reuses them for subsequent requests to the same server. Content is
+ * requested gzip compressed, and all requests use the configured connect and read timeouts. URLs
+ * of other protocols, e.g. <code>file:</code>, are opened directly without using the pool.
+ */
+public class HttpClient {
+
+    public static final int DEFAULT_MAX_CONNECTIONS = 10;
+    private static final int SECOND = 1000;
+
+    private static HttpClient defaultInstance;
+
+    private final Semaphore permits;
+    private final int maxConnections;
+    private volatile int connectTimeout;
+    private volatile int readTimeout;
+
+    /**
+     * @param connectTimeout
+     *            in milliseconds
+     * @param readTimeout
+     *            in milliseconds
+     * @param maxConnections
+     *            maximum number of concurrently open connections
+     */
+    public HttpClient(final int connectTimeout, final int readTimeout, final int maxConnections) {
+        if (maxConnections < 1) {
+            throw new IllegalArgumentException("Maximum number of connections must be positive");
+        }
+        setTimeouts(connectTimeout, readTimeout);
+        this.maxConnections = maxConnections;
+        this.permits = new Semaphore(maxConnections, true);
+    }
+
+    /**
+     * @return the client configured by the preferences of the plug-in
+     */
+    public static synchronized HttpClient getDefault() {
+        if (defaultInstance == null) {
+            final Activator activator = Activator.getDefault();
+            if (activator == null) {
+                defaultInstance = new HttpClient(PreferenceConstants.DEFAULT_HTTP_CONNECT_TIMEOUT * SECOND,
+                        PreferenceConstants.DEFAULT_HTTP_READ_TIMEOUT * SECOND, DEFAULT_MAX_CONNECTIONS);
+            } else {
+                final IPreferenceStore store = activator.getPreferenceStore();
+                final HttpClient client = new HttpClient(0, 0, DEFAULT_MAX_CONNECTIONS);
+                client.updateTimeouts(store);
+                store.addPropertyChangeListener(new IPropertyChangeListener() {
+                    @Override
+                    public void propertyChange(final PropertyChangeEvent event) {
+                        client.updateTimeouts(store);
+                    }
+                });
+                defaultInstance = client;
+            }
+        }
+        return defaultInstance;
+    }
+
+    private void updateTimeouts(final IPreferenceStore store) {
+        setTimeouts(Math.max(1, store.getInt(PreferenceConstants.P_HTTP_CONNECT_TIMEOUT)) * SECOND,
+                Math.max(1, store.getInt(PreferenceConstants.P_HTTP_READ_TIMEOUT)) * SECOND);
+    }
+
+    /**
+     * @param connectTimeout
+     *            in milliseconds, 0 for no timeout
+     * @param readTimeout
+     *            in milliseconds, 0 for no timeout
+     */
+    public void setTimeouts(final int connectTimeout, final int readTimeout) {
+        if (connectTimeout < 0 || readTimeout < 0) {
+            throw new IllegalArgumentException("Timeouts must not be negative");
+        }
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    /**
+     * @return the number of connections which can be opened without waiting
+     */
+    public int getAvailableConnections() {
+        return permits.availablePermits();
+    }
+
+    /**
+     * Opens the content of the given URL. The caller has to close the returned stream.
+     *
+     * @throws IOException
+     *             if the URL cannot be read or the server does not answer with a success status
+     */
+    public InputStream openStream(final URL url) throws IOException {
+        return get(url, null, 0).getContent();
+    }
+
+    /**
+     * Sends a GET request. If validators of a previous response are given, the request is
+     * conditional and the server may answer with 304 (Not Modified). The caller has to close the
+     * returned response.
+     *
+     * @param eTag
+     *            entity tag of a previous response or <code>null</code>
+     * @param ifModifiedSince
+     *            last modification time of a previous response or 0
+     * @throws ConnectionUnavailableException
+     *             if no connection of the pool became available within the connect timeout
+     * @throws IOException
+     *             if the URL cannot be read or the server answers with an error status
+     */
+    public HttpResponse get(final URL url, final String eTag, final long ifModifiedSince) throws IOException {
+        final URLConnection connection = url.openConnection();
+        connection.setConnectTimeout(connectTimeout);
+        connection.setReadTimeout(readTimeout);
+        if (!(connection instanceof HttpURLConnection)) {
+            return new HttpResponse(connection, HttpURLConnection.HTTP_OK, connection.getInputStream(), null);
+        }
+        final HttpURLConnection httpConnection = (HttpURLConnection) connection;
+        httpConnection.setRequestProperty("Accept-Encoding", "gzip");
+        if (eTag != null) {
+            httpConnection.setRequestProperty("If-None-Match", eTag);
+        }
+        if (ifModifiedSince > 0) {
+            httpConnection.setIfModifiedSince(ifModifiedSince);
+        }
+        acquirePermit(url);
+        boolean success = false;
+        try {
+            final HttpResponse response = execute(url, httpConnection);
+            success = true;
+            return response;
+        } finally {
+            if (!success) {
+                permits.release();
+            }
+        }
+    }
+
+    private HttpResponse execute(final URL url, final HttpURLConnection connection) throws IOException {
+        final int statusCode = connection.getResponseCode();
+        if (statusCode == HttpURLConnection.HTTP_NOT_MODIFIED) {
+            return new HttpResponse(connection, statusCode, null, permits);
+        }
+        if (statusCode >= HttpURLConnection.HTTP_OK && statusCode < HttpURLConnection.HTTP_MULT_CHOICE) {
+            return new HttpResponse(connection, statusCode, connection.getInputStream(), permits);
+        }
+        // consume the error content to keep the connection alive
+        final InputStream errorStream = connection.getErrorStream();
+        if (errorStream != null) {
+            new HttpResponse(connection, statusCode, errorStream, null).close();
+        }
+        if (statusCode == HttpURLConnection.HTTP_NOT_FOUND) {
+            throw new FileNotFoundException(url.toString());
+        }
+        throw new IOException("Server returned HTTP response code " + statusCode + " for URL " + url);
+    }
+
+    private void acquirePermit(final URL url) throws ConnectionUnavailableException {
+        try {
+            final long timeout = connectTimeout > 0 ? connectTimeout : Long.MAX_VALUE;
+            if (!permits.tryAcquire(timeout, TimeUnit.MILLISECONDS)) {
+                throw new ConnectionUnavailableException("Timed out waiting for a free connection to "
+                        + url.getHost());
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConnectionUnavailableException("Interrupted while waiting for a free connection to "
+                    + url.getHost());
+        }
+    }
+}
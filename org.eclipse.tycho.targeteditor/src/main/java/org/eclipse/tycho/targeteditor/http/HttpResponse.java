@@ -0,0 +1,143 @@
+/**
+ * Copyright (c) 2011, 2014 SAP AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    SAP AG - initial API and implementation
+ */
+package org.eclipse.tycho.targeteditor.http;
+
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URLConnection;
+import java.util.concurrent.Semaphore;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Response of a request sent by {@link HttpClient}. A response must be closed in any case, even if
+ * its content is not read, in order to return the connection to the pool.
+ */
+public final class HttpResponse implements Closeable {
+
+    /** responses with larger remaining content are not drained but disconnected */
+    private static final int MAX_DRAIN_BYTES = 64 * 1024;
+
+    private final URLConnection connection;
+    private final int statusCode;
+    private final InputStream rawStream;
+    private final Semaphore permits;
+    private InputStream contentStream;
+    private boolean closed;
+
+    HttpResponse(final URLConnection connection, final int statusCode, final InputStream rawStream,
+            final Semaphore permits) {
+        this.connection = connection;
+        this.statusCode = statusCode;
+        this.rawStream = rawStream;
+        this.permits = permits;
+    }
+
+    /**
+     * @return the HTTP status code, or 200 for successfully opened non-HTTP URLs
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public boolean isNotModified() {
+        return statusCode == HttpURLConnection.HTTP_NOT_MODIFIED;
+    }
+
+    /**
+     * @return the entity tag of the content or <code>null</code> if the server did not send one
+     */
+    public String getETag() {
+        return connection.getHeaderField("ETag");
+    }
+
+    /**
+     * @return the last modification time of the content, or 0 if unknown
+     */
+    public long getLastModified() {
+        return connection.getLastModified();
+    }
+
+    /**
+     * Returns the content of the response, decompressed if the server sent it compressed. Closing
+     * the returned stream closes the response.
+     *
+     * @throws IOException
+     *             if the response has no content, e.g. for status 304 (Not Modified)
+     */
+    public synchronized InputStream getContent() throws IOException {
+        if (closed) {
+            throw new IOException("Response already closed");
+        }
+        if (rawStream == null) {
+            throw new IOException("Response with status " + statusCode + " has no content");
+        }
+        if (contentStream == null) {
+            final InputStream closingStream = new FilterInputStream(rawStream) {
+                @Override
+                public void close() throws IOException {
+                    HttpResponse.this.close();
+                }
+            };
+            contentStream = "gzip".equalsIgnoreCase(connection.getContentEncoding()) ? new GZIPInputStream(
+                    closingStream) : closingStream;
+        }
+        return contentStream;
+    }
+
+    /**
+     * Consumes the remaining content, so that the underlying connection can be kept alive, and
+     * returns the connection to the pool. Calling this method more than once has no effect.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        try {
+            if (rawStream != null) {
+                drainAndClose(rawStream);
+            }
+        } finally {
+            if (permits != null) {
+                permits.release();
+            }
+        }
+    }
+
+    private void drainAndClose(final InputStream stream) {
+        try {
+            final byte[] buffer = new byte[4096];
+            int drained = 0;
+            int read;
+            while (drained <= MAX_DRAIN_BYTES && (read = stream.read(buffer)) != -1) {
+                drained += read;
+            }
+            if (drained > MAX_DRAIN_BYTES && connection instanceof HttpURLConnection) {
+                // cheaper to open a new connection than to download the rest
+                ((HttpURLConnection) connection).disconnect();
+            }
+        } catch (final IOException e) {
+            // connection is broken and will not be reused
+        } finally {
+            try {
+                stream.close();
+            } catch (final IOException e) {
+                // ignore
+            }
+        }
+    }
+}
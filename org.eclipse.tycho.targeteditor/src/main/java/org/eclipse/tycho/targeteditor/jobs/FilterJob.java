@@ -0,0 +1,108 @@
+/**
+ * Copyright (c) 2011, 2014 SAP AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    SAP AG - initial API and implementation
+ */
+package org.eclipse.tycho.targeteditor.jobs;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.swt.widgets.Display;
+
+/**
+ * Filters the elements of a viewer in the background while the user types the filter text.
+ * <p>
+ * A filter text is matched after a short delay, so that fast typing results in a single run. A
+ * newer filter text cancels the running match, and the results of outdated filter texts are never
+ * applied.
+ *
+ * @param <R>
+ *            type of the match result
+ */
+public abstract class FilterJob<R> extends Job {
+
+    /** delay in milliseconds between the last change of the filter text and the match */
+    public static final long DEFAULT_DELAY = 150;
+
+    /** family of all filter jobs, e.g. to wait for pending filter runs */
+    public static final Object FAMILY = new Object();
+
+    private final Display display;
+    private final long delay;
+    private String filterText;
+    private int generation;
+
+    protected FilterJob(final String name, final Display display, final long delay) {
+        super(name);
+        this.display = display;
+        this.delay = delay;
+        setSystem(true);
+    }
+
+    /**
+     * Matches the given filter text after the delay, replacing any pending or running match. May
+     * be called from any thread.
+     */
+    public final void setFilterText(final String text) {
+        synchronized (this) {
+            filterText = text;
+            generation++;
+        }
+        cancel();
+        schedule(delay);
+    }
+
+    @Override
+    protected final IStatus run(final IProgressMonitor monitor) {
+        final String text;
+        final int runGeneration;
+        synchronized (this) {
+            text = filterText;
+            runGeneration = generation;
+        }
+        if (text == null) {
+            return Status.OK_STATUS;
+        }
+        final R result = match(text, monitor);
+        if (monitor.isCanceled()) {
+            return Status.CANCEL_STATUS;
+        }
+        if (!display.isDisposed()) {
+            display.asyncExec(new Runnable() {
+                @Override
+                public void run() {
+                    synchronized (FilterJob.this) {
+                        if (runGeneration != generation) {
+                            return;
+                        }
+                    }
+                    apply(text, result);
+                }
+            });
+        }
+        return Status.OK_STATUS;
+    }
+
+    @Override
+    public boolean belongsTo(final Object family) {
+        return family == FAMILY;
+    }
+
+    /**
+     * Matches the elements against the filter text. Called in a background thread; implementations
+     * should return early if the monitor is cancelled.
+     */
+    protected abstract R match(String filterText, IProgressMonitor monitor);
+
+    /**
+     * Shows the result of the latest filter text. Called in the UI thread.
+     */
+    protected abstract void apply(String filterText, R result);
+}
@@ -21,6 +21,7 @@ import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.tycho.targeteditor.Activator;
+import org.eclipse.tycho.targeteditor.http.HttpClient;
 import org.eclipse.tycho.targeteditor.xml.RecommededRepositoriesParser;
 import org.eclipse.tycho.targeteditor.xml.RecommededRepositoriesParserException;
 import org.eclipse.tycho.targeteditor.xml.Repository;
@@ -39,7 +40,7 @@ public class RecommendedRepositoriesReaderJob extends Job {
     @Override
     protected IStatus run(final IProgressMonitor monitor) {
         try {
-            final InputStream xmlStream = new URL(url).openStream();
+            final InputStream xmlStream = HttpClient.getDefault().openStream(new URL(url));
             try {
                 repositoryList = new RecommededRepositoriesParser().parse(xmlStream);
             } finally {
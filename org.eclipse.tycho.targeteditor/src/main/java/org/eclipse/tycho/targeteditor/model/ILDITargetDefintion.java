@@ -13,8 +13,10 @@ package org.eclipse.tycho.targeteditor.model;
 import java.net.URI;
 import java.util.List;
 
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.pde.core.IModelChangeProvider;
+import org.eclipse.pde.core.IModelChangedEvent;
 import org.eclipse.pde.core.target.ITargetDefinition;
 import org.eclipse.pde.internal.core.target.AbstractBundleContainer;
 
@@ -31,6 +33,11 @@ public interface ILDITargetDefintion extends IModelChangeProvider {
     static final String EVENT_PROPERTY_RESET_CONTAINER_RESOLUTION_STATE = "ResetContainerResolutionState";
     static final String EVENT_ADDED_LOCATION = "AddedLocation";
     static final String EVENT_ADDED_UNITS = "AddedUnits";
+    /**
+     * Property of the event fired by {@link #commitChange()} for more than one change. The new
+     * value is the list of the collected {@link IModelChangedEvent}s.
+     */
+    static final String EVENT_COMMITTED_CHANGES = "CommittedChanges";
 
     /**
      * Returns a list of all locations with software site references. See class comment.
@@ -73,10 +80,23 @@ public interface ILDITargetDefintion extends IModelChangeProvider {
      * 
      * @param repository
      *            a repository that is contained in the requested location
-     * @return location that contains the given repository
+     * @return location that contains the given repository, or <code>null</code> if the repository
+     *         is not part of this target definition
      */
     ILDIRepositoryLocation findLocationOf(IRepository repository);
 
+    /**
+     * Returns the Nexus repositories of the given artifact, in any location. The lookup does not
+     * iterate over the locations.
+     * 
+     * @param groupId
+     *            group id of the artifact
+     * @param artifactId
+     *            artifact id of the artifact
+     * @return the Nexus repositories of the artifact, an empty list if there is none
+     */
+    List<INexusRepository> findNexusRepositories(String groupId, String artifactId);
+
     /**
      * Removes the the given location.
      * 
@@ -93,4 +113,44 @@ public interface ILDITargetDefintion extends IModelChangeProvider {
      */
     IStatus getResolutionStatus();
 
+    /**
+     * Returns the repository locations which need to be resolved because they were changed since
+     * the last resolution or their resolution status was cleared.
+     * 
+     * @return list of unresolved repository locations
+     */
+    List<ILDIRepositoryLocation> getUnresolvedLocations();
+
+    /**
+     * Resolves only the locations of the underlying {@link ITargetDefinition} which are not
+     * resolved, i.e. which were changed since the last resolution. All other locations keep their
+     * resolution state. Afterwards the target definition is resolved, so that a subsequent
+     * resolution requested via PDE does not resolve all locations again.
+     * 
+     * @param monitor
+     *            progress monitor, may be <code>null</code>
+     * @return the number of resolved locations
+     */
+    int resolveChangedLocations(IProgressMonitor monitor);
+
+    /**
+     * Starts a transactional change. Until the matching {@link #commitChange()} the changes of
+     * repositories and units are only collected: the underlying {@link ITargetDefinition} is not
+     * updated and no change events are fired. Transactions may be nested; only the outermost
+     * commit takes effect.
+     */
+    void beginChange();
+
+    /**
+     * Completes a change started by {@link #beginChange()}. On the outermost commit each location
+     * with changes is written to the underlying {@link ITargetDefinition} exactly once, and the
+     * collected changes are fired as a single event: a single change is fired unchanged, multiple
+     * changes as an event with property {@link #EVENT_COMMITTED_CHANGES}. Should be called in a
+     * finally block.
+     * 
+     * @throws IllegalStateException
+     *             if no change was started
+     */
+    void commitChange();
+
 }
@@ -11,6 +11,7 @@
 package org.eclipse.tycho.targeteditor.model;
 
 import java.io.IOException;
+import java.util.List;
 
 import org.eclipse.ui.WorkbenchException;
 
@@ -32,7 +33,8 @@ public interface INexusRepositoryService {
 
     /**
      * Retrieves the version information asynchronously. After the version is retrieved the given
-     * callback is called.
+     * callback is called. Concurrent requests for the same maven-metadata.xml are served by a
+     * single fetch whose result is passed to every waiting callback.
      * 
      * @param The
      *            repository the version information shall be retrieved for.
@@ -41,4 +43,17 @@ public interface INexusRepositoryService {
      */
     void getVersionInfoAsync(INexusRepository repository, INexusVersionInfoCallback callback);
 
+    /**
+     * Retrieves the version information of several repositories asynchronously and in parallel.
+     * The results are passed to the given callback in a small number of coalesced notifications,
+     * the last one is flagged as completed.
+     * 
+     * @param repositories
+     *            The repositories the version information shall be retrieved for, e.g. all Nexus
+     *            repositories of a target definition.
+     * @param callback
+     *            The callback.
+     */
+    void getVersionInfoAsync(List<INexusRepository> repositories, INexusVersionInfoBatchCallback callback);
+
 }
@@ -30,7 +30,21 @@ public interface INexusVersionInfo {
     public String getLatestReleaseVersion();
 
     /**
-     * @return all available versions, regardsless of type.
+     * @return all available versions, regardsless of type, sorted by Maven version order with the
+     *         oldest version first. The list is unmodifiable.
      */
     public List<String> getVersions();
+
+    /**
+     * @return all available versions like {@link #getVersions()}, but with the newest version
+     *         first. The list is unmodifiable.
+     */
+    public List<String> getVersionsDescending();
+
+    /**
+     * @param version
+     *            a version string
+     * @return <code>true</code> if the given version is one of the available versions
+     */
+    public boolean containsVersion(String version);
 }
@@ -0,0 +1,29 @@
+/**
+ * Copyright (c) 2011, 2014 SAP AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    SAP AG - initial API and implementation
+ */
+package org.eclipse.tycho.targeteditor.model;
+
+import java.util.List;
+
+public interface INexusVersionInfoBatchCallback {
+
+    /**
+     * Notification about asynchronous version calculations of a batch. Results are coalesced, so
+     * that a batch causes only a small number of notifications.
+     *
+     * @param calculationResults
+     *            The results calculated since the previous notification of the batch. Never empty
+     *            unless the batch itself was empty.
+     * @param completed
+     *            <code>true</code> for the last notification of the batch
+     */
+    void notifyVersionsCalculated(List<NexusVersionCalculationResult> calculationResults, boolean completed);
+
+}
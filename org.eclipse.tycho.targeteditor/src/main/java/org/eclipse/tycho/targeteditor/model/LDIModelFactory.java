@@ -13,6 +13,7 @@ package org.eclipse.tycho.targeteditor.model;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.net.URI;
+import java.util.List;
 
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
@@ -62,9 +63,9 @@ public class LDIModelFactory {
     }
 
     /**
-     * Creates a new instance of {@link INexusRepository}. The resulting repository reference will
-     * represent a URI in the form:</br>
-     * http://nexus:8081/nexus/content/repositories/{repoName}/{groupId separated by
+     * Creates a new instance of {@link INexusRepository} on the default Nexus instance. The
+     * resulting repository reference will represent a URI in the form:</br>
+     * {default instance URL}/{repoName}/{groupId separated by
      * "/"}/{artifactId}/{version}/{artifactId}-{version}[-{mavenClassifier}].{fileExtension}-unzip
      * 
      * @param repoName
@@ -103,6 +104,22 @@ public class LDIModelFactory {
         }
     }
 
+    /**
+     * Creates immutable version information.
+     * 
+     * @param latestVersion
+     *            the latest version, must not be <code>null</code>
+     * @param latestReleaseVersion
+     *            the latest release version or <code>null</code>
+     * @param versions
+     *            all available versions in the order of the maven-metadata.xml
+     * @return the version information
+     */
+    public static INexusVersionInfo createNexusVersionInfo(final String latestVersion,
+            final String latestReleaseVersion, final List<String> versions) {
+        return new NexusVersionInfo(latestVersion, latestReleaseVersion, versions);
+    }
+
     /**
      * Utility method to adjust the repository name based on the current version. The repository
      * name will only be changed in case the current repository name is known. (One of
@@ -125,6 +142,65 @@ public class LDIModelFactory {
         }
     }
 
+    /**
+     * Checks whether the repository references neither the latest release nor the latest version of
+     * its artifact, so that {@link #updateToLatestRelease(INexusRepository, INexusVersionInfo)}
+     * changes it.
+     * 
+     * @param repo
+     * @param versionInfo
+     *            the available versions of the artifact
+     */
+    public static boolean isReleaseUpdatable(final INexusRepository repo, final INexusVersionInfo versionInfo) {
+        final String latestReleaseVersion = versionInfo.getLatestReleaseVersion();
+        final boolean usesLatestReleasedVersion = latestReleaseVersion == null
+                || latestReleaseVersion.equals(repo.getVersion());
+        final boolean usesLatestVersion = versionInfo.getLatestVersion().equals(repo.getVersion());
+        return !(usesLatestReleasedVersion || usesLatestVersion);
+    }
+
+    /**
+     * Changes the repository to the latest release of its artifact and adjusts the repository name
+     * accordingly. Nothing is changed if there is no released version.
+     * 
+     * @param repo
+     * @param versionInfo
+     *            the available versions of the artifact
+     */
+    public static void updateToLatestRelease(final INexusRepository repo, final INexusVersionInfo versionInfo) {
+        final String latestReleaseVersion = versionInfo.getLatestReleaseVersion();
+        if (latestReleaseVersion != null) {
+            repo.setVersion(latestReleaseVersion);
+            adjustRepositoryName(repo);
+        }
+    }
+
+    /**
+     * Creates the key identifying the available versions of a repository, which is the same for
+     * all versions of the artifact. Keys of repositories on other than the default Nexus instance
+     * are prefixed with the instance URL, so that equally named artifacts of different instances do
+     * not collide.
+     * 
+     * @param repository
+     *            the repository or <code>null</code>
+     * @return the key, or <code>null</code> for a <code>null</code> repository
+     */
+    public static Object createVersionKey(final INexusRepository repository) {
+        Object key = null;
+        if (repository != null) {
+            key = repository.getRepositoryName() + "/" + repository.getGroupId() + "/" + repository.getArtifactId();
+            final URI uri = repository.getURI();
+            if (uri != null) {
+                final NexusInstances instances = NexusInstances.getDefault();
+                final String nexusUrl = instances.findInstanceUrl(uri.toString());
+                if (nexusUrl != null && !nexusUrl.equals(instances.getDefaultInstanceUrl())) {
+                    key = nexusUrl + key;
+                }
+            }
+        }
+        return key;
+    }
+
     /**
      * Creates a new instance of {@link INexusRepository} using
      * {@link NexusRepositoryNames.SNAPSHOT} as Nexus repository. All other parts of the provided
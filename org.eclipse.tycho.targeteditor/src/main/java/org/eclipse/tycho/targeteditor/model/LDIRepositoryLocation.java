@@ -100,6 +100,19 @@ class LDIRepositoryLocation implements ILDIRepositoryLocation, IModelChangedList
 
     @Override
     public void modelChanged(final IModelChangedEvent event) {
+        if (!ldiTargetDefinition.isChanging()) {
+            updateContainer();
+        } else {
+            ldiTargetDefinition.markChanged(this);
+        }
+        ldiTargetDefinition.fireModelChanged(event);
+    }
+
+    /**
+     * Replaces the bundle container in the target definition by one reflecting the current
+     * repositories and units.
+     */
+    void updateContainer() {
         final List<URI> newRepoURIs = new ArrayList<URI>();
         for (final IRepository repo : getRepositories()) {
             newRepoURIs.add(repo.getURI());
@@ -118,7 +131,10 @@ class LDIRepositoryLocation implements ILDIRepositoryLocation, IModelChangedList
                         LDIModelFactory.getResolutionFlags(iuBundleContainer));
         ldiTargetDefinition.replace(iuBundleContainer, newiuBundleContainer);
         iuBundleContainer = newiuBundleContainer;
-        ldiTargetDefinition.fireModelChanged(event);
+    }
+
+    boolean isResolved() {
+        return iuBundleContainer.isResolved();
     }
 
     @Override
@@ -13,9 +13,16 @@ package org.eclipse.tycho.targeteditor.model;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.pde.core.IModelChangeProvider;
 import org.eclipse.pde.core.IModelChangedEvent;
 import org.eclipse.pde.core.ModelChangedEvent;
@@ -32,6 +39,22 @@ class LDITargetDefinition extends ModelChangeProvider implements ILDITargetDefin
     private final ITargetDefinition targetDefinition;
     private List<ILDIRepositoryLocation> ldiRepositoryLocations;
 
+    // state of a transactional change, see beginChange()
+    private int changeDepth;
+    private final Set<LDIRepositoryLocation> changedLocations = new LinkedHashSet<LDIRepositoryLocation>();
+    private final List<IModelChangedEvent> collectedEvents = new ArrayList<IModelChangedEvent>();
+
+    // index of the repositories, built on first lookup and maintained by addRepository() and
+    // removeLocation(); group and artifact id of a repository never change, and changes of version
+    // or repository name keep the repository instance, so such changes keep the index valid
+    private Map<IRepository, ILDIRepositoryLocation> locationByRepository;
+    private Map<String, List<INexusRepository>> nexusRepositoriesByArtifact;
+
+    // guards the container array of the target definition, which is read by the resolution in the
+    // background while the editor changes it; the array is replaced on change, never modified in place
+    private final Object containerLock = new Object();
+    private int containerGeneration;
+
     public LDITargetDefinition(final ITargetDefinition targetDefinition) {
         this.targetDefinition = targetDefinition;
     }
@@ -84,6 +107,9 @@ class LDITargetDefinition extends ModelChangeProvider implements ILDITargetDefin
         addContainer(newiuBundleContainer);
         final LDIRepositoryLocation newRepositoryLocation = new LDIRepositoryLocation(this, newiuBundleContainer);
         ldiRepositoryLocations.add(newRepositoryLocation);
+        if (locationByRepository != null) {
+            addToIndex(newRepositoryLocation);
+        }
         final ModelChangedEvent modelChangedEvent = new ModelChangedEvent(this, this,
                 ILDITargetDefintion.EVENT_ADDED_LOCATION, null, newRepositoryLocation);
         fireModelChanged(modelChangedEvent);
@@ -95,7 +121,10 @@ class LDITargetDefinition extends ModelChangeProvider implements ILDITargetDefin
         if (locationToBeRemoved == null) {
             throw new IllegalArgumentException("locationToBeRemoved must not be null.");
         }
-        ldiRepositoryLocations.remove(locationToBeRemoved);
+        if (ldiRepositoryLocations.remove(locationToBeRemoved) && locationByRepository != null) {
+            removeFromIndex(locationToBeRemoved);
+        }
+        changedLocations.remove(locationToBeRemoved);
         final ITargetLocation[] containers = targetDefinition.getTargetLocations();
         final List<ITargetLocation> remainingContainers = new ArrayList<ITargetLocation>();
         for (final ITargetLocation container : containers) {
@@ -103,8 +132,7 @@ class LDITargetDefinition extends ModelChangeProvider implements ILDITargetDefin
                 remainingContainers.add(container);
             }
         }
-        targetDefinition
-                .setTargetLocations(remainingContainers.toArray(new ITargetLocation[remainingContainers.size()]));
+        setContainers(remainingContainers.toArray(new ITargetLocation[remainingContainers.size()]));
         final ModelChangedEvent modelChangedEvent = new ModelChangedEvent(this, IModelChangedEvent.REMOVE,
                 new Object[] { locationToBeRemoved }, null);
         fireModelChanged(modelChangedEvent);
@@ -115,13 +143,72 @@ class LDITargetDefinition extends ModelChangeProvider implements ILDITargetDefin
         if (repository == null) {
             throw new IllegalArgumentException("repository must not be null.");
         }
-        for (final ILDIRepositoryLocation repositoryLocation : getRepositoryLocations()) {
-            final List<IRepository> repositories = repositoryLocation.getRepositories();
-            if (repositories.contains(repository)) {
-                return repositoryLocation;
+        buildIndex();
+        return locationByRepository.get(repository);
+    }
+
+    @Override
+    public List<INexusRepository> findNexusRepositories(final String groupId, final String artifactId) {
+        if (groupId == null || artifactId == null) {
+            throw new IllegalArgumentException("groupId and artifactId must not be null.");
+        }
+        buildIndex();
+        final List<INexusRepository> repositories = nexusRepositoriesByArtifact
+                .get(artifactKey(groupId, artifactId));
+        if (repositories == null) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(repositories);
+    }
+
+    private void buildIndex() {
+        if (locationByRepository != null) {
+            return;
+        }
+        locationByRepository = new IdentityHashMap<IRepository, ILDIRepositoryLocation>();
+        nexusRepositoriesByArtifact = new HashMap<String, List<INexusRepository>>();
+        for (final ILDIRepositoryLocation location : getRepositoryLocations()) {
+            addToIndex(location);
+        }
+    }
+
+    private void addToIndex(final ILDIRepositoryLocation location) {
+        for (final IRepository repository : location.getRepositories()) {
+            locationByRepository.put(repository, location);
+            if (repository instanceof INexusRepository) {
+                final INexusRepository nexusRepository = (INexusRepository) repository;
+                final String key = artifactKey(nexusRepository.getGroupId(), nexusRepository.getArtifactId());
+                List<INexusRepository> repositories = nexusRepositoriesByArtifact.get(key);
+                if (repositories == null) {
+                    // mostly one repository per artifact
+                    repositories = new ArrayList<INexusRepository>(1);
+                    nexusRepositoriesByArtifact.put(key, repositories);
+                }
+                repositories.add(nexusRepository);
             }
         }
-        return null;
+    }
+
+    private void removeFromIndex(final ILDIRepositoryLocation location) {
+        for (final IRepository repository : location.getRepositories()) {
+            locationByRepository.remove(repository);
+            if (repository instanceof INexusRepository) {
+                final INexusRepository nexusRepository = (INexusRepository) repository;
+                final String key = artifactKey(nexusRepository.getGroupId(), nexusRepository.getArtifactId());
+                final List<INexusRepository> repositories = nexusRepositoriesByArtifact.get(key);
+                if (repositories != null) {
+                    // repositories have no equals(), so this removes the very instance
+                    repositories.remove(nexusRepository);
+                    if (repositories.isEmpty()) {
+                        nexusRepositoriesByArtifact.remove(key);
+                    }
+                }
+            }
+        }
+    }
+
+    private static String artifactKey(final String groupId, final String artifactId) {
+        return groupId + ":" + artifactId;
     }
 
     @Override
@@ -143,26 +230,138 @@ class LDITargetDefinition extends ModelChangeProvider implements ILDITargetDefin
         return targetDefinition.getStatus();
     }
 
+    @Override
+    public List<ILDIRepositoryLocation> getUnresolvedLocations() {
+        final List<ILDIRepositoryLocation> result = new ArrayList<ILDIRepositoryLocation>();
+        for (final ILDIRepositoryLocation location : getRepositoryLocations()) {
+            if (!((LDIRepositoryLocation) location).isResolved()) {
+                result.add(location);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Resolves a snapshot of the unresolved containers, so that the editor is not blocked while
+     * resolving. Containers which are replaced meanwhile are resolved in vain, and the containers
+     * replacing them are resolved in a further round.
+     */
+    @Override
+    public int resolveChangedLocations(final IProgressMonitor monitor) {
+        final SubMonitor subMonitor = SubMonitor.convert(monitor, "Resolving changed locations", 1);
+        int resolvedCount = 0;
+        int generation;
+        do {
+            final List<ITargetLocation> unresolvedContainers = new ArrayList<ITargetLocation>();
+            synchronized (containerLock) {
+                generation = containerGeneration;
+                final ITargetLocation[] bundleContainers = targetDefinition.getTargetLocations();
+                if (bundleContainers != null) {
+                    for (final ITargetLocation container : bundleContainers) {
+                        if (!container.isResolved()) {
+                            unresolvedContainers.add(container);
+                        }
+                    }
+                }
+            }
+            subMonitor.setWorkRemaining(unresolvedContainers.size());
+            for (final ITargetLocation container : unresolvedContainers) {
+                if (subMonitor.isCanceled()) {
+                    return resolvedCount;
+                }
+                container.resolve(targetDefinition, subMonitor.newChild(1));
+                resolvedCount++;
+            }
+        } while (hasContainersChangedSince(generation));
+        return resolvedCount;
+    }
+
+    private boolean hasContainersChangedSince(final int generation) {
+        synchronized (containerLock) {
+            return containerGeneration != generation;
+        }
+    }
+
+    @Override
+    public void beginChange() {
+        changeDepth++;
+    }
+
+    @Override
+    public void commitChange() {
+        if (changeDepth == 0) {
+            throw new IllegalStateException("No change in progress");
+        }
+        changeDepth--;
+        if (changeDepth > 0) {
+            return;
+        }
+        final List<LDIRepositoryLocation> locations = new ArrayList<LDIRepositoryLocation>(changedLocations);
+        final List<IModelChangedEvent> events = new ArrayList<IModelChangedEvent>(collectedEvents);
+        changedLocations.clear();
+        collectedEvents.clear();
+        for (final LDIRepositoryLocation location : locations) {
+            location.updateContainer();
+        }
+        if (events.size() == 1) {
+            super.fireModelChanged(events.get(0));
+        } else if (events.size() > 1) {
+            super.fireModelChanged(new ModelChangedEvent(this, this, ILDITargetDefintion.EVENT_COMMITTED_CHANGES,
+                    null, Collections.unmodifiableList(events)));
+        }
+    }
+
+    boolean isChanging() {
+        return changeDepth > 0;
+    }
+
+    void markChanged(final LDIRepositoryLocation location) {
+        changedLocations.add(location);
+    }
+
+    /**
+     * Collects the event while a transactional change is in progress.
+     */
+    @Override
+    public void fireModelChanged(final IModelChangedEvent event) {
+        if (changeDepth > 0) {
+            collectedEvents.add(event);
+        } else {
+            super.fireModelChanged(event);
+        }
+    }
+
     void replace(final IUBundleContainer iuBundleContainer, final IUBundleContainer newiuBundleContainer) {
-        final ITargetLocation[] bContainers = targetDefinition.getTargetLocations();
-        for (int i = 0; i < bContainers.length; i++) {
-            if (bContainers[i] == iuBundleContainer) {
-                bContainers[i] = newiuBundleContainer;
-                break;
+        synchronized (containerLock) {
+            final ITargetLocation[] bContainers = targetDefinition.getTargetLocations().clone();
+            for (int i = 0; i < bContainers.length; i++) {
+                if (bContainers[i] == iuBundleContainer) {
+                    bContainers[i] = newiuBundleContainer;
+                    break;
+                }
             }
+            setContainers(bContainers);
         }
-        targetDefinition.setTargetLocations(bContainers);
     }
 
     private void addContainer(final IUBundleContainer newiuBundleContainer) {
-        ITargetLocation[] oldContainers = targetDefinition.getTargetLocations();
-        if (oldContainers == null) {
-            oldContainers = new ITargetLocation[0];
-        }
-        final ITargetLocation[] newContainers = new ITargetLocation[oldContainers.length + 1];
-        System.arraycopy(oldContainers, 0, newContainers, 0, oldContainers.length);
-        newContainers[newContainers.length - 1] = newiuBundleContainer;
-        targetDefinition.setTargetLocations(newContainers);
+        synchronized (containerLock) {
+            ITargetLocation[] oldContainers = targetDefinition.getTargetLocations();
+            if (oldContainers == null) {
+                oldContainers = new ITargetLocation[0];
+            }
+            final ITargetLocation[] newContainers = new ITargetLocation[oldContainers.length + 1];
+            System.arraycopy(oldContainers, 0, newContainers, 0, oldContainers.length);
+            newContainers[newContainers.length - 1] = newiuBundleContainer;
+            setContainers(newContainers);
+        }
+    }
+
+    private void setContainers(final ITargetLocation[] containers) {
+        synchronized (containerLock) {
+            targetDefinition.setTargetLocations(containers);
+            containerGeneration++;
+        }
     }
 
 }
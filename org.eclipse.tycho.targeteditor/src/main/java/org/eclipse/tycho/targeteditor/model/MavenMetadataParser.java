@@ -0,0 +1,125 @@
+/**
+ * Copyright (c) 2011, 2014 SAP AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    SAP AG - initial API and implementation
+ */
+package org.eclipse.tycho.targeteditor.model;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.eclipse.ui.WorkbenchException;
+
+/**
+ * Streaming parser for maven-metadata.xml files. Only the latest version, the latest release
+ * version and the list of versions below the <code>versioning</code> element are extracted; no
+ * document tree is built.
+ */
+class MavenMetadataParser {
+
+    private static final String TAG_RELEASE = "release";
+    private static final String TAG_LATEST = "latest";
+    private static final String TAG_VERSION = "version";
+    private static final String TAG_VERSIONS = "versions";
+    private static final String TAG_VERSIONING = "versioning";
+    private static final String MISSING_TAG_MSG = "maven-metadata.xml does not contain tag ";
+
+    private static final XMLInputFactory FACTORY = createFactory();
+
+    private static XMLInputFactory createFactory() {
+        final XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+        return factory;
+    }
+
+    /**
+     * @param stream
+     *            the maven-metadata.xml content; not closed by this method
+     * @return the parsed version information
+     * @throws WorkbenchException
+     *             in case the content is not well-formed or a mandatory tag is missing
+     */
+    NexusVersionInfo parse(final InputStream stream) throws WorkbenchException {
+        String latest = null;
+        String release = null;
+        List<String> versions = null;
+        boolean versioningFound = false;
+        try {
+            final XMLStreamReader reader = FACTORY.createXMLStreamReader(stream);
+            try {
+                // element depth: 1 = root, 2 = versioning, 3 = latest/release/versions, 4 = version
+                int depth = 0;
+                boolean inVersioning = false;
+                boolean inVersions = false;
+                while (reader.hasNext()) {
+                    final int event = reader.next();
+                    if (event == XMLStreamConstants.START_ELEMENT) {
+                        depth++;
+                        final String name = reader.getLocalName();
+                        if (depth == 2 && TAG_VERSIONING.equals(name)) {
+                            inVersioning = true;
+                            versioningFound = true;
+                        } else if (inVersioning && depth == 3) {
+                            if (TAG_LATEST.equals(name)) {
+                                latest = readText(reader);
+                                depth--;
+                            } else if (TAG_RELEASE.equals(name)) {
+                                release = readText(reader);
+                                depth--;
+                            } else if (TAG_VERSIONS.equals(name)) {
+                                inVersions = true;
+                                if (versions == null) {
+                                    versions = new ArrayList<String>();
+                                }
+                            }
+                        } else if (inVersions && depth == 4 && TAG_VERSION.equals(name)) {
+                            versions.add(readText(reader));
+                            depth--;
+                        }
+                    } else if (event == XMLStreamConstants.END_ELEMENT) {
+                        if (depth == 2) {
+                            inVersioning = false;
+                        } else if (depth == 3) {
+                            inVersions = false;
+                        }
+                        depth--;
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (final XMLStreamException e) {
+            throw new WorkbenchException("Unable to parse maven-metadata.xml: " + e.getMessage(), e);
+        }
+        if (!versioningFound) {
+            throw new WorkbenchException(MISSING_TAG_MSG + TAG_VERSIONING);
+        }
+        if (versions == null) {
+            throw new WorkbenchException(MISSING_TAG_MSG + TAG_VERSIONS);
+        }
+        if (latest == null) {
+            throw new WorkbenchException(MISSING_TAG_MSG + TAG_LATEST);
+        }
+        return new NexusVersionInfo(latest, release, versions);
+    }
+
+    /**
+     * Reads the text content of the current element and positions the reader on its end tag.
+     */
+    private static String readText(final XMLStreamReader reader) throws XMLStreamException {
+        return reader.getElementText().trim();
+    }
+}
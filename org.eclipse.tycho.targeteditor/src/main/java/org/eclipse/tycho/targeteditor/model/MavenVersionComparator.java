@@ -0,0 +1,137 @@
+/**
+ * Copyright (c) 2011, 2014 SAP AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    SAP AG - initial API and implementation
+ */
+package org.eclipse.tycho.targeteditor.model;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Orders version strings like Maven does: numeric segments are compared numerically, and well-known
+ * qualifiers are ordered <code>alpha &lt; beta &lt; milestone &lt; rc &lt; snapshot &lt; (release)
+ * &lt; sp</code>. Unknown qualifiers sort after <code>sp</code> in lexical order. Versions which are
+ * equal by these rules (e.g. <code>1.0</code> and <code>1.0.0</code>) are ordered by their string
+ * representation, so that the ordering is consistent with <code>equals</code>.
+ */
+class MavenVersionComparator implements Comparator<String> {
+
+    static final MavenVersionComparator INSTANCE = new MavenVersionComparator();
+
+    private static final int RELEASE_RANK = 5;
+    private static final int UNKNOWN_RANK = 7;
+
+    @Override
+    public int compare(final String version1, final String version2) {
+        final List<Object> items1 = parse(version1);
+        final List<Object> items2 = parse(version2);
+        final int size = Math.max(items1.size(), items2.size());
+        for (int i = 0; i < size; i++) {
+            final Object item1 = i < items1.size() ? items1.get(i) : null;
+            final Object item2 = i < items2.size() ? items2.get(i) : null;
+            final int result = compareItems(item1, item2);
+            if (result != 0) {
+                return result;
+            }
+        }
+        return version1.compareTo(version2);
+    }
+
+    private static int compareItems(final Object item1, final Object item2) {
+        if (item1 instanceof Long && item2 instanceof Long) {
+            final long value1 = ((Long) item1).longValue();
+            final long value2 = ((Long) item2).longValue();
+            return value1 < value2 ? -1 : (value1 == value2 ? 0 : 1);
+        }
+        if (item1 instanceof Long) {
+            // a number is newer than any qualifier; a missing item counts as 0
+            return item2 == null ? (((Long) item1).longValue() == 0 ? 0 : 1) : 1;
+        }
+        if (item2 instanceof Long) {
+            return -compareItems(item2, item1);
+        }
+        final String qualifier1 = item1 == null ? "" : (String) item1;
+        final String qualifier2 = item2 == null ? "" : (String) item2;
+        final int rank1 = rank(qualifier1);
+        final int rank2 = rank(qualifier2);
+        if (rank1 != rank2) {
+            return rank1 < rank2 ? -1 : 1;
+        }
+        return rank1 == UNKNOWN_RANK ? qualifier1.compareTo(qualifier2) : 0;
+    }
+
+    private static int rank(final String qualifier) {
+        if ("alpha".equals(qualifier) || "a".equals(qualifier)) {
+            return 0;
+        } else if ("beta".equals(qualifier) || "b".equals(qualifier)) {
+            return 1;
+        } else if ("milestone".equals(qualifier) || "m".equals(qualifier)) {
+            return 2;
+        } else if ("rc".equals(qualifier) || "cr".equals(qualifier)) {
+            return 3;
+        } else if ("snapshot".equals(qualifier)) {
+            return 4;
+        } else if ("".equals(qualifier) || "ga".equals(qualifier) || "final".equals(qualifier)
+                || "release".equals(qualifier)) {
+            return RELEASE_RANK;
+        } else if ("sp".equals(qualifier)) {
+            return 6;
+        }
+        return UNKNOWN_RANK;
+    }
+
+    /**
+     * Splits a version at '.' and '-' and at transitions between digits and letters. Numeric items
+     * are returned as {@link Long}, qualifiers as lower case {@link String}.
+     */
+    private static List<Object> parse(final String version) {
+        final List<Object> items = new ArrayList<Object>();
+        final String lowerCase = version.toLowerCase();
+        int start = 0;
+        for (int i = 0; i <= lowerCase.length(); i++) {
+            final boolean end = i == lowerCase.length();
+            final char c = end ? '.' : lowerCase.charAt(i);
+            if (c == '.' || c == '-' || c == '_') {
+                addItem(items, lowerCase.substring(start, i));
+                start = i + 1;
+            } else if (i > start && Character.isDigit(c) != Character.isDigit(lowerCase.charAt(i - 1))) {
+                addItem(items, lowerCase.substring(start, i));
+                start = i;
+            }
+        }
+        // trailing zero and release items do not change the version (1.0.0 == 1)
+        while (!items.isEmpty() && isNullItem(items.get(items.size() - 1))) {
+            items.remove(items.size() - 1);
+        }
+        return items;
+    }
+
+    private static void addItem(final List<Object> items, final String item) {
+        if (item.length() == 0) {
+            items.add(Long.valueOf(0));
+        } else if (Character.isDigit(item.charAt(0))) {
+            try {
+                items.add(Long.valueOf(item));
+            } catch (final NumberFormatException e) {
+                // too large for a long: compare as qualifier
+                items.add(item);
+            }
+        } else {
+            items.add(item);
+        }
+    }
+
+    private static boolean isNullItem(final Object item) {
+        if (item instanceof Long) {
+            return ((Long) item).longValue() == 0;
+        }
+        return rank((String) item) == RELEASE_RANK;
+    }
+}
@@ -0,0 +1,349 @@
+/**
+ * Copyright (c) 2011, 2014 SAP AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    SAP AG - initial API and implementation
+ */
+package org.eclipse.tycho.targeteditor.model;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.jface.preference.IPreferenceStore;
+import org.eclipse.jface.util.IPropertyChangeListener;
+import org.eclipse.jface.util.PropertyChangeEvent;
+import org.eclipse.tycho.targeteditor.Activator;
+import org.eclipse.tycho.targeteditor.preferences.PreferenceConstants;
+
+/**
+ * The configured Nexus instances and their mirrors.
+ * <p>
+ * Repository URIs in target definitions always reference an instance. Metadata, however, may be
+ * fetched from any mirror of the instance: {@link #getMetadataUrls(URL)} returns the candidates
+ * ordered by health and by the latency measured by the background probing, and fetches fall back
+ * to the next candidate if one fails. Mirrors are used in the configured order as long as no
+ * latency is known.
+ */
+public final class NexusInstances {
+
+    public static final String DEFAULT_INSTANCE_URL = "http://nexus:8081/nexus/content/repositories/";
+
+    private static final long UNKNOWN_LATENCY = Long.MAX_VALUE;
+
+    private static volatile NexusInstances defaultInstances;
+
+    private static final class Endpoint {
+        final String baseUrl;
+        final int configuredOrder;
+        volatile long latency = UNKNOWN_LATENCY;
+        volatile boolean healthy = true;
+
+        Endpoint(final String baseUrl, final int configuredOrder) {
+            this.baseUrl = baseUrl;
+            this.configuredOrder = configuredOrder;
+        }
+    }
+
+    private static final Comparator<Endpoint> RANKING = new Comparator<Endpoint>() {
+        @Override
+        public int compare(final Endpoint e1, final Endpoint e2) {
+            if (e1.healthy != e2.healthy) {
+                return e1.healthy ? -1 : 1;
+            }
+            if (e1.latency != e2.latency) {
+                return e1.latency < e2.latency ? -1 : 1;
+            }
+            return e1.configuredOrder - e2.configuredOrder;
+        }
+    };
+
+    /** instance base URL -> mirrors followed by the instance itself, in configured order */
+    private final Map<String, List<Endpoint>> endpoints = new LinkedHashMap<String, List<Endpoint>>();
+    private final ConcurrentMap<String, Endpoint> endpointsByUrl = new ConcurrentHashMap<String, Endpoint>();
+    private NexusMirrorProbeJob probeJob;
+
+    /**
+     * @param instanceUrls
+     *            base URLs of the repositories of the Nexus instances, the first one is used for
+     *            newly created repositories
+     * @param mirrorUrls
+     *            instance base URL -> ordered base URLs of its mirrors
+     */
+    public NexusInstances(final List<String> instanceUrls, final Map<String, List<String>> mirrorUrls) {
+        if (instanceUrls.isEmpty()) {
+            throw new IllegalArgumentException("At least one Nexus instance is required");
+        }
+        final Map<String, List<String>> normalizedMirrorUrls = new LinkedHashMap<String, List<String>>();
+        for (final Map.Entry<String, List<String>> entry : mirrorUrls.entrySet()) {
+            normalizedMirrorUrls.put(normalize(entry.getKey()), entry.getValue());
+        }
+        for (final String instanceUrl : instanceUrls) {
+            final String baseUrl = normalize(instanceUrl);
+            if (endpoints.containsKey(baseUrl)) {
+                continue;
+            }
+            final List<Endpoint> candidates = new ArrayList<Endpoint>();
+            final List<String> mirrors = normalizedMirrorUrls.get(baseUrl);
+            if (mirrors != null) {
+                for (final String mirrorUrl : mirrors) {
+                    candidates.add(getEndpoint(normalize(mirrorUrl), candidates.size()));
+                }
+            }
+            candidates.add(getEndpoint(baseUrl, candidates.size()));
+            endpoints.put(baseUrl, candidates);
+        }
+    }
+
+    private Endpoint getEndpoint(final String baseUrl, final int configuredOrder) {
+        final Endpoint endpoint = new Endpoint(baseUrl, configuredOrder);
+        final Endpoint existing = endpointsByUrl.putIfAbsent(baseUrl, endpoint);
+        return existing != null ? existing : endpoint;
+    }
+
+    private static String normalize(final String baseUrl) {
+        final String trimmed = baseUrl.trim();
+        return trimmed.endsWith("/") ? trimmed : trimmed + "/";
+    }
+
+    /**
+     * @return the instances configured by the preferences of the plug-in
+     */
+    public static NexusInstances getDefault() {
+        final NexusInstances current = defaultInstances;
+        return current != null ? current : createDefault();
+    }
+
+    private static synchronized NexusInstances createDefault() {
+        if (defaultInstances == null) {
+            final Activator activator = Activator.getDefault();
+            if (activator == null) {
+                defaultInstances = new NexusInstances(Collections.singletonList(DEFAULT_INSTANCE_URL),
+                        Collections.<String, List<String>> emptyMap());
+            } else {
+                final IPreferenceStore store = activator.getPreferenceStore();
+                store.addPropertyChangeListener(new IPropertyChangeListener() {
+                    @Override
+                    public void propertyChange(final PropertyChangeEvent event) {
+                        if (PreferenceConstants.P_NEXUS_INSTANCES.equals(event.getProperty())
+                                || PreferenceConstants.P_NEXUS_MIRRORS.equals(event.getProperty())) {
+                            setDefault(fromPreferences(store));
+                        }
+                    }
+                });
+                final NexusInstances instances = fromPreferences(store);
+                instances.startProbing();
+                defaultInstances = instances;
+            }
+        }
+        return defaultInstances;
+    }
+
+    private static synchronized void setDefault(final NexusInstances instances) {
+        if (defaultInstances != null) {
+            defaultInstances.stopProbing();
+        }
+        defaultInstances = instances;
+        instances.startProbing();
+    }
+
+    /**
+     * Stops the background probing of the default instances.
+     */
+    public static synchronized void shutdown() {
+        if (defaultInstances != null) {
+            defaultInstances.stopProbing();
+        }
+    }
+
+    static NexusInstances fromPreferences(final IPreferenceStore store) {
+        return parse(store.getString(PreferenceConstants.P_NEXUS_INSTANCES),
+                store.getString(PreferenceConstants.P_NEXUS_MIRRORS));
+    }
+
+    /**
+     * Parses the preference values. Invalid URLs are logged and ignored.
+     *
+     * @param instances
+     *            comma separated base URLs of the Nexus instances
+     * @param mirrors
+     *            comma separated mirror definitions <code>mirrorUrl[=instanceUrl]</code>; mirrors
+     *            without an instance URL belong to the first instance
+     */
+    static NexusInstances parse(final String instances, final String mirrors) {
+        final List<String> instanceUrls = new ArrayList<String>();
+        for (final String instanceUrl : split(instances)) {
+            if (isValidUrl(instanceUrl)) {
+                instanceUrls.add(normalize(instanceUrl));
+            }
+        }
+        if (instanceUrls.isEmpty()) {
+            instanceUrls.add(DEFAULT_INSTANCE_URL);
+        }
+        final Map<String, List<String>> mirrorUrls = new LinkedHashMap<String, List<String>>();
+        for (final String mirror : split(mirrors)) {
+            final int separator = mirror.indexOf('=');
+            final String mirrorUrl = separator < 0 ? mirror : mirror.substring(0, separator).trim();
+            final String instanceUrl = separator < 0 ? instanceUrls.get(0) : normalize(mirror
+                    .substring(separator + 1));
+            if (!isValidUrl(mirrorUrl)) {
+                continue;
+            }
+            if (!instanceUrls.contains(instanceUrl)) {
+                log("Ignoring mirror " + mirrorUrl + " of unknown Nexus instance " + instanceUrl);
+                continue;
+            }
+            List<String> urls = mirrorUrls.get(instanceUrl);
+            if (urls == null) {
+                urls = new ArrayList<String>();
+                mirrorUrls.put(instanceUrl, urls);
+            }
+            urls.add(mirrorUrl);
+        }
+        return new NexusInstances(instanceUrls, mirrorUrls);
+    }
+
+    private static List<String> split(final String value) {
+        final List<String> result = new ArrayList<String>();
+        if (value != null) {
+            for (final String token : value.split("[,\\s]+")) {
+                if (token.length() > 0) {
+                    result.add(token);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static boolean isValidUrl(final String url) {
+        try {
+            new URL(url);
+            return true;
+        } catch (final MalformedURLException e) {
+            log("Ignoring invalid Nexus URL " + url);
+            return false;
+        }
+    }
+
+    private static void log(final String message) {
+        final Activator activator = Activator.getDefault();
+        if (activator != null) {
+            activator.getLog().log(new Status(IStatus.WARNING, Activator.PLUGIN_ID, message));
+        }
+    }
+
+    /**
+     * @return the base URL used for newly created repositories
+     */
+    public String getDefaultInstanceUrl() {
+        return endpoints.keySet().iterator().next();
+    }
+
+    /**
+     * @return the base URL of the instance the given URI belongs to, or <code>null</code> if it
+     *         does not belong to a configured instance
+     */
+    public String findInstanceUrl(final String uri) {
+        String result = null;
+        for (final String baseUrl : endpoints.keySet()) {
+            if (uri.startsWith(baseUrl) && (result == null || baseUrl.length() > result.length())) {
+                result = baseUrl;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the URLs from which the given resource of an instance can be fetched, best candidate
+     * first. URLs not belonging to an instance are returned unchanged.
+     */
+    public List<URL> getMetadataUrls(final URL url) {
+        final String urlString = url.toString();
+        final String instanceUrl = findInstanceUrl(urlString);
+        if (instanceUrl == null) {
+            return Collections.singletonList(url);
+        }
+        final List<Endpoint> candidates = new ArrayList<Endpoint>(endpoints.get(instanceUrl));
+        if (candidates.size() == 1) {
+            return Collections.singletonList(url);
+        }
+        Collections.sort(candidates, RANKING);
+        final String path = urlString.substring(instanceUrl.length());
+        final List<URL> result = new ArrayList<URL>(candidates.size());
+        for (final Endpoint candidate : candidates) {
+            try {
+                result.add(new URL(candidate.baseUrl + path));
+            } catch (final MalformedURLException e) {
+                // validated on parsing
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return all base URLs which have mirrors, including the mirrors themselves
+     */
+    List<String> getProbedUrls() {
+        final List<String> result = new ArrayList<String>();
+        for (final List<Endpoint> candidates : endpoints.values()) {
+            if (candidates.size() > 1) {
+                for (final Endpoint candidate : candidates) {
+                    result.add(candidate.baseUrl);
+                }
+            }
+        }
+        return result;
+    }
+
+    void recordLatency(final String baseUrl, final long latency) {
+        final Endpoint endpoint = endpointsByUrl.get(baseUrl);
+        if (endpoint != null) {
+            endpoint.latency = latency;
+            endpoint.healthy = true;
+        }
+    }
+
+    /**
+     * Marks the endpoint of the given URL as unhealthy until the next successful probe.
+     */
+    void recordFailure(final URL url) {
+        final String urlString = url.toString();
+        Endpoint match = null;
+        for (final Endpoint endpoint : endpointsByUrl.values()) {
+            if (urlString.startsWith(endpoint.baseUrl)
+                    && (match == null || endpoint.baseUrl.length() > match.baseUrl.length())) {
+                match = endpoint;
+            }
+        }
+        if (match != null) {
+            match.healthy = false;
+        }
+    }
+
+    private synchronized void startProbing() {
+        if (probeJob == null && !getProbedUrls().isEmpty()) {
+            probeJob = new NexusMirrorProbeJob(this);
+            probeJob.schedule();
+        }
+    }
+
+    private synchronized void stopProbing() {
+        if (probeJob != null) {
+            probeJob.cancel();
+            probeJob = null;
+        }
+    }
+}
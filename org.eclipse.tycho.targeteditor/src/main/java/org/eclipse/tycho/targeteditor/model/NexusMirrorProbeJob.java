@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) 2011, 2014 SAP AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    SAP AG - initial API and implementation
+ */
+package org.eclipse.tycho.targeteditor.model;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.tycho.targeteditor.http.ConnectionUnavailableException;
+import org.eclipse.tycho.targeteditor.http.HttpClient;
+import org.eclipse.tycho.targeteditor.http.HttpResponse;
+
+/**
+ * Periodically measures the response time of all Nexus instances with mirrors and of their
+ * mirrors. Unreachable endpoints are marked as unhealthy until they respond again.
+ */
+class NexusMirrorProbeJob extends Job {
+
+    static final long PROBE_INTERVAL = 5 * 60 * 1000L;
+
+    private final NexusInstances instances;
+
+    NexusMirrorProbeJob(final NexusInstances instances) {
+        super("Measuring latency of Nexus mirrors...");
+        this.instances = instances;
+        setSystem(true);
+        setPriority(DECORATE);
+    }
+
+    @Override
+    protected IStatus run(final IProgressMonitor monitor) {
+        for (final String baseUrl : instances.getProbedUrls()) {
+            if (monitor.isCanceled()) {
+                return Status.CANCEL_STATUS;
+            }
+            probe(baseUrl);
+        }
+        if (!monitor.isCanceled()) {
+            schedule(PROBE_INTERVAL);
+        }
+        return Status.OK_STATUS;
+    }
+
+    void probe(final String baseUrl) {
+        try {
+            final URL url = new URL(baseUrl);
+            final long start = System.nanoTime();
+            final HttpResponse response = HttpClient.getDefault().get(url, null, 0);
+            final long latency = (System.nanoTime() - start) / 1000000L;
+            response.close();
+            instances.recordLatency(baseUrl, latency);
+        } catch (final ConnectionUnavailableException e) {
+            // the mirror was not contacted, probe it next time
+        } catch (final IOException e) {
+            instances.recordFailure(toUrl(baseUrl));
+        }
+    }
+
+    private static URL toUrl(final String baseUrl) {
+        try {
+            return new URL(baseUrl);
+        } catch (final MalformedURLException e) {
+            throw new IllegalStateException("Invalid uri: " + baseUrl);
+        }
+    }
+}
@@ -17,17 +17,34 @@ import java.net.URL;
 
 class NexusRepository extends Repository implements INexusRepository {
 
-    private static final String NEXUS_URL_PREFIX = "http://nexus:8081/nexus/content/repositories/";
+    private static final String ARTIFACT_SUFFIX = ".zip-unzip";
+
+    private final String nexusUrl;
     private String repositoryName;
     private final String groupId;
     private final String artifactId;
     private String version;
     private final String artifactExtension;
     private final boolean endsWithSlash;
+    // computed on first use; computing and storing them is guarded by the lock of this instance,
+    // which the setters hold as well, so that a concurrent reader cannot store a URI of the old version
+    private volatile URI cachedUri;
+    private volatile URL mavenVersionMetaUrl;
 
     NexusRepository(final String repositoryName, final String groupId, final String artifactId, final String version,
             final String artifactExtension, final boolean endWithSlash) {
+        this(NexusInstances.getDefault().getDefaultInstanceUrl(), repositoryName, groupId, artifactId, version,
+                artifactExtension, endWithSlash);
+    }
+
+    /**
+     * @param nexusUrl
+     *            base URL of the repositories of the Nexus instance, ending with a slash
+     */
+    NexusRepository(final String nexusUrl, final String repositoryName, final String groupId,
+            final String artifactId, final String version, final String artifactExtension, final boolean endWithSlash) {
         super(null);
+        this.nexusUrl = nexusUrl;
         this.repositoryName = repositoryName;
         this.groupId = groupId;
         this.artifactId = artifactId;
@@ -38,13 +55,27 @@ class NexusRepository extends Repository implements INexusRepository {
 
     @Override
     public URI getURI() {
-        return buildUri();
+        URI result = cachedUri;
+        if (result == null) {
+            synchronized (this) {
+                result = cachedUri;
+                if (result == null) {
+                    result = buildUri();
+                    cachedUri = result;
+                }
+            }
+        }
+        return result;
     }
 
     @Override
     public void setVersion(final String version) {
-        final String oldVersion = getVersion();
-        this.version = version;
+        final String oldVersion;
+        synchronized (this) {
+            oldVersion = this.version;
+            this.version = version;
+            cachedUri = buildUri();
+        }
         super.fireModelObjectChanged(this, "version", oldVersion, version);
     }
 
@@ -92,13 +123,39 @@ class NexusRepository extends Repository implements INexusRepository {
         if (repoName == null || repoName.length() == 0) {
             throw new IllegalArgumentException("Argument must not be null");
         }
-        final String oldRepoName = this.repositoryName;
-        this.repositoryName = repoName;
-        super.fireModelObjectChanged(this, "repositoryName", oldRepoName, this.repositoryName);
+        final String oldRepoName;
+        synchronized (this) {
+            oldRepoName = this.repositoryName;
+            this.repositoryName = repoName;
+            cachedUri = buildUri();
+            mavenVersionMetaUrl = buildMavenVersionMetaUrl();
+        }
+        super.fireModelObjectChanged(this, "repositoryName", oldRepoName, repoName);
+    }
+
+    /**
+     * @return base URL of the repositories of the Nexus instance hosting this repository
+     */
+    String getNexusUrl() {
+        return nexusUrl;
     }
 
     URL getMavenVersionMetaUrl() {
-        final String metaUrl = NEXUS_URL_PREFIX + repositoryName + "/" + groupId.replace(".", "/") + "/" + artifactId
+        URL result = mavenVersionMetaUrl;
+        if (result == null) {
+            synchronized (this) {
+                result = mavenVersionMetaUrl;
+                if (result == null) {
+                    result = buildMavenVersionMetaUrl();
+                    mavenVersionMetaUrl = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    private URL buildMavenVersionMetaUrl() {
+        final String metaUrl = nexusUrl + repositoryName + "/" + groupId.replace(".", "/") + "/" + artifactId
                 + "/" + "maven-metadata.xml";
         URL result = null;
         try {
@@ -110,7 +167,7 @@ class NexusRepository extends Repository implements INexusRepository {
     }
 
     private URI buildUri() {
-        final String uriStr = NEXUS_URL_PREFIX + repositoryName + "/" + groupId.replace(".", "/") + "/" + artifactId
+        final String uriStr = nexusUrl + repositoryName + "/" + groupId.replace(".", "/") + "/" + artifactId
                 + "/" + version + "/" + artifactId + "-" + version + artifactExtension
                 + (this.endsWithSlash ? "/" : "");
         try {
@@ -123,7 +180,7 @@ class NexusRepository extends Repository implements INexusRepository {
 
     /**
      * Creates an instance of {@link IRepository} from the given URI. If the given URI represents a
-     * "Nexus URI" the created instance will be a {@link NexusRepository}, a {@link Repository}
+     * "Nexus URI" of one of the configured {@link NexusInstances} the created instance will be a {@link NexusRepository}, a {@link Repository}
      * otherwise.
      * 
      * @param The
@@ -132,45 +189,83 @@ class NexusRepository extends Repository implements INexusRepository {
      *         {@link Repository}
      */
     static IRepository createRepository(final URI uri) {
-        IRepository result = null;
         final String uriStr = uri.toString();
-        if (uriStr.startsWith(NEXUS_URL_PREFIX)) {
-            final String[] tokens = uri.toString().substring(NEXUS_URL_PREFIX.length()).split("/");
-            if (tokens.length >= 5) {
-                final String repositoryName = tokens[0];
-                int artifactIndex = tokens.length;
-                do {
-                    artifactIndex--;
-                } while (artifactIndex > 3 && !tokens[artifactIndex].endsWith(".zip-unzip"));
-                if (artifactIndex > 3) {
-                    final String artifact = tokens[artifactIndex];
-                    final String version = tokens[artifactIndex - 1];
-                    final String artifactId = tokens[artifactIndex - 2];
-
-                    final String arifactPrefix = artifactId + "-" + version;
-                    final boolean endsWithSlash = uriStr.endsWith("/");
-                    if (artifact.startsWith(arifactPrefix)) {
-                        String artifactExtension = artifact.substring(arifactPrefix.length());
-                        for (int i = artifactIndex + 1; i < tokens.length; i++) {
-                            artifactExtension = artifactExtension + "/" + tokens[i];
-                        }
-                        final StringBuilder groupId = new StringBuilder();
-                        for (int i = 1; i < artifactIndex - 2; i++) {
-                            if (i != 1) {
-                                groupId.append(".");
-                            }
-                            groupId.append(tokens[i]);
-                        }
-                        result = new NexusRepository(repositoryName, groupId.toString(), artifactId, version,
-                                artifactExtension, endsWithSlash);
-                    }
-                }
+        final String nexusUrl = NexusInstances.getDefault().findInstanceUrl(uriStr);
+        if (nexusUrl != null) {
+            final NexusRepository result = parseNexusUri(uriStr, nexusUrl);
+            if (result != null) {
+                return result;
             }
         }
-        if (result == null) {
-            result = new Repository(uri);
+        return new Repository(uri);
+    }
+
+    /**
+     * Parses the path following the instance URL, i.e.
+     * <code>repositoryName/group/path/artifactId/version/artifactId-version[-classifier].zip-unzip[/content]</code>
+     * . The segments are located from the end of the URI string, and only the parts of the
+     * repository are copied out of it.
+     * 
+     * @return the repository, or <code>null</code> if the path is not a Nexus artifact path
+     */
+    private static NexusRepository parseNexusUri(final String uriStr, final String nexusUrl) {
+        final int start = nexusUrl.length();
+        // trailing empty segments are ignored
+        int end = uriStr.length();
+        while (end > start && uriStr.charAt(end - 1) == '/') {
+            end--;
         }
-        return result;
+        // the artifact is the last segment ending with the artifact suffix
+        int artifactEnd = end;
+        int artifactStart = segmentStart(uriStr, start, artifactEnd);
+        while (artifactEnd - artifactStart < ARTIFACT_SUFFIX.length()
+                || !uriStr.startsWith(ARTIFACT_SUFFIX, artifactEnd - ARTIFACT_SUFFIX.length())) {
+            if (artifactStart == start) {
+                return null;
+            }
+            artifactEnd = artifactStart - 1;
+            artifactStart = segmentStart(uriStr, start, artifactEnd);
+        }
+        if (artifactStart == start) {
+            return null;
+        }
+        final int versionStart = segmentStart(uriStr, start, artifactStart - 1);
+        if (versionStart == start) {
+            return null;
+        }
+        final int artifactIdStart = segmentStart(uriStr, start, versionStart - 1);
+        final int repositoryNameEnd = uriStr.indexOf('/', start);
+        // at least one segment for the group id
+        if (artifactIdStart == start || repositoryNameEnd >= artifactIdStart - 1) {
+            return null;
+        }
+
+        // the artifact segment starts with "artifactId-version"
+        final int artifactIdLength = versionStart - 1 - artifactIdStart;
+        final int versionLength = artifactStart - 1 - versionStart;
+        final int extensionStart = artifactStart + artifactIdLength + 1 + versionLength;
+        if (extensionStart > artifactEnd
+                || !uriStr.regionMatches(artifactStart, uriStr, artifactIdStart, artifactIdLength)
+                || uriStr.charAt(artifactStart + artifactIdLength) != '-'
+                || !uriStr.regionMatches(artifactStart + artifactIdLength + 1, uriStr, versionStart, versionLength)) {
+            return null;
+        }
+
+        final String repositoryName = uriStr.substring(start, repositoryNameEnd);
+        final String groupId = uriStr.substring(repositoryNameEnd + 1, artifactIdStart - 1).replace('/', '.');
+        final String artifactId = uriStr.substring(artifactIdStart, versionStart - 1);
+        final String version = uriStr.substring(versionStart, artifactStart - 1);
+        final String artifactExtension = uriStr.substring(extensionStart, end);
+        return new NexusRepository(nexusUrl, repositoryName, groupId, artifactId, version, artifactExtension,
+                uriStr.endsWith("/"));
+    }
+
+    /**
+     * @return the start index of the segment ending at <code>end</code>, not before
+     *         <code>start</code>
+     */
+    private static int segmentStart(final String uriStr, final int start, final int end) {
+        return Math.max(start, uriStr.lastIndexOf('/', end - 1) + 1);
     }
 
 }
@@ -10,134 +10,178 @@
  */
 package org.eclipse.tycho.targeteditor.model;
 
+import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.InputStream;
 import java.net.URL;
-import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
-import org.eclipse.core.runtime.IProgressMonitor;
-import org.eclipse.core.runtime.IStatus;
-import org.eclipse.core.runtime.Status;
-import org.eclipse.core.runtime.jobs.Job;
-import org.eclipse.tycho.targeteditor.Activator;
-import org.eclipse.ui.IMemento;
+import org.eclipse.tycho.targeteditor.http.ConnectionUnavailableException;
+import org.eclipse.tycho.targeteditor.http.HttpClient;
+import org.eclipse.tycho.targeteditor.http.HttpResponse;
 import org.eclipse.ui.WorkbenchException;
-import org.eclipse.ui.XMLMemento;
 
 class NexusRepositoryService implements INexusRepositoryService {
-    static class CalculationRequest {
-        final INexusRepository repository;
-        final INexusVersionInfoCallback callback;
 
-        CalculationRequest(final INexusRepository repository, final INexusVersionInfoCallback callback) {
-            this.repository = repository;
-            this.callback = callback;
+    /**
+     * HTTP validators of a previously fetched maven-metadata.xml together with the version
+     * information parsed from it.
+     */
+    static final class CachedMetadata {
+        final String eTag;
+        final long lastModified;
+        final INexusVersionInfo versionInfo;
+
+        CachedMetadata(final String eTag, final long lastModified, final INexusVersionInfo versionInfo) {
+            this.eTag = eTag;
+            this.lastModified = lastModified;
+            this.versionInfo = versionInfo;
         }
     }
 
-    static class VersionCalculationJob extends Job {
-        static List<NexusRepositoryService.CalculationRequest> requests = new LinkedList<NexusRepositoryService.CalculationRequest>();
-        private final NexusRepositoryService repositoryService;
-
-        VersionCalculationJob(final String name, final NexusRepositoryService repositoryService) {
-            super(name);
-            this.repositoryService = repositoryService;
-        }
+    private final VersionRequestDispatcher dispatcher;
+    private final HttpClient httpClient;
+    private final NexusInstances nexusInstances;
+    private final MavenMetadataParser parser = new MavenMetadataParser();
+    private final ConcurrentMap<String, CachedMetadata> metadataCache = new ConcurrentHashMap<String, CachedMetadata>();
 
-        static void addRequest(final CalculationRequest request) {
-            synchronized (VersionCalculationJob.requests) {
-                requests.add(request);
-            }
-        }
-
-        @Override
-        protected IStatus run(final IProgressMonitor monitor) {
-            CalculationRequest request;
-            do {
-                request = null;
-                synchronized (VersionCalculationJob.requests) {
-                    if (!requests.isEmpty()) {
-                        request = requests.remove(0);
-                    }
-                }
-                if (request != null) {
-                    final String errorMessage = "Unable to calculate available versions";
-                    IStatus resultStatus = new Status(IStatus.ERROR, Activator.PLUGIN_ID, errorMessage);
-                    INexusVersionInfo result = null;
-                    try {
-                        try {
-                            result = repositoryService.getVersionInfo(request.repository);
-                            resultStatus = Status.OK_STATUS;
-                        } catch (final WorkbenchException e) {
-                            resultStatus = new Status(IStatus.ERROR, Activator.PLUGIN_ID, errorMessage, e);
-                        } catch (final IOException e) {
-                            resultStatus = new Status(IStatus.ERROR, Activator.PLUGIN_ID, errorMessage, e);
-                        }
-
-                    } finally {
-                        request.callback.notifyVersionCalculated(new NexusVersionCalculationResult(request.repository,
-                                result, resultStatus));
-                    }
-                }
-            } while (request != null);
-            return Status.OK_STATUS;
-        }
+    NexusRepositoryService() {
+        this(VersionRequestDispatcher.DEFAULT_WORKER_COUNT, VersionRequestDispatcher.DEFAULT_QUEUE_CAPACITY);
     }
 
-    private final List<VersionCalculationJob> versionCalculationJobs;
+    /**
+     * @param workerCount
+     *            maximum number of concurrently running version calculation jobs
+     * @param queueCapacity
+     *            maximum number of distinct requests waiting for a worker; further requests wait
+     *            in the background, {@link #getVersionInfoAsync(INexusRepository, INexusVersionInfoCallback)}
+     *            never blocks
+     */
+    NexusRepositoryService(final int workerCount, final int queueCapacity) {
+        this(workerCount, queueCapacity, HttpClient.getDefault(), null);
+    }
 
-    NexusRepositoryService() {
-        versionCalculationJobs = new ArrayList<NexusRepositoryService.VersionCalculationJob>(10);
-        for (int i = 0; i < 10; i++) {
-            versionCalculationJobs.add(new VersionCalculationJob("Fetching available versions from Nexus...", this));
-        }
+    /**
+     * @param nexusInstances
+     *            the instances and mirrors to use, or <code>null</code> to use the currently
+     *            configured {@link NexusInstances#getDefault()}
+     */
+    NexusRepositoryService(final int workerCount, final int queueCapacity, final HttpClient httpClient,
+            final NexusInstances nexusInstances) {
+        this.httpClient = httpClient;
+        this.nexusInstances = nexusInstances;
+        dispatcher = new VersionRequestDispatcher(this, workerCount, queueCapacity);
     }
 
     @Override
     public INexusVersionInfo getVersionInfo(final INexusRepository repository) throws WorkbenchException, IOException {
         if (repository instanceof NexusRepository) {
             final NexusRepository nexusRepo = (NexusRepository) repository;
-            final URL metaDataUrl = nexusRepo.getMavenVersionMetaUrl();
-            return new NexusVersionInfo(getMemento(metaDataUrl));
+            return getVersionInfo(nexusRepo.getMavenVersionMetaUrl());
         }
         throw new IllegalArgumentException("Not an instance of NexusRepository.");
     }
 
-    IMemento getMemento(final URL metaDataUrl) throws WorkbenchException, IOException {
-        IMemento memento = null;
-        InputStreamReader reader = null;
+    /**
+     * Fetches the metadata from the best mirror of the Nexus instance. If the connection or the
+     * request to a mirror fails, the mirror is marked as unhealthy and the next one is tried. A
+     * timeout while waiting for a pooled connection is not the fault of the mirror and is passed on
+     * right away, as the pool is shared by all mirrors.
+     */
+    INexusVersionInfo getVersionInfo(final URL metaDataUrl) throws WorkbenchException, IOException {
+        final NexusInstances instances = nexusInstances != null ? nexusInstances : NexusInstances.getDefault();
+        final String cacheKey = metaDataUrl.toString();
+        IOException failure = null;
+        for (final URL url : instances.getMetadataUrls(metaDataUrl)) {
+            try {
+                return getVersionInfo(cacheKey, url);
+            } catch (final FileNotFoundException e) {
+                // the mirror is reachable but may not be up-to-date
+                failure = e;
+            } catch (final ConnectionUnavailableException e) {
+                throw e;
+            } catch (final IOException e) {
+                instances.recordFailure(url);
+                failure = e;
+            }
+        }
+        throw failure;
+    }
+
+    /**
+     * Revalidates previously fetched metadata with a conditional request. In case the server
+     * answers with 304 (Not Modified) the previously parsed version information is returned
+     * without downloading and parsing the file again.
+     */
+    private INexusVersionInfo getVersionInfo(final String cacheKey, final URL url) throws WorkbenchException,
+            IOException {
+        final CachedMetadata cached = metadataCache.get(cacheKey);
+        final HttpResponse response = cached == null ? httpClient.get(url, null, 0) : httpClient.get(url,
+                cached.eTag, cached.lastModified);
         try {
-            reader = new InputStreamReader(metaDataUrl.openStream());
-            memento = XMLMemento.createReadRoot(reader);
-        } finally {
-            if (reader != null) {
-                reader.close();
+            if (cached != null && response.isNotModified()) {
+                return cached.versionInfo;
             }
+            final INexusVersionInfo versionInfo = parse(response.getContent());
+            final String eTag = response.getETag();
+            final long lastModified = response.getLastModified();
+            if (eTag != null || lastModified > 0) {
+                metadataCache.put(cacheKey, new CachedMetadata(eTag, lastModified, versionInfo));
+            } else {
+                metadataCache.remove(cacheKey);
+            }
+            return versionInfo;
+        } finally {
+            response.close();
+        }
+    }
+
+    private INexusVersionInfo parse(final InputStream stream) throws WorkbenchException, IOException {
+        try {
+            return parser.parse(stream);
+        } finally {
+            stream.close();
         }
-        return memento;
     }
 
     @Override
     public void getVersionInfoAsync(final INexusRepository repository, final INexusVersionInfoCallback callback) {
-        final CalculationRequest request = new CalculationRequest(repository, callback);
-        VersionCalculationJob.addRequest(request);
-        boolean allJobsBusy = true;
-        for (final VersionCalculationJob job : versionCalculationJobs) {
-            if (job.getState() != Job.RUNNING) {
-                job.schedule();
-                allJobsBusy = false;
-                break;
-            }
+        dispatcher.submit(getRequestKey(repository), repository, callback);
+    }
+
+    @Override
+    public void getVersionInfoAsync(final List<INexusRepository> repositories,
+            final INexusVersionInfoBatchCallback callback) {
+        final VersionBatch batch = new VersionBatch(repositories.size(), callback);
+        if (repositories.isEmpty()) {
+            batch.completeEmpty();
+            return;
         }
-        if (allJobsBusy) {
-            // No free job. The request will be handled by one currently running job.
-            // To avoid the once in a life time state that all jobs are running, but already left the request loop a new job has to be scheduled.
-            // Any job would do. To get the next free job, just schedule them all. 
-            for (final VersionCalculationJob job : versionCalculationJobs) {
-                job.schedule();
-            }
+        for (final INexusRepository repository : repositories) {
+            getVersionInfoAsync(repository, batch);
+        }
+    }
+
+    /**
+     * Requests for repositories sharing the same maven-metadata.xml are served by a single fetch.
+     */
+    private Object getRequestKey(final INexusRepository repository) {
+        if (repository instanceof NexusRepository) {
+            return ((NexusRepository) repository).getMavenVersionMetaUrl().toString();
         }
+        return repository;
+    }
+
+    VersionRequestDispatcher getDispatcher() {
+        return dispatcher;
+    }
+
+    /**
+     * @return the number of metadata URLs for which validators are known
+     */
+    int getCachedMetadataCount() {
+        return metadataCache.size();
     }
 }
@@ -10,64 +10,49 @@
  */
 package org.eclipse.tycho.targeteditor.model;
 
-import java.util.ArrayList;
 import java.util.List;
 
-import org.eclipse.ui.IMemento;
-import org.eclipse.ui.WorkbenchException;
-
+/**
+ * Immutable version information extracted from a maven-metadata.xml file.
+ */
 class NexusVersionInfo implements INexusVersionInfo {
 
-    private static final String TAG_RELEASE = "release";
-    private static final String TAG_LATEST = "latest";
-    private static final String TAG_VERSION = "version";
-    private static final String TAG_VERSIONS = "versions";
-    private static final String TAG_VERSIONING = "versioning";
-
-    private final IMemento memento;
+    private final String latestVersion;
+    private final String latestReleaseVersion;
+    private final VersionTable versions;
 
-    public NexusVersionInfo(final IMemento memento) throws WorkbenchException {
-        this.memento = memento;
-        validate();
-    }
-
-    private void validate() throws WorkbenchException {
-        final String missing_tag_msg = "maven-metadata.xml does not contain tag ";
-        if (memento.getChild(TAG_VERSIONING) == null) {
-            throw new WorkbenchException(missing_tag_msg + TAG_VERSIONING);
-        }
-        if (memento.getChild(TAG_VERSIONING).getChild(TAG_VERSIONS) == null) {
-            throw new WorkbenchException(missing_tag_msg + TAG_VERSIONS);
-        }
-        if (memento.getChild(TAG_VERSIONING).getChild(TAG_LATEST) == null) {
-            throw new WorkbenchException(missing_tag_msg + TAG_LATEST);
+    NexusVersionInfo(final String latestVersion, final String latestReleaseVersion, final List<String> versions) {
+        if (latestVersion == null || versions == null) {
+            throw new IllegalArgumentException("Latest version and versions must not be null");
         }
+        this.latestVersion = latestVersion.intern();
+        this.latestReleaseVersion = latestReleaseVersion != null ? latestReleaseVersion.intern() : null;
+        this.versions = new VersionTable(versions);
     }
 
     @Override
     public String getLatestVersion() {
-        final String latestVersion = memento.getChild(TAG_VERSIONING).getChild(TAG_LATEST).getTextData();
         return latestVersion;
     }
 
     @Override
     public String getLatestReleaseVersion() {
-        final IMemento releaseTag = memento.getChild(TAG_VERSIONING).getChild(TAG_RELEASE);
-        String latestReleaseVersion = null;
-        if (releaseTag != null) {
-            latestReleaseVersion = releaseTag.getTextData();
-        }
         return latestReleaseVersion;
     }
 
     @Override
     public List<String> getVersions() {
-        final IMemento[] versions = memento.getChild(TAG_VERSIONING).getChild(TAG_VERSIONS).getChildren(TAG_VERSION);
-        final List<String> result = new ArrayList<String>();
-        for (final IMemento version : versions) {
-            result.add(version.getTextData());
-        }
-        return result;
+        return versions.ascending();
+    }
+
+    @Override
+    public List<String> getVersionsDescending() {
+        return versions.descending();
+    }
+
+    @Override
+    public boolean containsVersion(final String version) {
+        return versions.contains(version);
     }
 
 }
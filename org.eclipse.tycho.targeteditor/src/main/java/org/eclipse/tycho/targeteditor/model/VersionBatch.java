@@ -0,0 +1,110 @@
+/**
+ * Copyright (c) 2011, 2014 SAP AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    SAP AG - initial API and implementation
+ */
+package org.eclipse.tycho.targeteditor.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.tycho.targeteditor.Activator;
+
+/**
+ * Collects the results of the single version calculations of a batch and passes them to the batch
+ * callback in a few coalesced notifications: a partial notification is sent when a share of
+ * {@link #PARTIAL_NOTIFICATIONS} of the batch is complete or when the oldest pending result waited
+ * for {@link #MAX_DELAY}, and a final one when all calculations are complete. The delay is enforced
+ * by a timer job, so that pending results are passed on even if no further result arrives.
+ */
+class VersionBatch implements INexusVersionInfoCallback {
+
+    static final int PARTIAL_NOTIFICATIONS = 4;
+    static final long MAX_DELAY = 500;
+
+    private final INexusVersionInfoBatchCallback callback;
+    private final int size;
+    private final int notificationThreshold;
+    private final List<NexusVersionCalculationResult> pendingResults = new ArrayList<NexusVersionCalculationResult>();
+    private int completedCount;
+    /** arrival time of the oldest pending result */
+    private long oldestPendingTime;
+    private final Job flushJob = new Job("Notify version calculation results") {
+        @Override
+        protected IStatus run(final IProgressMonitor monitor) {
+            flushOverdueResults();
+            return Status.OK_STATUS;
+        }
+    };
+
+    VersionBatch(final int size, final INexusVersionInfoBatchCallback callback) {
+        this.size = size;
+        this.callback = callback;
+        this.notificationThreshold = Math.max(1, (size + PARTIAL_NOTIFICATIONS - 1) / PARTIAL_NOTIFICATIONS);
+        flushJob.setSystem(true);
+    }
+
+    /**
+     * Notifies the callback about an empty batch. Only to be called for batches of size 0.
+     */
+    void completeEmpty() {
+        notifyCallback(Collections.<NexusVersionCalculationResult> emptyList(), true);
+    }
+
+    @Override
+    public synchronized void notifyVersionCalculated(final NexusVersionCalculationResult calculationResult) {
+        final long now = System.currentTimeMillis();
+        final boolean firstPending = pendingResults.isEmpty();
+        if (firstPending) {
+            oldestPendingTime = now;
+        }
+        pendingResults.add(calculationResult);
+        completedCount++;
+        final boolean completed = completedCount == size;
+        if (completed || pendingResults.size() >= notificationThreshold || now - oldestPendingTime >= MAX_DELAY) {
+            flush(completed);
+        } else if (firstPending) {
+            flushJob.schedule(MAX_DELAY);
+        }
+    }
+
+    private synchronized void flushOverdueResults() {
+        if (pendingResults.isEmpty()) {
+            return;
+        }
+        // the job may have been scheduled for results which were flushed meanwhile
+        final long age = System.currentTimeMillis() - oldestPendingTime;
+        if (age >= MAX_DELAY) {
+            flush(false);
+        } else {
+            flushJob.schedule(MAX_DELAY - age);
+        }
+    }
+
+    private void flush(final boolean completed) {
+        final List<NexusVersionCalculationResult> results = new ArrayList<NexusVersionCalculationResult>(
+                pendingResults);
+        pendingResults.clear();
+        // notify while holding the lock, so that notifications do not overtake each other
+        notifyCallback(results, completed);
+    }
+
+    private void notifyCallback(final List<NexusVersionCalculationResult> results, final boolean completed) {
+        try {
+            callback.notifyVersionsCalculated(results, completed);
+        } catch (final RuntimeException e) {
+            Activator.getDefault().getLog()
+                    .log(new Status(IStatus.ERROR, Activator.PLUGIN_ID, "Version calculation callback failed", e));
+        }
+    }
+}
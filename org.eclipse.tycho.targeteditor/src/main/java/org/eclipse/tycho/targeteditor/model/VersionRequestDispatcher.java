@@ -0,0 +1,248 @@
+/**
+ * Copyright (c) 2011, 2014 SAP AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    SAP AG - initial API and implementation
+ */
+package org.eclipse.tycho.targeteditor.model;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.tycho.targeteditor.Activator;
+import org.eclipse.ui.WorkbenchException;
+
+/**
+ * Dispatches asynchronous version calculation requests to a bounded number of worker jobs.
+ * Requests are keyed (e.g. by the maven-metadata.xml URL). A request for a key which is already
+ * queued or being fetched does not cause a second fetch; its callback is attached to the pending
+ * request and notified together with all other callbacks once the single fetch completes.
+ * <p>
+ * The number of requests waiting for a worker is bounded by the queue capacity. Submitting never
+ * blocks, as the caller is often the UI thread: while the queue is full, new keys are handed to an
+ * overflow job, which waits for space in the queue instead of the caller. There is intentionally no
+ * back-pressure on the caller, so the number of pending keys is bounded only by the number of
+ * distinct artifacts requested.
+ */
+class VersionRequestDispatcher {
+
+    static final int DEFAULT_WORKER_COUNT = 10;
+    static final int DEFAULT_QUEUE_CAPACITY = 1000;
+    private static final String ERROR_MESSAGE = "Unable to calculate available versions";
+
+    static final class PendingRequest {
+        final Object key;
+        final INexusRepository repository;
+        private final List<INexusRepository> repositories = new ArrayList<INexusRepository>();
+        private final List<INexusVersionInfoCallback> callbacks = new ArrayList<INexusVersionInfoCallback>();
+        private boolean completed;
+
+        PendingRequest(final Object key, final INexusRepository repository) {
+            this.key = key;
+            this.repository = repository;
+        }
+
+        /**
+         * @return <code>false</code> if the request already completed and the callback was not
+         *         attached
+         */
+        synchronized boolean attach(final INexusRepository requestingRepository,
+                final INexusVersionInfoCallback callback) {
+            if (completed) {
+                return false;
+            }
+            repositories.add(requestingRepository);
+            callbacks.add(callback);
+            return true;
+        }
+
+        synchronized void complete(final List<INexusRepository> attachedRepositories,
+                final List<INexusVersionInfoCallback> attachedCallbacks) {
+            completed = true;
+            attachedRepositories.addAll(repositories);
+            attachedCallbacks.addAll(callbacks);
+        }
+    }
+
+    class WorkerJob extends Job {
+
+        WorkerJob() {
+            super("Fetching available versions from Nexus...");
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(final IProgressMonitor monitor) {
+            do {
+                PendingRequest request;
+                while ((request = queue.poll()) != null) {
+                    process(request);
+                }
+                activeWorkers.decrementAndGet();
+                // a request might have been queued after the last poll but before the decrement
+            } while (!queue.isEmpty() && tryAcquireWorker());
+            return Status.OK_STATUS;
+        }
+    }
+
+    /**
+     * Moves the requests which did not fit into the queue, waiting for space.
+     */
+    class OverflowJob extends Job {
+
+        OverflowJob() {
+            super("Queueing version requests");
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(final IProgressMonitor monitor) {
+            PendingRequest request;
+            while ((request = overflow.poll()) != null) {
+                try {
+                    queue.put(request);
+                } catch (final InterruptedException e) {
+                    // continue in a new run instead of failing all remaining requests
+                    overflow.add(request);
+                    schedule();
+                    return Status.OK_STATUS;
+                }
+                startWorker();
+            }
+            return Status.OK_STATUS;
+        }
+    }
+
+    private final INexusRepositoryService service;
+    private final int workerCount;
+    private final ConcurrentMap<Object, PendingRequest> pendingRequests = new ConcurrentHashMap<Object, PendingRequest>();
+    private final BlockingQueue<PendingRequest> queue;
+    private final AtomicInteger activeWorkers = new AtomicInteger();
+    private final ConcurrentLinkedQueue<PendingRequest> overflow = new ConcurrentLinkedQueue<PendingRequest>();
+    private final Job overflowJob = new OverflowJob();
+
+    VersionRequestDispatcher(final INexusRepositoryService service) {
+        this(service, DEFAULT_WORKER_COUNT, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    VersionRequestDispatcher(final INexusRepositoryService service, final int workerCount, final int queueCapacity) {
+        if (workerCount < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("Worker count and queue capacity must be positive");
+        }
+        this.service = service;
+        this.workerCount = workerCount;
+        this.queue = new LinkedBlockingQueue<PendingRequest>(queueCapacity);
+    }
+
+    /**
+     * Submits a version calculation request. In case a request with the same key is already
+     * pending, the callback is attached to it and no additional fetch is triggered.
+     *
+     * @param key
+     *            identifies the resource to be fetched
+     * @param repository
+     *            the repository the version information is requested for
+     * @param callback
+     *            notified with a result carrying the given repository
+     */
+    void submit(final Object key, final INexusRepository repository, final INexusVersionInfoCallback callback) {
+        while (true) {
+            PendingRequest request = pendingRequests.get(key);
+            if (request == null) {
+                final PendingRequest newRequest = new PendingRequest(key, repository);
+                newRequest.attach(repository, callback);
+                request = pendingRequests.putIfAbsent(key, newRequest);
+                if (request == null) {
+                    enqueue(newRequest);
+                    return;
+                }
+            }
+            if (request.attach(repository, callback)) {
+                return;
+            }
+            // the pending request completed concurrently: retry with a new one
+        }
+    }
+
+    /**
+     * @return the number of distinct keys currently queued or being fetched
+     */
+    int getPendingCount() {
+        return pendingRequests.size();
+    }
+
+    private void enqueue(final PendingRequest request) {
+        if (queue.offer(request)) {
+            startWorker();
+        } else {
+            overflow.add(request);
+            // if the job is running, it is scheduled again when done
+            overflowJob.schedule();
+        }
+    }
+
+    private void startWorker() {
+        if (tryAcquireWorker()) {
+            new WorkerJob().schedule();
+        }
+    }
+
+    private boolean tryAcquireWorker() {
+        int active;
+        do {
+            active = activeWorkers.get();
+            if (active >= workerCount) {
+                return false;
+            }
+        } while (!activeWorkers.compareAndSet(active, active + 1));
+        return true;
+    }
+
+    private void process(final PendingRequest request) {
+        INexusVersionInfo result = null;
+        IStatus resultStatus;
+        try {
+            result = service.getVersionInfo(request.repository);
+            resultStatus = Status.OK_STATUS;
+        } catch (final WorkbenchException e) {
+            resultStatus = new Status(IStatus.ERROR, Activator.PLUGIN_ID, ERROR_MESSAGE, e);
+        } catch (final IOException e) {
+            resultStatus = new Status(IStatus.ERROR, Activator.PLUGIN_ID, ERROR_MESSAGE, e);
+        } catch (final RuntimeException e) {
+            resultStatus = new Status(IStatus.ERROR, Activator.PLUGIN_ID, ERROR_MESSAGE, e);
+        }
+        // stop attaching callbacks before notifying. Later requests for the key start a new fetch
+        pendingRequests.remove(request.key, request);
+        notifyCallbacks(request, result, resultStatus);
+    }
+
+    private void notifyCallbacks(final PendingRequest request, final INexusVersionInfo result, final IStatus status) {
+        final List<INexusRepository> repositories = new ArrayList<INexusRepository>();
+        final List<INexusVersionInfoCallback> callbacks = new ArrayList<INexusVersionInfoCallback>();
+        request.complete(repositories, callbacks);
+        for (int i = 0; i < callbacks.size(); i++) {
+            try {
+                callbacks.get(i).notifyVersionCalculated(
+                        new NexusVersionCalculationResult(repositories.get(i), result, status));
+            } catch (final RuntimeException e) {
+                Activator.getDefault().getLog()
+                        .log(new Status(IStatus.ERROR, Activator.PLUGIN_ID, "Version calculation callback failed", e));
+            }
+        }
+    }
+}
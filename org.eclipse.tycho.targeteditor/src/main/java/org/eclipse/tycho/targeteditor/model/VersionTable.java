@@ -0,0 +1,115 @@
+/**
+ * Copyright (c) 2011, 2014 SAP AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    SAP AG - initial API and implementation
+ */
+package org.eclipse.tycho.targeteditor.model;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * Immutable set of versions sorted by {@link MavenVersionComparator}. The version strings are
+ * interned, membership is checked in constant time, and the ascending and descending views share
+ * the same backing array.
+ */
+final class VersionTable {
+
+    private final class View extends AbstractList<String> implements RandomAccess {
+        private final boolean descending;
+
+        View(final boolean descending) {
+            this.descending = descending;
+        }
+
+        @Override
+        public String get(final int index) {
+            if (index < 0 || index >= versions.length) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + versions.length);
+            }
+            return descending ? versions[versions.length - 1 - index] : versions[index];
+        }
+
+        @Override
+        public int size() {
+            return versions.length;
+        }
+
+        @Override
+        public boolean contains(final Object o) {
+            return index.containsKey(o);
+        }
+
+        @Override
+        public int indexOf(final Object o) {
+            final Integer position = index.get(o);
+            if (position == null) {
+                return -1;
+            }
+            return descending ? versions.length - 1 - position.intValue() : position.intValue();
+        }
+
+        @Override
+        public int lastIndexOf(final Object o) {
+            return indexOf(o);
+        }
+    }
+
+    private final String[] versions;
+    private final Map<String, Integer> index;
+    private final List<String> ascendingView = new View(false);
+    private final List<String> descendingView = new View(true);
+
+    /**
+     * @param unsortedVersions
+     *            versions in any order; duplicates are removed
+     */
+    VersionTable(final Collection<String> unsortedVersions) {
+        final String[] sorted = new String[unsortedVersions.size()];
+        int count = 0;
+        for (final String version : unsortedVersions) {
+            sorted[count++] = version.intern();
+        }
+        Arrays.sort(sorted, MavenVersionComparator.INSTANCE);
+        // remove duplicates, which are adjacent after sorting
+        int distinct = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (distinct == 0 || !sorted[distinct - 1].equals(sorted[i])) {
+                sorted[distinct++] = sorted[i];
+            }
+        }
+        this.versions = distinct == sorted.length ? sorted : Arrays.copyOf(sorted, distinct);
+        this.index = new HashMap<String, Integer>(versions.length * 4 / 3 + 1);
+        for (int i = 0; i < versions.length; i++) {
+            index.put(versions[i], Integer.valueOf(i));
+        }
+    }
+
+    boolean contains(final String version) {
+        return index.containsKey(version);
+    }
+
+    /**
+     * @return unmodifiable list of all versions, oldest first
+     */
+    List<String> ascending() {
+        return ascendingView;
+    }
+
+    /**
+     * @return unmodifiable list of all versions, newest first
+     */
+    List<String> descending() {
+        return descendingView;
+    }
+}
@@ -16,4 +16,28 @@ package org.eclipse.tycho.targeteditor.preferences;
 public class PreferenceConstants {
 
     public static final String P_RECOMMENDED_REPOSITORIES_URL = "recommendedRepositoriesUrlPreference";
+
+    /** time-to-live in minutes of cached versions of artifacts whose latest version is a snapshot */
+    public static final String P_SNAPSHOT_VERSIONS_TTL = "snapshotVersionsTimeToLivePreference";
+    /** time-to-live in minutes of cached versions of all other artifacts */
+    public static final String P_RELEASE_VERSIONS_TTL = "releaseVersionsTimeToLivePreference";
+    /** maximum number of artifacts in the version cache */
+    public static final String P_VERSION_CACHE_MAX_ENTRIES = "versionCacheMaxEntriesPreference";
+    /** connect timeout in seconds of HTTP requests */
+    public static final String P_HTTP_CONNECT_TIMEOUT = "httpConnectTimeoutPreference";
+    /** read timeout in seconds of HTTP requests */
+    public static final String P_HTTP_READ_TIMEOUT = "httpReadTimeoutPreference";
+    /** comma separated base URLs of the repositories of the Nexus instances; the first is the default */
+    public static final String P_NEXUS_INSTANCES = "nexusInstancesPreference";
+    /** comma separated mirrors of the Nexus instances in the form mirrorUrl[=instanceUrl] */
+    public static final String P_NEXUS_MIRRORS = "nexusMirrorsPreference";
+    /** maximum number of stack frames per exception shown in the resolution problem details */
+    public static final String P_MAX_STACK_FRAMES = "maxStackFramesPreference";
+
+    public static final int DEFAULT_SNAPSHOT_VERSIONS_TTL = 15;
+    public static final int DEFAULT_RELEASE_VERSIONS_TTL = 120;
+    public static final int DEFAULT_VERSION_CACHE_MAX_ENTRIES = 2000;
+    public static final int DEFAULT_HTTP_CONNECT_TIMEOUT = 10;
+    public static final int DEFAULT_HTTP_READ_TIMEOUT = 30;
+    public static final int DEFAULT_MAX_STACK_FRAMES = 20;
 }
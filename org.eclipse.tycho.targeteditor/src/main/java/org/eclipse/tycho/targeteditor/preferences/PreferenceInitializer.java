@@ -14,6 +14,7 @@ import org.eclipse.core.runtime.preferences.AbstractPreferenceInitializer;
 import org.eclipse.core.runtime.preferences.DefaultScope;
 import org.eclipse.core.runtime.preferences.IEclipsePreferences;
 import org.eclipse.tycho.targeteditor.Activator;
+import org.eclipse.tycho.targeteditor.model.NexusInstances;
 
 public class PreferenceInitializer extends AbstractPreferenceInitializer {
 
@@ -22,6 +23,15 @@ public class PreferenceInitializer extends AbstractPreferenceInitializer {
         final IEclipsePreferences node = DefaultScope.INSTANCE.getNode(Activator.PLUGIN_ID);
         node.put(PreferenceConstants.P_RECOMMENDED_REPOSITORIES_URL,
                 "https://projectportal.neo.ondemand.com/api/recommended-updatesites/neo");
+        node.putInt(PreferenceConstants.P_SNAPSHOT_VERSIONS_TTL, PreferenceConstants.DEFAULT_SNAPSHOT_VERSIONS_TTL);
+        node.putInt(PreferenceConstants.P_RELEASE_VERSIONS_TTL, PreferenceConstants.DEFAULT_RELEASE_VERSIONS_TTL);
+        node.putInt(PreferenceConstants.P_VERSION_CACHE_MAX_ENTRIES,
+                PreferenceConstants.DEFAULT_VERSION_CACHE_MAX_ENTRIES);
+        node.putInt(PreferenceConstants.P_HTTP_CONNECT_TIMEOUT, PreferenceConstants.DEFAULT_HTTP_CONNECT_TIMEOUT);
+        node.putInt(PreferenceConstants.P_HTTP_READ_TIMEOUT, PreferenceConstants.DEFAULT_HTTP_READ_TIMEOUT);
+        node.put(PreferenceConstants.P_NEXUS_INSTANCES, NexusInstances.DEFAULT_INSTANCE_URL);
+        node.put(PreferenceConstants.P_NEXUS_MIRRORS, "");
+        node.putInt(PreferenceConstants.P_MAX_STACK_FRAMES, PreferenceConstants.DEFAULT_MAX_STACK_FRAMES);
     }
 
 }
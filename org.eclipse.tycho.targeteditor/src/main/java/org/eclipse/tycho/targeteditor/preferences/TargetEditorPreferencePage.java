@@ -11,6 +11,8 @@
 package org.eclipse.tycho.targeteditor.preferences;
 
 import org.eclipse.jface.preference.FieldEditorPreferencePage;
+import org.eclipse.jface.preference.IntegerFieldEditor;
+import org.eclipse.jface.preference.StringFieldEditor;
 import org.eclipse.tycho.targeteditor.Activator;
 import org.eclipse.ui.IWorkbench;
 import org.eclipse.ui.IWorkbenchPreferencePage;
@@ -20,13 +22,35 @@ public class TargetEditorPreferencePage extends FieldEditorPreferencePage implem
     public TargetEditorPreferencePage() {
         super(GRID);
         setPreferenceStore(Activator.getDefault().getPreferenceStore());
-        setDescription("Location of the configuration file which contains the "
-                + "recommended repositories for the Tycho Target Editor");
+        setDescription("Settings of the Tycho Target Editor: recommended repositories, version caching and "
+                + "Nexus access. Separate multiple Nexus URLs by commas; the first one is used for new repositories.");
     }
 
     @Override
     public void createFieldEditors() {
         addField(new URLFieldEditor(PreferenceConstants.P_RECOMMENDED_REPOSITORIES_URL, "&URL:", getFieldEditorParent()));
+        addField(createPositiveIntegerField(PreferenceConstants.P_SNAPSHOT_VERSIONS_TTL,
+                "&Snapshot versions expire after (minutes):"));
+        addField(createPositiveIntegerField(PreferenceConstants.P_RELEASE_VERSIONS_TTL,
+                "&Release versions expire after (minutes):"));
+        addField(createPositiveIntegerField(PreferenceConstants.P_VERSION_CACHE_MAX_ENTRIES,
+                "&Maximum number of cached artifacts:"));
+        addField(createPositiveIntegerField(PreferenceConstants.P_HTTP_CONNECT_TIMEOUT,
+                "&Connect timeout of HTTP requests (seconds):"));
+        addField(createPositiveIntegerField(PreferenceConstants.P_HTTP_READ_TIMEOUT,
+                "R&ead timeout of HTTP requests (seconds):"));
+        addField(new StringFieldEditor(PreferenceConstants.P_NEXUS_INSTANCES, "&Nexus instances:",
+                getFieldEditorParent()));
+        addField(new StringFieldEditor(PreferenceConstants.P_NEXUS_MIRRORS, "Nexus mirr&ors (mirror[=instance]):",
+                getFieldEditorParent()));
+        addField(createPositiveIntegerField(PreferenceConstants.P_MAX_STACK_FRAMES,
+                "Maximum s&tack frames per exception in resolution problem details:"));
+    }
+
+    private IntegerFieldEditor createPositiveIntegerField(final String name, final String labelText) {
+        final IntegerFieldEditor editor = new IntegerFieldEditor(name, labelText, getFieldEditorParent());
+        editor.setValidRange(1, Integer.MAX_VALUE);
+        return editor;
     }
 
     @Override
@@ -20,6 +20,7 @@ import org.eclipse.jface.dialogs.MessageDialog;
 import org.eclipse.jface.preference.StringButtonFieldEditor;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.tycho.targeteditor.Activator;
+import org.eclipse.tycho.targeteditor.http.HttpClient;
 import org.eclipse.tycho.targeteditor.xml.RecommededRepositoriesParser;
 import org.eclipse.tycho.targeteditor.xml.RecommededRepositoriesParserException;
 
@@ -55,7 +56,7 @@ final class URLFieldEditor extends StringButtonFieldEditor {
 
     private IStatus validateContent(final URL url) {
         try {
-            final InputStream inputStream = url.openStream();
+            final InputStream inputStream = HttpClient.getDefault().openStream(url);
             try {
                 new RecommededRepositoriesParser().parse(inputStream);
             } finally {
@@ -0,0 +1,62 @@
+/**
+ * Copyright (c) 2011, 2014 SAP AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    SAP AG - initial API and implementation
+ */
+package org.eclipse.tycho.targeteditor.updater;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.core.runtime.IStatus;
+
+/**
+ * Outcome of updating a single target definition file.
+ */
+public final class TargetUpdateResult {
+
+    private final File file;
+    private final List<String> changes;
+    private final IStatus status;
+
+    TargetUpdateResult(final File file, final List<String> changes, final IStatus status) {
+        this.file = file;
+        this.changes = Collections.unmodifiableList(changes);
+        this.status = status;
+    }
+
+    /**
+     * @return the target definition file
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * @return the changed repositories in the form
+     *         <code>groupId:artifactId oldVersion -&gt; newVersion</code>
+     */
+    public List<String> getChanges() {
+        return changes;
+    }
+
+    /**
+     * @return OK if all Nexus repositories of the file were checked, otherwise the problems
+     */
+    public IStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * @return <code>true</code> if the file was (or, in a dry run, would have been) rewritten
+     */
+    public boolean isChanged() {
+        return !changes.isEmpty();
+    }
+}
@@ -0,0 +1,424 @@
+/**
+ * Copyright (c) 2011, 2014 SAP AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    SAP AG - initial API and implementation
+ */
+package org.eclipse.tycho.targeteditor.updater;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.MultiStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.core.runtime.jobs.IJobChangeEvent;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.JobChangeAdapter;
+import org.eclipse.pde.core.target.ITargetDefinition;
+import org.eclipse.pde.core.target.ITargetHandle;
+import org.eclipse.pde.core.target.ITargetPlatformService;
+import org.eclipse.tycho.targeteditor.Activator;
+import org.eclipse.tycho.targeteditor.model.ILDIRepositoryLocation;
+import org.eclipse.tycho.targeteditor.model.ILDITargetDefintion;
+import org.eclipse.tycho.targeteditor.model.INexusRepository;
+import org.eclipse.tycho.targeteditor.model.INexusRepositoryService;
+import org.eclipse.tycho.targeteditor.model.INexusVersionInfo;
+import org.eclipse.tycho.targeteditor.model.INexusVersionInfoCallback;
+import org.eclipse.tycho.targeteditor.model.IRepository;
+import org.eclipse.tycho.targeteditor.model.LDIModelFactory;
+import org.eclipse.tycho.targeteditor.model.NexusVersionCalculationResult;
+
+/**
+ * Updates the Nexus repositories of target definition files to the latest release of their
+ * artifacts, without a workbench; this is what "Use Latest Release" does in the editor.
+ * <p>
+ * The files are processed by a fixed number of worker jobs. The available versions of each
+ * artifact are requested once per run through the {@link INexusRepositoryService}, which fetches
+ * them in parallel; only the latest versions are kept for the remaining files.
+ * <p>
+ * {@link #update(List, IProgressMonitor)} loads at most one target definition per worker at the
+ * same time, so that any number of files can be processed.
+ * {@link #updateWorkspaceTargets(List, IProgressMonitor)} loads all target definitions first, so
+ * that all versions are fetched in parallel before the first file is updated.
+ */
+public final class TargetVersionUpdater {
+
+    public static final int DEFAULT_THREAD_COUNT = 4;
+
+    private static final long POLL_INTERVAL = 100;
+
+    private final INexusRepositoryService repositoryService;
+    private final ITargetPlatformService targetPlatformService;
+    private final int threadCount;
+    private final boolean dryRun;
+
+    /**
+     * @param threadCount
+     *            number of target definitions processed in parallel
+     * @param dryRun
+     *            if <code>true</code>, the changes are only reported and no file is written
+     */
+    public TargetVersionUpdater(final int threadCount, final boolean dryRun) {
+        this(LDIModelFactory.getNexusRepositoryService(), LDIModelFactory.getTargetPlatformService(), threadCount,
+                dryRun);
+    }
+
+    TargetVersionUpdater(final INexusRepositoryService repositoryService,
+            final ITargetPlatformService targetPlatformService, final int threadCount, final boolean dryRun) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("Thread count must be positive");
+        }
+        this.repositoryService = repositoryService;
+        this.targetPlatformService = targetPlatformService;
+        this.threadCount = threadCount;
+        this.dryRun = dryRun;
+    }
+
+    /**
+     * Updates the given target definition files in place.
+     *
+     * @param monitor
+     *            progress monitor or <code>null</code>
+     * @return the results in the order of the files
+     * @throws OperationCanceledException
+     *             if the monitor was cancelled
+     */
+    public List<TargetUpdateResult> update(final List<File> targetFiles, final IProgressMonitor monitor) {
+        final List<TargetEntry> entries = new ArrayList<TargetEntry>(targetFiles.size());
+        for (final File file : targetFiles) {
+            entries.add(new TargetEntry(file, null));
+        }
+        final SubMonitor progress = SubMonitor.convert(monitor, "Updating target definitions", targetFiles.size());
+        return update(entries, false, progress);
+    }
+
+    /**
+     * Updates the given target definition files of the workspace. All target definitions are
+     * loaded before the first one is updated.
+     *
+     * @param targetFiles
+     *            files stored in the local file system
+     * @param monitor
+     *            progress monitor or <code>null</code>
+     * @return the results in the order of the files
+     * @throws OperationCanceledException
+     *             if the monitor was cancelled
+     */
+    public List<TargetUpdateResult> updateWorkspaceTargets(final List<IFile> targetFiles,
+            final IProgressMonitor monitor) {
+        final SubMonitor progress = SubMonitor.convert(monitor, "Updating target definitions",
+                2 * targetFiles.size());
+        progress.subTask("Loading target definitions");
+        final List<TargetEntry> entries = new ArrayList<TargetEntry>(targetFiles.size());
+        for (final IFile file : targetFiles) {
+            if (file.getLocation() == null) {
+                throw new IllegalArgumentException("Not stored in the local file system: " + file.getFullPath());
+            }
+            entries.add(new TargetEntry(file.getLocation().toFile(), targetPlatformService.getTarget(file)));
+        }
+        return update(entries, true, progress);
+    }
+
+    private List<TargetUpdateResult> update(final List<TargetEntry> entries, final boolean preload,
+            final SubMonitor progress) {
+        final UpdateRun run = new UpdateRun(entries);
+        if (preload) {
+            for (final TargetEntry entry : entries) {
+                if (progress.isCanceled()) {
+                    throw new OperationCanceledException();
+                }
+                run.load(entry);
+                progress.worked(1);
+            }
+        }
+        final List<Job> workers = new ArrayList<Job>();
+        final int workerCount = Math.min(threadCount, entries.size());
+        run.activeWorkers.set(workerCount);
+        for (int i = 0; i < workerCount; i++) {
+            final Job worker = run.new Worker();
+            worker.addJobChangeListener(new JobChangeAdapter() {
+                @Override
+                public void done(final IJobChangeEvent event) {
+                    run.activeWorkers.decrementAndGet();
+                }
+            });
+            workers.add(worker);
+            worker.schedule();
+        }
+        try {
+            int completed = 0;
+            while (completed < entries.size()) {
+                if (progress.isCanceled()) {
+                    throw new OperationCanceledException();
+                }
+                final Integer index = run.completedIndices.poll(POLL_INTERVAL, TimeUnit.MILLISECONDS);
+                if (index != null) {
+                    completed++;
+                    progress.subTask(entries.get(index.intValue()).file.getName());
+                    progress.worked(1);
+                } else if (run.activeWorkers.get() == 0 && run.completedIndices.isEmpty()) {
+                    // the workers stopped without updating all files, e.g. after an error
+                    break;
+                }
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OperationCanceledException();
+        } finally {
+            for (final Job worker : workers) {
+                worker.cancel();
+            }
+            joinAll(workers);
+        }
+        final List<TargetUpdateResult> results = new ArrayList<TargetUpdateResult>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            final TargetUpdateResult result = run.results.get(i);
+            if (result != null) {
+                results.add(result);
+            } else {
+                final File file = entries.get(i).file;
+                results.add(new TargetUpdateResult(file, Collections.<String> emptyList(), new Status(IStatus.ERROR,
+                        Activator.PLUGIN_ID, "Update of " + file + " was aborted")));
+            }
+        }
+        return results;
+    }
+
+    private static void joinAll(final List<Job> jobs) {
+        boolean interrupted = false;
+        for (final Job job : jobs) {
+            while (true) {
+                try {
+                    job.join();
+                    break;
+                } catch (final InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * A target definition file and, while it is updated, its model.
+     */
+    private static final class TargetEntry {
+        final File file;
+        /** <code>null</code> for files outside of the workspace until loaded */
+        ITargetHandle handle;
+        ITargetDefinition target;
+        ILDITargetDefintion ldiTarget;
+        final List<INexusRepository> repositories = new ArrayList<INexusRepository>();
+        final List<VersionRequest> requests = new ArrayList<VersionRequest>();
+        IStatus loadProblem;
+
+        TargetEntry(final File file, final ITargetHandle handle) {
+            this.file = file;
+            this.handle = handle;
+        }
+
+        void release() {
+            target = null;
+            ldiTarget = null;
+            repositories.clear();
+            requests.clear();
+        }
+    }
+
+    /**
+     * State of a single call of {@link TargetVersionUpdater#update(List, IProgressMonitor)}.
+     */
+    private final class UpdateRun {
+        final List<TargetEntry> entries;
+        final AtomicInteger nextIndex = new AtomicInteger();
+        final AtomicReferenceArray<TargetUpdateResult> results;
+        final BlockingQueue<Integer> completedIndices = new LinkedBlockingQueue<Integer>();
+        final AtomicInteger activeWorkers = new AtomicInteger();
+        /** version key -> request of the latest versions of an artifact */
+        final ConcurrentMap<Object, VersionRequest> versionRequests = new ConcurrentHashMap<Object, VersionRequest>();
+
+        UpdateRun(final List<TargetEntry> entries) {
+            this.entries = entries;
+            this.results = new AtomicReferenceArray<TargetUpdateResult>(entries.size());
+        }
+
+        class Worker extends Job {
+
+            Worker() {
+                super("Updating target definitions");
+                setSystem(true);
+            }
+
+            @Override
+            protected IStatus run(final IProgressMonitor monitor) {
+                int index;
+                while ((index = nextIndex.getAndIncrement()) < entries.size()) {
+                    if (monitor.isCanceled()) {
+                        return Status.CANCEL_STATUS;
+                    }
+                    final TargetUpdateResult result = updateTarget(entries.get(index), monitor);
+                    if (result == null) {
+                        return Status.CANCEL_STATUS;
+                    }
+                    results.set(index, result);
+                    completedIndices.add(Integer.valueOf(index));
+                }
+                return Status.OK_STATUS;
+            }
+        }
+
+        /**
+         * Loads the target definition and requests the versions of its Nexus repositories.
+         */
+        void load(final TargetEntry entry) {
+            try {
+                if (entry.handle == null) {
+                    entry.handle = targetPlatformService.getTarget(entry.file.toURI());
+                }
+                entry.target = entry.handle.getTargetDefinition();
+                entry.ldiTarget = LDIModelFactory.createLDITargetDefinition(entry.target);
+                for (final ILDIRepositoryLocation location : entry.ldiTarget.getRepositoryLocations()) {
+                    for (final IRepository repository : location.getRepositories()) {
+                        if (repository instanceof INexusRepository) {
+                            entry.repositories.add((INexusRepository) repository);
+                            entry.requests.add(requestVersions((INexusRepository) repository));
+                        }
+                    }
+                }
+            } catch (final CoreException e) {
+                entry.loadProblem = e.getStatus();
+            } catch (final RuntimeException e) {
+                entry.loadProblem = new Status(IStatus.ERROR, Activator.PLUGIN_ID, e.getMessage(), e);
+            }
+        }
+
+        /**
+         * @return the result, or <code>null</code> if cancelled
+         */
+        TargetUpdateResult updateTarget(final TargetEntry entry, final IProgressMonitor monitor) {
+            if (entry.target == null && entry.loadProblem == null) {
+                load(entry);
+            }
+            final List<String> changes = new ArrayList<String>();
+            final MultiStatus problems = new MultiStatus(Activator.PLUGIN_ID, 0, "Problems updating " + entry.file,
+                    null);
+            try {
+                if (entry.loadProblem != null) {
+                    problems.add(entry.loadProblem);
+                    return new TargetUpdateResult(entry.file, changes, problems);
+                }
+                entry.ldiTarget.beginChange();
+                try {
+                    for (int i = 0; i < entry.repositories.size(); i++) {
+                        final INexusRepository repository = entry.repositories.get(i);
+                        final VersionRequest request = entry.requests.get(i);
+                        if (!request.await(monitor)) {
+                            return null;
+                        }
+                        if (request.versionInfo == null) {
+                            problems.add(request.status);
+                        } else if (LDIModelFactory.isReleaseUpdatable(repository, request.versionInfo)) {
+                            final String oldVersion = repository.getVersion();
+                            LDIModelFactory.updateToLatestRelease(repository, request.versionInfo);
+                            changes.add(repository.getGroupId() + ":" + repository.getArtifactId() + " "
+                                    + oldVersion + " -> " + repository.getVersion());
+                        }
+                    }
+                } finally {
+                    entry.ldiTarget.commitChange();
+                }
+                if (!changes.isEmpty() && !dryRun) {
+                    targetPlatformService.saveTargetDefinition(entry.target);
+                }
+            } catch (final CoreException e) {
+                // the file is saved last, so nothing was written
+                changes.clear();
+                problems.add(e.getStatus());
+            } catch (final RuntimeException e) {
+                changes.clear();
+                problems.add(new Status(IStatus.ERROR, Activator.PLUGIN_ID, e.getMessage(), e));
+            } finally {
+                entry.release();
+            }
+            return new TargetUpdateResult(entry.file, changes, problems.isOK() ? Status.OK_STATUS : problems);
+        }
+
+        private VersionRequest requestVersions(final INexusRepository repository) {
+            final INexusRepository snapshotRepository = LDIModelFactory.createRelatedSnapshotRepository(repository);
+            final Object key = LDIModelFactory.createVersionKey(snapshotRepository);
+            VersionRequest request = versionRequests.get(key);
+            if (request == null) {
+                final VersionRequest newRequest = new VersionRequest();
+                request = versionRequests.putIfAbsent(key, newRequest);
+                if (request == null) {
+                    request = newRequest;
+                    repositoryService.getVersionInfoAsync(snapshotRepository, newRequest);
+                }
+            }
+            return request;
+        }
+    }
+
+    /**
+     * Latest versions of an artifact, shared by all repositories of the artifact.
+     */
+    private static final class VersionRequest implements INexusVersionInfoCallback {
+        private final CountDownLatch done = new CountDownLatch(1);
+        volatile INexusVersionInfo versionInfo;
+        volatile IStatus status;
+
+        @Override
+        public void notifyVersionCalculated(final NexusVersionCalculationResult calculationResult) {
+            final INexusVersionInfo info = calculationResult.getVersionInfo();
+            if (calculationResult.getStatus().isOK() && info != null) {
+                // the complete version list is not needed, keep the memory per artifact small
+                final String latestRelease = info.getLatestReleaseVersion();
+                versionInfo = LDIModelFactory.createNexusVersionInfo(info.getLatestVersion(), latestRelease,
+                        latestRelease == null ? Collections.singletonList(info.getLatestVersion()) : Arrays.asList(
+                                latestRelease, info.getLatestVersion()));
+            }
+            status = calculationResult.getStatus();
+            done.countDown();
+        }
+
+        /**
+         * @return <code>false</code> if the monitor was cancelled before the versions arrived
+         */
+        boolean await(final IProgressMonitor monitor) {
+            try {
+                while (!done.await(POLL_INTERVAL, TimeUnit.MILLISECONDS)) {
+                    if (monitor.isCanceled()) {
+                        return false;
+                    }
+                }
+                return true;
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+}
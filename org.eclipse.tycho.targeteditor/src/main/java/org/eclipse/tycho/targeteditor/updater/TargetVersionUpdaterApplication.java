@@ -0,0 +1,158 @@
+/**
+ * Copyright (c) 2011, 2014 SAP AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    SAP AG - initial API and implementation
+ */
+package org.eclipse.tycho.targeteditor.updater;
+
+import java.io.File;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.equinox.app.IApplication;
+import org.eclipse.equinox.app.IApplicationContext;
+
+/**
+ * Headless application updating the Nexus repositories of target definition files to the latest
+ * releases, e.g. for nightly builds:
+ *
+ * <pre>
+ * eclipse -nosplash -application org.eclipse.tycho.targeteditor.targetVersionUpdater
+ *     [-threads &lt;count&gt;] [-dryRun] &lt;file or directory&gt;...
+ * </pre>
+ *
+ * Directories are searched recursively for <code>*.target</code> files. The exit code is 1 if a
+ * file could not be updated completely or the arguments are invalid.
+ */
+public class TargetVersionUpdaterApplication implements IApplication {
+
+    static final Integer EXIT_PROBLEMS = Integer.valueOf(1);
+
+    static final String USAGE = "Usage: -application org.eclipse.tycho.targeteditor.targetVersionUpdater"
+            + " [-threads <count>] [-dryRun] <file or directory>...";
+
+    private static final String TARGET_FILE_EXTENSION = ".target";
+
+    static final class Arguments {
+        int threadCount = TargetVersionUpdater.DEFAULT_THREAD_COUNT;
+        boolean dryRun;
+        final List<File> targetFiles = new ArrayList<File>();
+    }
+
+    @Override
+    public Object start(final IApplicationContext context) throws Exception {
+        final String[] args = (String[]) context.getArguments().get(IApplicationContext.APPLICATION_ARGS);
+        final Arguments arguments;
+        try {
+            arguments = parseArguments(args != null ? args : new String[0]);
+        } catch (final IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            return EXIT_PROBLEMS;
+        }
+        final List<TargetUpdateResult> results = new TargetVersionUpdater(arguments.threadCount, arguments.dryRun)
+                .update(arguments.targetFiles, new NullProgressMonitor());
+        return report(results, System.out) ? EXIT_OK : EXIT_PROBLEMS;
+    }
+
+    /**
+     * @throws IllegalArgumentException
+     *             if an option is unknown or has an invalid value, or no file is given
+     */
+    static Arguments parseArguments(final String[] args) {
+        final Arguments arguments = new Arguments();
+        boolean filesGiven = false;
+        for (int i = 0; i < args.length; i++) {
+            if ("-threads".equals(args[i])) {
+                if (i + 1 == args.length) {
+                    throw new IllegalArgumentException("Missing value of -threads");
+                }
+                arguments.threadCount = parseThreadCount(args[++i]);
+            } else if ("-dryRun".equals(args[i])) {
+                arguments.dryRun = true;
+            } else if (args[i].startsWith("-")) {
+                throw new IllegalArgumentException("Unknown option " + args[i]);
+            } else {
+                collectTargetFiles(new File(args[i]), arguments.targetFiles);
+                filesGiven = true;
+            }
+        }
+        if (!filesGiven) {
+            throw new IllegalArgumentException("No target definition file or directory given");
+        }
+        return arguments;
+    }
+
+    private static int parseThreadCount(final String value) {
+        try {
+            final int threadCount = Integer.parseInt(value);
+            if (threadCount >= 1) {
+                return threadCount;
+            }
+        } catch (final NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException("Invalid number of threads " + value + ", must be a positive number");
+    }
+
+    static void collectTargetFiles(final File file, final List<File> targetFiles) {
+        if (file.isDirectory()) {
+            final File[] children = file.listFiles();
+            if (children != null) {
+                for (final File child : children) {
+                    if (child.isDirectory() || child.getName().endsWith(TARGET_FILE_EXTENSION)) {
+                        collectTargetFiles(child, targetFiles);
+                    }
+                }
+            }
+        } else {
+            targetFiles.add(file);
+        }
+    }
+
+    /**
+     * Prints the changes and problems of each file.
+     *
+     * @return <code>true</code> if there were no problems
+     */
+    static boolean report(final List<TargetUpdateResult> results, final PrintStream out) {
+        int changedFiles = 0;
+        int problemFiles = 0;
+        for (final TargetUpdateResult result : results) {
+            if (result.isChanged()) {
+                changedFiles++;
+                out.println(result.getFile());
+                for (final String change : result.getChanges()) {
+                    out.println("  " + change);
+                }
+            }
+            if (!result.getStatus().isOK()) {
+                problemFiles++;
+                printStatus(result.getStatus(), out, "");
+            }
+        }
+        out.println(results.size() + " target definitions, " + changedFiles + " changed, " + problemFiles
+                + " with problems");
+        return problemFiles == 0;
+    }
+
+    private static void printStatus(final IStatus status, final PrintStream out, final String indent) {
+        out.println(indent + status.getMessage());
+        for (final IStatus child : status.getChildren()) {
+            printStatus(child, out, indent + "  ");
+        }
+    }
+
+    @Override
+    public void stop() {
+        // the update cannot be stopped from outside
+    }
+}
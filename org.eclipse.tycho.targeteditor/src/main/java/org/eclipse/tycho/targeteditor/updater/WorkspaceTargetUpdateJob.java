@@ -0,0 +1,140 @@
+/**
+ * Copyright (c) 2011, 2014 SAP AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    SAP AG - initial API and implementation
+ */
+package org.eclipse.tycho.targeteditor.updater;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.core.resources.IContainer;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceProxy;
+import org.eclipse.core.resources.IResourceProxyVisitor;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.MultiStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.tycho.targeteditor.Activator;
+
+/**
+ * Updates the Nexus repositories of all target definition files in the workspace to the latest
+ * releases. Derived files, e.g. copies in build output folders, are skipped. Files which are not
+ * stored in the local file system or have unsaved changes in an editor are skipped with a warning.
+ * <p>
+ * All target definitions are loaded first, so that the versions of every artifact are fetched
+ * once and in parallel; then the files are updated by the worker jobs of the
+ * {@link TargetVersionUpdater}. The job does not hold a scheduling rule, the workers lock each file
+ * while it is written.
+ */
+public class WorkspaceTargetUpdateJob extends Job {
+
+    private static final String TARGET_FILE_EXTENSION = ".target";
+
+    private final IContainer root;
+    private final Set<IFile> unsavedFiles;
+    private final TargetVersionUpdater updater;
+    private List<TargetUpdateResult> results = Collections.emptyList();
+
+    /**
+     * @param unsavedFiles
+     *            the files with unsaved changes in an editor, which are not rewritten
+     */
+    public WorkspaceTargetUpdateJob(final Collection<IFile> unsavedFiles) {
+        this(ResourcesPlugin.getWorkspace().getRoot(), unsavedFiles, new TargetVersionUpdater(
+                TargetVersionUpdater.DEFAULT_THREAD_COUNT, false));
+    }
+
+    WorkspaceTargetUpdateJob(final IContainer root, final Collection<IFile> unsavedFiles,
+            final TargetVersionUpdater updater) {
+        super("Update target definitions to latest releases");
+        this.root = root;
+        this.unsavedFiles = new HashSet<IFile>(unsavedFiles);
+        this.updater = updater;
+        setUser(true);
+    }
+
+    @Override
+    protected IStatus run(final IProgressMonitor monitor) {
+        final SubMonitor progress = SubMonitor.convert(monitor, getName(), 10);
+        final List<IStatus> skipped = new ArrayList<IStatus>();
+        try {
+            progress.subTask("Searching target definitions");
+            final List<IFile> targetFiles = new ArrayList<IFile>();
+            for (final IFile file : collectTargetFiles(root)) {
+                if (file.getLocation() == null) {
+                    skipped.add(createSkippedStatus(file, "it is not stored in the local file system"));
+                } else if (unsavedFiles.contains(file)) {
+                    skipped.add(createSkippedStatus(file, "it has unsaved changes in an editor"));
+                } else {
+                    targetFiles.add(file);
+                }
+            }
+            progress.worked(1);
+            results = updater.updateWorkspaceTargets(targetFiles, progress.newChild(9));
+        } catch (final CoreException e) {
+            return e.getStatus();
+        } catch (final OperationCanceledException e) {
+            return Status.CANCEL_STATUS;
+        }
+        final MultiStatus problems = new MultiStatus(Activator.PLUGIN_ID, 0,
+                "Some target definitions could not be updated completely", null);
+        for (final IStatus status : skipped) {
+            problems.add(status);
+        }
+        for (final TargetUpdateResult result : results) {
+            if (!result.getStatus().isOK()) {
+                problems.add(result.getStatus());
+            }
+        }
+        return problems.isOK() ? Status.OK_STATUS : problems;
+    }
+
+    private static IStatus createSkippedStatus(final IFile file, final String reason) {
+        return new Status(IStatus.WARNING, Activator.PLUGIN_ID, "Skipped " + file.getFullPath() + ", " + reason);
+    }
+
+    /**
+     * @return the results of the last run, in the order of the files; skipped files are not
+     *         contained
+     */
+    public List<TargetUpdateResult> getResults() {
+        return results;
+    }
+
+    static List<IFile> collectTargetFiles(final IContainer container) throws CoreException {
+        final List<IFile> targetFiles = new ArrayList<IFile>();
+        container.accept(new IResourceProxyVisitor() {
+            @Override
+            public boolean visit(final IResourceProxy proxy) {
+                if (proxy.isDerived()) {
+                    return false;
+                }
+                if (proxy.getType() == IResource.FILE) {
+                    if (proxy.getName().endsWith(TARGET_FILE_EXTENSION)) {
+                        targetFiles.add((IFile) proxy.requestResource());
+                    }
+                    return false;
+                }
+                return true;
+            }
+        }, IResource.NONE);
+        return targetFiles;
+    }
+}